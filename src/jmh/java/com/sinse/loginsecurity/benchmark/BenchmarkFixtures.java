@@ -0,0 +1,124 @@
+package com.sinse.loginsecurity.benchmark;
+
+import com.sinse.loginsecurity.config.CustomUserDetails;
+import com.sinse.loginsecurity.domain.Role;
+import com.sinse.loginsecurity.domain.User;
+import com.sinse.loginsecurity.service.AccessTokenRevocationService;
+import com.sinse.loginsecurity.service.JpaUserDetailsService;
+import com.sinse.loginsecurity.service.RoleRegistry;
+import com.sinse.loginsecurity.service.SecurityEpochService;
+import com.sinse.loginsecurity.util.AuthMetrics;
+import com.sinse.loginsecurity.util.CircuitBreaker;
+import com.sinse.loginsecurity.util.JwtKeyRing;
+import com.sinse.loginsecurity.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 벤치마크에서 Spring 컨텍스트, DB, Redis 없이 인증 컴포넌트를 만들기 위한 도우미
+ * application.properties와 같은 비밀키, 같은 토큰 유효시간을 사용함
+ */
+final class BenchmarkFixtures {
+
+    static final String SECRET = "a-very-long-and-secure-secret-key-that-is-at-least-256-bits-long";
+    static final String USERNAME = "bench-user";
+    static final String ROLE = "ROLE_USER";
+    static final long ACCESS_TOKEN_MS = 15 * 60 * 1000L;
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtUtil jwtUtil() {
+        return new JwtUtil(SECRET);
+    }
+
+    // 클레임 프로필(compact/legacy)을 지정한 JwtUtil (compact는 roleRegistry()의 역할 코드 사용)
+    static JwtUtil jwtUtil(String claimProfile) {
+        return new JwtUtil(JwtKeyRing.hmac(SECRET), roleRegistry(), claimProfile);
+    }
+
+    // 운영과 같은 조건으로 측정하기 위해 실제 Timer에 기록함
+    static AuthMetrics authMetrics() {
+        return new AuthMetrics(new SimpleMeterRegistry());
+    }
+
+    static Role role() {
+        Role role = new Role();
+        role.setRoleId(1);
+        role.setRoleName("USER");
+        return role;
+    }
+
+    // DB 대신 role()만 올려둔 RoleRegistry
+    static RoleRegistry roleRegistry() {
+        RoleRegistry roleRegistry = new RoleRegistry(null, null, new RedisMessageListenerContainer(), null);
+        roleRegistry.replace(List.of(role()));
+        return roleRegistry;
+    }
+
+    static User user() {
+        Role role = role();
+
+        User user = new User();
+        user.setUserId(1);
+        user.setUsername(USERNAME);
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOHiA5T5bC1o1rU0h2lYzvEYs7uQ3yEjW");
+        user.setAge(20);
+        user.setRole(role);
+        user.setRoleId(role.getRoleId());
+        return user;
+    }
+
+    // DB 대신 고정된 사용자를 돌려주는 UserDetailsService (DB 조회 비용은 측정 대상에서 제외)
+    static JpaUserDetailsService fixedUserDetailsService() {
+        User user = user();
+        UserDetails userDetails = new CustomUserDetails(
+                user.getUsername(), user.getPassword(), roleRegistry().authoritiesOf(user.getRoleId()));
+        return new JpaUserDetailsService(null, null, null, null) {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                return userDetails;
+            }
+        };
+    }
+
+    // Redis를 호출하지 않는 fixture에 넘기는 circuit breaker (운영 기본값과 같은 설정)
+    static CircuitBreaker redisCircuitBreaker() {
+        return new CircuitBreaker(3, Duration.ofSeconds(5));
+    }
+
+    // 폐기된 토큰이 없는 상태 (Redis를 조회하지 않음, 폐기 목록 확인 비용은 측정 대상에서 제외)
+    static AccessTokenRevocationService noRevocations() {
+        return new AccessTokenRevocationService(null, new RedisMessageListenerContainer(), redisCircuitBreaker(),
+                100_000, 0.01, 1_000, 60_000) {
+            @Override
+            public boolean mightBeRevoked(String tokenId) {
+                return false;
+            }
+
+            @Override
+            public boolean isRevoked(String tokenId) {
+                return false;
+            }
+        };
+    }
+
+    // 모든 사용자의 epoch가 0인 상태 (Redis를 다녀오지 않음)
+    static SecurityEpochService zeroEpochService() {
+        return new SecurityEpochService(null, new RedisMessageListenerContainer(), redisCircuitBreaker(), 60, 1_000, 1_000, true) {
+            @Override
+            public long current(String username) {
+                return 0L;
+            }
+
+            @Override
+            public boolean isRevoked(String username, long tokenEpoch) {
+                return tokenEpoch < 0L;
+            }
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package com.sinse.loginsecurity.benchmark;
+
+import com.sinse.loginsecurity.config.CustomUserDetails;
+import com.sinse.loginsecurity.domain.User;
+import com.sinse.loginsecurity.service.RoleRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * Spring Security가 요청 하나에 여러 번 호출하는 getAuthorities() 비용 측정
+ */
+@State(Scope.Benchmark)
+public class CustomUserDetailsBenchmark {
+
+    private User user;
+    private RoleRegistry roleRegistry;
+    private CustomUserDetails userDetails;
+
+    @Setup
+    public void setUp() {
+        user = BenchmarkFixtures.user();
+        roleRegistry = BenchmarkFixtures.roleRegistry();
+        userDetails = create();
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return userDetails.getAuthorities();
+    }
+
+    @Benchmark
+    public CustomUserDetails create() {
+        // 권한 목록은 RoleRegistry가 미리 만들어 둔 것을 공유하므로 권한 객체 할당이 없음
+        return new CustomUserDetails(user.getUsername(), user.getPassword(), roleRegistry.authoritiesOf(user.getRoleId()));
+    }
+}
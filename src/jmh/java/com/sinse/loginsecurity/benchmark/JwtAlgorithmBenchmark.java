@@ -0,0 +1,59 @@
+package com.sinse.loginsecurity.benchmark;
+
+import com.sinse.loginsecurity.util.JwtClaims;
+import com.sinse.loginsecurity.util.JwtKeyRing;
+import com.sinse.loginsecurity.util.JwtUtil;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.security.KeyPair;
+
+/**
+ * 서명 알고리즘별 JWT 서명/검증 비용 비교 (노드 크기 산정용)
+ * HS512는 현재 spring.jwt.secret(64바이트)으로 만들어지는 토큰, ES256/RS256은 공개키 검증 방식
+ * (EdDSA는 사용 중인 jjwt 0.11.5가 지원하지 않아 제외)
+ */
+@State(Scope.Benchmark)
+public class JwtAlgorithmBenchmark {
+
+    @Param({"HS256", "HS512", "ES256", "RS256"})
+    public String algorithm;
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtKeyRing keyRing = switch (algorithm) {
+            // 32바이트 비밀키 -> HS256
+            case "HS256" -> JwtKeyRing.hmac(BenchmarkFixtures.SECRET.substring(0, 32));
+            case "HS512" -> JwtKeyRing.hmac(BenchmarkFixtures.SECRET);
+            default -> asymmetric(SignatureAlgorithm.forName(algorithm));
+        };
+        jwtUtil = new JwtUtil(keyRing);
+        token = jwtUtil.createJwt(BenchmarkFixtures.USERNAME, BenchmarkFixtures.ROLE, 24 * 60 * 60 * 1000L);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtUtil.createJwt(BenchmarkFixtures.USERNAME, BenchmarkFixtures.ROLE, BenchmarkFixtures.ACCESS_TOKEN_MS);
+    }
+
+    @Benchmark
+    public JwtClaims verify() {
+        return jwtUtil.verify(token);
+    }
+
+    private static JwtKeyRing asymmetric(SignatureAlgorithm signatureAlgorithm) {
+        JwtKeyRing keyRing = JwtKeyRing.hmac(BenchmarkFixtures.SECRET);
+        KeyPair keyPair = Keys.keyPairFor(signatureAlgorithm);
+        keyRing.activate("bench-" + signatureAlgorithm.getValue(), signatureAlgorithm,
+                keyPair.getPrivate(), keyPair.getPublic(), null);
+        return keyRing;
+    }
+}
@@ -0,0 +1,88 @@
+package com.sinse.loginsecurity.benchmark;
+
+import com.sinse.loginsecurity.config.JwtFilter;
+import com.sinse.loginsecurity.util.JwtUtil;
+import com.sinse.loginsecurity.util.VerifiedTokenCache;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+
+/**
+ * JwtFilter 전체(헤더 추출 -> 검증 -> 인증 객체 생성) 비용 측정
+ * publicPath, malformedHeader는 서명 검증 전에 끝나는 경로의 비용
+ * DB 조회는 고정된 사용자를 돌려주는 스텁으로 대체하므로 필터 자체의 CPU 비용만 측정됨
+ */
+@State(Scope.Benchmark)
+public class JwtFilterBenchmark {
+
+    // DB 조회 모드 / stateless 모드
+    @Param({"false", "true"})
+    public boolean stateless;
+
+    // 검증 결과 캐시 사용 여부
+    @Param({"false", "true"})
+    public boolean tokenCache;
+
+    private JwtFilter jwtFilter;
+    private String authorization;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = BenchmarkFixtures.jwtUtil();
+        jwtFilter = new JwtFilter(
+                new VerifiedTokenCache(jwtUtil, tokenCache, 10_000),
+                BenchmarkFixtures.fixedUserDetailsService(),
+                BenchmarkFixtures.zeroEpochService(),
+                stateless,
+                BenchmarkFixtures.authMetrics(),
+                BenchmarkFixtures.roleRegistry(),
+                BenchmarkFixtures.noRevocations());
+        authorization = "Bearer " + jwtUtil.createJwt(
+                BenchmarkFixtures.USERNAME, BenchmarkFixtures.ROLE, BenchmarkFixtures.ACCESS_TOKEN_MS);
+    }
+
+    @Benchmark
+    public Authentication doFilter() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/info");
+        request.setServletPath("/info");
+        request.addHeader("Authorization", authorization);
+        try {
+            jwtFilter.doFilter(request, response, chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    // 공개 경로(정적 파일) : shouldNotFilter에서 바로 통과하는 비용
+    @Benchmark
+    public Authentication publicPath() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/css/style.css");
+        request.setServletPath("/css/style.css");
+        request.addHeader("Authorization", authorization);
+        jwtFilter.doFilter(request, response, chain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    // 형식이 잘못된 헤더 : 서명 검증 전에 거르는 비용
+    @Benchmark
+    public Authentication malformedHeader() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/info");
+        request.setServletPath("/info");
+        request.addHeader("Authorization", "Bearer not a jwt");
+        jwtFilter.doFilter(request, response, chain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,63 @@
+package com.sinse.loginsecurity.benchmark;
+
+import com.sinse.loginsecurity.util.JwtClaims;
+import com.sinse.loginsecurity.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JWT 생성과 클레임 추출 비용 측정
+ * legacyThreeParses는 예전 JwtFilter/reissue처럼 isExpired, getUsername, getRole을 따로 호출하는 경우
+ * claimProfile로 legacy(긴 클레임 이름, UUID jti)와 compact(v=2) 토큰의 생성/검증 비용을 비교
+ */
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    @Param({"legacy", "compact"})
+    public String claimProfile;
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = BenchmarkFixtures.jwtUtil(claimProfile);
+        token = jwtUtil.createJwt(BenchmarkFixtures.USERNAME, BenchmarkFixtures.ROLE, 24 * 60 * 60 * 1000L);
+    }
+
+    @Benchmark
+    public String createJwt() {
+        return jwtUtil.createJwt(BenchmarkFixtures.USERNAME, BenchmarkFixtures.ROLE, BenchmarkFixtures.ACCESS_TOKEN_MS);
+    }
+
+    @Benchmark
+    public JwtClaims verify() {
+        return jwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public String getUsername() {
+        return jwtUtil.getUsername(token);
+    }
+
+    @Benchmark
+    public String getRole() {
+        return jwtUtil.getRole(token);
+    }
+
+    @Benchmark
+    public Boolean isExpired() {
+        return jwtUtil.isExpired(token);
+    }
+
+    @Benchmark
+    public void legacyThreeParses(Blackhole blackhole) {
+        blackhole.consume(jwtUtil.isExpired(token));
+        blackhole.consume(jwtUtil.getUsername(token));
+        blackhole.consume(jwtUtil.getRole(token));
+    }
+}
@@ -0,0 +1,63 @@
+package com.sinse.loginsecurity.benchmark;
+
+import com.sinse.loginsecurity.service.LoginThrottle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * LoginThrottle 로컬 판단 비용 측정 (Redis 없음) : /login 앞에 추가되는 비용이 BCrypt(수십 ms)에 비해 무시할 수준인지 확인
+ * - allowed : 서로 다른 username/IP 여러 개에 골고루 시도 (버킷 조회 + CAS 성공 경로)
+ * - hotRejected : 한도를 넘은 username 하나에 계속 시도 (공격 상황에서의 거절 비용, 해싱/DB 없음)
+ * - *Contended : 같은 작업을 4개 스레드에서 동시에 실행 (CAS 경합)
+ */
+@State(Scope.Benchmark)
+public class LoginThrottleBenchmark {
+
+    private static final int KEYS = 4096;
+
+    private LoginThrottle allowing;
+    private LoginThrottle rejecting;
+    private final String[] usernames = new String[KEYS];
+    private final String[] clientIps = new String[KEYS];
+
+    @Setup
+    public void setUp() {
+        // 측정 중에는 거절되지 않을 만큼 큰 한도
+        allowing = LoginThrottle.localOnly(1e12, Integer.MAX_VALUE, 1e12, Integer.MAX_VALUE);
+        // 분당 1회, burst 1 : 첫 시도 이후로는 계속 거절
+        rejecting = LoginThrottle.localOnly(1, 1, 1e12, Integer.MAX_VALUE);
+        for (int i = 0; i < KEYS; i++) {
+            usernames[i] = "user-" + i;
+            clientIps[i] = "10.0." + (i >> 8) + "." + (i & 0xff);
+        }
+        rejecting.check(BenchmarkFixtures.USERNAME, "10.0.0.1");
+    }
+
+    @Benchmark
+    public LoginThrottle.Decision allowed() {
+        int i = ThreadLocalRandom.current().nextInt(KEYS);
+        return allowing.check(usernames[i], clientIps[i]);
+    }
+
+    @Benchmark
+    public LoginThrottle.Decision hotRejected() {
+        return rejecting.check(BenchmarkFixtures.USERNAME, "10.0.0.1");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public LoginThrottle.Decision allowedContended() {
+        return allowed();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public LoginThrottle.Decision hotRejectedContended() {
+        return hotRejected();
+    }
+}
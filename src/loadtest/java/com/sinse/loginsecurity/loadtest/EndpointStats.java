@@ -0,0 +1,82 @@
+package com.sinse.loginsecurity.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 엔드포인트 하나의 응답 시간과 상태 코드 집계
+ * 부하 테스트 규모(수십만 건)에서는 모든 측정값을 보관해 정렬하는 편이 히스토그램보다 정확하고 단순함
+ */
+final class EndpointStats {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long[] latenciesNanos = new long[1024];
+    private int count;
+    private final Map<Integer, Integer> statusCounts = new TreeMap<>();
+    private int errors;
+
+    // status가 0이면 응답을 받지 못한 경우 (연결 실패, 타임아웃)
+    void record(long latencyNanos, int status) {
+        lock.lock();
+        try {
+            if (count == latenciesNanos.length) {
+                latenciesNanos = Arrays.copyOf(latenciesNanos, count * 2);
+            }
+            latenciesNanos[count++] = latencyNanos;
+            if (status == 0) {
+                errors++;
+            } else {
+                statusCounts.merge(status, 1, Integer::sum);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // JSON 결과 파일에 들어갈 요약 (지연 시간은 ms)
+    Map<String, Object> summary(double elapsedSeconds) {
+        lock.lock();
+        try {
+            long[] sorted = Arrays.copyOf(latenciesNanos, count);
+            Arrays.sort(sorted);
+            Map<String, Object> latency = new LinkedHashMap<>();
+            latency.put("p50", percentileMillis(sorted, 0.50));
+            latency.put("p95", percentileMillis(sorted, 0.95));
+            latency.put("p99", percentileMillis(sorted, 0.99));
+            latency.put("p999", percentileMillis(sorted, 0.999));
+            latency.put("max", count == 0 ? 0.0 : toMillis(sorted[count - 1]));
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", count);
+            summary.put("throughputPerSecond", round(count / elapsedSeconds));
+            summary.put("latencyMs", latency);
+            Map<String, Integer> statuses = new LinkedHashMap<>();
+            statusCounts.forEach((status, statusCount) -> statuses.put(String.valueOf(status), statusCount));
+            summary.put("status", statuses);
+            summary.put("errors", errors);
+            return summary;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // nearest-rank 방식
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return toMillis(sorted[Math.max(0, rank - 1)]);
+    }
+
+    private static double toMillis(long nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+}
@@ -0,0 +1,410 @@
+package com.sinse.loginsecurity.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+
+/**
+ * /register, /login, /reissue, /info, /logout을 정해진 비율과 속도로 호출하는 부하 생성기
+ *
+ * - open-loop : 요청 시작 시각을 미리 정해두고(rate), 응답 시간은 "예정된 시작 시각"부터 잰다
+ *   -> 서버가 밀려 요청이 늦게 나가도 그 대기 시간이 지연 시간에 포함됨 (coordinated omission 보정)
+ * - 요청마다 가상 스레드 하나, 로그인된 세션은 큐에 두고 돌려가며 사용
+ * - 액세스 토큰이 만료되어 /info가 401이면 실제 클라이언트처럼 /reissue 후 계속 사용
+ * - loadtest.login-storm-rate가 있으면 측정 뒤 같은 mix에 별도의 open-loop /login 흐름을 더해 한 번 더 측정하고
+ *   /info p50/p99를 평상시(baseline)와 폭주 중(storm)으로 나란히, 폭주 /login의 503 비율과 함께 기록
+ */
+final class LoadGenerator {
+
+    static final String REGISTER = "/register";
+    static final String LOGIN = "/login";
+    static final String REISSUE = "/reissue";
+    static final String INFO = "/info";
+    static final String LOGOUT = "/logout";
+    static final List<String> ENDPOINTS = List.of(REGISTER, LOGIN, REISSUE, INFO, LOGOUT);
+
+    private static final String PASSWORD = "loadtest-password";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final String baseUrl;
+    private final LoadTestConfig config;
+    private final HttpClient http;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong userSequence = new AtomicLong();
+    private final List<String> usernames = new CopyOnWriteArrayList<>();
+    private final ConcurrentLinkedQueue<Session> sessions = new ConcurrentLinkedQueue<>();
+    // 측정 구간마다 새로 만듦 (baseline, storm)
+    private volatile Map<String, EndpointStats> stats = newStats();
+    // 로그인 폭주 흐름의 /login (mix의 /login과 따로 집계)
+    private final EndpointStats stormLogins = new EndpointStats();
+    private final LongAdder dropped = new LongAdder();
+    private final String[] operations;
+    private final int[] cumulativeWeights;
+    private volatile boolean measuring;
+
+    private record Session(String username, String accessToken, String refreshToken) {
+    }
+
+    LoadGenerator(String baseUrl, LoadTestConfig config) {
+        this.baseUrl = baseUrl;
+        this.config = config;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.operations = config.mix().keySet().toArray(String[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += config.mix().get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+        if (sum <= 0) {
+            throw new IllegalArgumentException("loadtest.mix의 가중치 합은 0보다 커야 합니다.");
+        }
+    }
+
+    /**
+     * 준비(사용자 가입, 일부 로그인) -> 워밍업 -> 측정 순서로 실행하고 결과 요약을 반환
+     */
+    Map<String, Object> run() {
+        prepare();
+        System.out.printf("워밍업 %d초 (%.0f req/s)%n", config.warmup().toSeconds(), config.rate());
+        drive(config.warmup(), config.rate(), this::iteration);
+
+        System.out.printf("측정 %d초 (%.0f req/s)%n", config.duration().toSeconds(), config.rate());
+        Instant startedAt = Instant.now();
+        measuring = true;
+        long start = System.nanoTime();
+        drive(config.duration(), config.rate(), this::iteration);
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        measuring = false;
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt.toString());
+        report.put("config", config.describe(baseUrl));
+        report.put("elapsedSeconds", round(elapsedSeconds));
+        report.put("dropped", dropped.sumThenReset());
+        Map<String, Object> endpoints = summaries(stats, elapsedSeconds);
+        // 전체 처리량을 JVM 코어 수로 나눈 값 (servlet / reactive 비교용, 부하 생성기도 같은 JVM에서 돌므로 상대 비교에만 사용)
+        long completed = endpoints.values().stream()
+                .mapToLong(summary -> ((Number) ((Map<?, ?>) summary).get("count")).longValue())
+                .sum();
+        report.put("throughputPerCore", Math.round(completed / elapsedSeconds / Runtime.getRuntime().availableProcessors() * 1000.0) / 1000.0);
+        report.put("endpoints", endpoints);
+        if (config.stormRate() > 0) {
+            report.put("loginStorm", runLoginStorm(endpoints));
+        }
+        return report;
+    }
+
+    /**
+     * 같은 mix와 속도에 초당 stormRate건의 /login 흐름을 더해 측정 시간만큼 실행
+     * 두 흐름 모두 open-loop라 /login이 밀려도 /info 요청 속도는 줄지 않음 -> /info 지연 변화가 그대로 드러남
+     */
+    private Map<String, Object> runLoginStorm(Map<String, Object> baseline) {
+        System.out.printf("로그인 폭주 측정 %d초 (%.0f req/s + /login %.0f req/s)%n",
+                config.duration().toSeconds(), config.rate(), config.stormRate());
+        stats = newStats();
+        measuring = true;
+        long start = System.nanoTime();
+        Thread storm = Thread.ofVirtual().name("login-storm").start(
+                () -> drive(config.duration(), config.stormRate(), this::stormLogin));
+        drive(config.duration(), config.rate(), this::iteration);
+        try {
+            storm.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("로그인 폭주 측정 중 인터럽트가 발생했습니다.", e);
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        measuring = false;
+
+        Map<String, Object> endpoints = summaries(stats, elapsedSeconds);
+        Map<String, Object> logins = stormLogins.summary(elapsedSeconds);
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("baselineP50", latency(baseline.get(INFO), "p50"));
+        info.put("baselineP99", latency(baseline.get(INFO), "p99"));
+        info.put("stormP50", latency(endpoints.get(INFO), "p50"));
+        info.put("stormP99", latency(endpoints.get(INFO), "p99"));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("loginRatePerSecond", config.stormRate());
+        report.put("elapsedSeconds", round(elapsedSeconds));
+        report.put("dropped", dropped.sumThenReset());
+        report.put("infoLatencyMs", info);
+        report.put("login503Rate", statusRate(logins, 503));
+        report.put("stormLogin", logins);
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    // 측정 대상이 아닌 준비 작업 : 로그인에 쓸 사용자를 가입시키고, /info 등에 쓸 세션을 만들어 둠
+    private void prepare() {
+        System.out.printf("사용자 %d명 가입 중%n", config.users());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.users(); i++) {
+                executor.submit(() -> register(System.nanoTime()));
+            }
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < Math.min(config.users(), 50); i++) {
+                executor.submit(() -> login(System.nanoTime()));
+            }
+        }
+        if (usernames.isEmpty()) {
+            throw new IllegalStateException("사용자를 가입시키지 못했습니다. 서버(" + baseUrl + ") 상태를 확인하세요.");
+        }
+    }
+
+    private void drive(Duration duration, double rate, LongConsumer operation) {
+        if (duration.isZero()) {
+            return;
+        }
+        Semaphore inFlight = new Semaphore(config.maxInFlight());
+        long intervalNanos = (long) (1_000_000_000L / rate);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            long end = start + duration.toNanos();
+            for (long i = 0; ; i++) {
+                long intendedStart = start + i * intervalNanos;
+                if (intendedStart >= end) {
+                    break;
+                }
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (!inFlight.tryAcquire()) {
+                    if (measuring) {
+                        dropped.increment();
+                    }
+                    continue;
+                }
+                executor.submit(() -> {
+                    try {
+                        operation.accept(intendedStart);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private void iteration(long intendedStart) {
+        switch (pickOperation()) {
+            case REGISTER -> register(intendedStart);
+            case LOGIN -> login(intendedStart);
+            case REISSUE -> reissue(intendedStart);
+            case INFO -> info(intendedStart);
+            case LOGOUT -> logout(intendedStart);
+            default -> throw new IllegalStateException();
+        }
+    }
+
+    private String pickOperation() {
+        int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private void register(long startNanos) {
+        String username = "lt-" + runId + "-" + userSequence.incrementAndGet();
+        HttpResponse<String> response = call(REGISTER, post(REGISTER, json(Map.of(
+                "username", username, "password", PASSWORD, "age", 20, "role", "USER"))).build(), startNanos);
+        if (response != null && response.statusCode() == 200) {
+            usernames.add(username);
+        }
+    }
+
+    private void login(long startNanos) {
+        if (usernames.isEmpty()) {
+            register(startNanos);
+            return;
+        }
+        String username = usernames.get(ThreadLocalRandom.current().nextInt(usernames.size()));
+        HttpResponse<String> response = call(LOGIN, post(LOGIN, json(Map.of(
+                "username", username, "password", PASSWORD))).build(), startNanos);
+        Session session = toSession(username, response, null);
+        if (session != null) {
+            sessions.offer(session);
+        }
+    }
+
+    // 로그인 폭주 : 세션은 보관하지 않음 (mix의 /info, /reissue가 쓰는 세션 수를 바꾸지 않도록)
+    private void stormLogin(long startNanos) {
+        String username = usernames.get(ThreadLocalRandom.current().nextInt(usernames.size()));
+        HttpResponse<String> response = send(post(LOGIN, json(Map.of(
+                "username", username, "password", PASSWORD))).build());
+        if (measuring) {
+            stormLogins.record(System.nanoTime() - startNanos, response == null ? 0 : response.statusCode());
+        }
+    }
+
+    private void info(long startNanos) {
+        Session session = sessions.poll();
+        if (session == null) {
+            login(startNanos);
+            return;
+        }
+        HttpResponse<String> response = call(INFO, request(INFO)
+                .header("Authorization", "Bearer " + session.accessToken())
+                .GET().build(), startNanos);
+        if (response != null && response.statusCode() == 401) {
+            // 액세스 토큰 만료 -> 클라이언트처럼 재발급 후 계속 사용
+            reissue(session, System.nanoTime());
+        } else {
+            sessions.offer(session);
+        }
+    }
+
+    private void reissue(long startNanos) {
+        Session session = sessions.poll();
+        if (session == null) {
+            login(startNanos);
+            return;
+        }
+        reissue(session, startNanos);
+    }
+
+    private void reissue(Session session, long startNanos) {
+        HttpResponse<String> response = call(REISSUE, post(REISSUE, "")
+                .header("Cookie", "refreshToken=" + session.refreshToken())
+                .build(), startNanos);
+        // 실패한 세션은 버림 (이후 /login이 새 세션을 채움)
+        Session renewed = toSession(session.username(), response, session.refreshToken());
+        if (renewed != null) {
+            sessions.offer(renewed);
+        }
+    }
+
+    private void logout(long startNanos) {
+        Session session = sessions.poll();
+        if (session == null) {
+            login(startNanos);
+            return;
+        }
+        call(LOGOUT, post(LOGOUT, "")
+                .header("Authorization", "Bearer " + session.accessToken())
+                .header("Cookie", "refreshToken=" + session.refreshToken())
+                .build(), startNanos);
+    }
+
+    // 응답 본문의 액세스 토큰과 Set-Cookie의 리프레시 토큰으로 세션을 만듦
+    private Session toSession(String username, HttpResponse<String> response, String previousRefreshToken) {
+        if (response == null || response.statusCode() != 200) {
+            return null;
+        }
+        try {
+            String accessToken = objectMapper.readTree(response.body()).path("token").asText(null);
+            String refreshToken = response.headers().allValues("Set-Cookie").stream()
+                    .filter(cookie -> cookie.startsWith("refreshToken="))
+                    .map(cookie -> cookie.substring("refreshToken=".length(), cookieValueEnd(cookie)))
+                    .findFirst()
+                    .orElse(previousRefreshToken);
+            return accessToken == null || refreshToken == null ? null : new Session(username, accessToken, refreshToken);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static int cookieValueEnd(String cookie) {
+        int end = cookie.indexOf(';');
+        return end < 0 ? cookie.length() : end;
+    }
+
+    private HttpResponse<String> call(String endpoint, HttpRequest request, long startNanos) {
+        HttpResponse<String> response = send(request);
+        if (measuring) {
+            stats.get(endpoint).record(System.nanoTime() - startNanos, response == null ? 0 : response.statusCode());
+        }
+        return response;
+    }
+
+    // 응답을 받지 못하면 null
+    private HttpResponse<String> send(HttpRequest request) {
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static Map<String, EndpointStats> newStats() {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        for (String endpoint : ENDPOINTS) {
+            stats.put(endpoint, new EndpointStats());
+        }
+        return stats;
+    }
+
+    private static Map<String, Object> summaries(Map<String, EndpointStats> stats, double elapsedSeconds) {
+        Map<String, Object> summaries = new LinkedHashMap<>();
+        stats.forEach((endpoint, endpointStats) -> summaries.put(endpoint, endpointStats.summary(elapsedSeconds)));
+        return summaries;
+    }
+
+    // EndpointStats.summary()의 latencyMs 값
+    private static Object latency(Object summary, String percentile) {
+        return ((Map<?, ?>) ((Map<?, ?>) summary).get("latencyMs")).get(percentile);
+    }
+
+    // 응답 중 해당 상태 코드의 비율 (응답을 받지 못한 요청 포함)
+    private static double statusRate(Map<String, Object> summary, int status) {
+        long count = ((Number) summary.get("count")).longValue();
+        Object matched = ((Map<?, ?>) summary.get("status")).get(String.valueOf(status));
+        return count == 0 || matched == null ? 0.0 : round(((Number) matched).doubleValue() / count);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+    }
+
+    private HttpRequest.Builder post(String path, String body) {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private String json(Map<String, Object> body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.sinse.loginsecurity.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 부하 테스트 설정 (시스템 프로퍼티, ./gradlew loadTest -Ploadtest.rate=500 처럼 전달)
+ *
+ * @param target      측정 대상 URL (비어 있으면 LoadTestServer를 같은 JVM에 띄워 측정)
+ * @param rate        초당 시작할 요청 수 (open-loop : 응답이 늦어져도 요청 속도를 줄이지 않음)
+ * @param duration    측정 시간
+ * @param warmup      측정 전 워밍업 시간 (JIT, 커넥션 풀, 캐시가 안정될 때까지, 결과에 포함하지 않음)
+ * @param users       측정 전에 가입시켜 둘 사용자 수
+ * @param mix         엔드포인트별 비율 (가중치)
+ * @param maxInFlight 동시에 처리 중인 요청 상한 (넘으면 요청을 버리고 dropped로 기록)
+ * @param outputDir   결과 JSON을 저장할 디렉터리
+ * @param appArgs     LoadTestServer에 넘길 Spring 설정 (예: --loginsecurity.jwt.stateless=true)
+ * @param variant     내장 서버 종류 : servlet(Tomcat) 또는 reactive(WebFlux/Netty)
+ * @param stormRate   로그인 폭주 : 측정 뒤 같은 시간 동안 mix와 함께 별도로 보낼 초당 /login 수 (0이면 실행하지 않음)
+ *                    해싱 풀 처리량(코어 수 x 초당 BCrypt 횟수)의 몇 배로 주면, 폭주 중 /info 지연과 /login 503 비율을 평상시와 비교할 수 있음
+ */
+record LoadTestConfig(String target, double rate, Duration duration, Duration warmup, int users,
+                      Map<String, Integer> mix, int maxInFlight, Path outputDir, String[] appArgs, String variant,
+                      double stormRate) {
+
+    static final String SERVLET = "servlet";
+    static final String REACTIVE = "reactive";
+
+    static final String DEFAULT_MIX = "/info=70,/login=10,/reissue=10,/register=5,/logout=5";
+
+    static LoadTestConfig fromSystemProperties() {
+        String appArgs = System.getProperty("loadtest.app-args", "").trim();
+        String variant = System.getProperty("loadtest.variant", SERVLET).trim();
+        if (!variant.equals(SERVLET) && !variant.equals(REACTIVE)) {
+            throw new IllegalArgumentException("loadtest.variant는 servlet 또는 reactive여야 합니다 : " + variant);
+        }
+        return new LoadTestConfig(
+                System.getProperty("loadtest.target", "").trim(),
+                Double.parseDouble(System.getProperty("loadtest.rate", "200")),
+                Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 60)),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 10)),
+                Integer.getInteger("loadtest.users", 200),
+                parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+                Integer.getInteger("loadtest.max-in-flight", 2_000),
+                Path.of(System.getProperty("loadtest.output-dir", "build/reports/loadtest")),
+                appArgs.isEmpty() ? new String[0] : appArgs.split("\\s+"),
+                variant,
+                Double.parseDouble(System.getProperty("loadtest.login-storm-rate", "0")));
+    }
+
+    // "/info=70,/login=10" -> {/info=70, /login=10}
+    static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] pair = entry.trim().split("=");
+            if (pair.length != 2 || !LoadGenerator.ENDPOINTS.contains(pair[0])) {
+                throw new IllegalArgumentException("loadtest.mix 형식이 올바르지 않습니다 : " + entry);
+            }
+            mix.put(pair[0], Integer.parseInt(pair[1]));
+        }
+        return mix;
+    }
+
+    // 결과 파일에 함께 기록할 설정 (같은 조건의 실행끼리 비교할 수 있도록)
+    Map<String, Object> describe(String baseUrl) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("target", baseUrl);
+        description.put("embeddedServer", target.isEmpty());
+        description.put("variant", target.isEmpty() ? variant : "external");
+        // 코어당 처리량을 비교할 수 있도록 JVM이 사용한 코어 수를 함께 기록 (-Ploadtest.active-processors)
+        description.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        description.put("appArgs", String.join(" ", appArgs));
+        description.put("ratePerSecond", rate);
+        description.put("durationSeconds", duration.toSeconds());
+        description.put("warmupSeconds", warmup.toSeconds());
+        description.put("users", users);
+        description.put("mix", mix);
+        description.put("maxInFlight", maxInFlight);
+        description.put("loginStormRatePerSecond", stormRate);
+        return description;
+    }
+}
@@ -0,0 +1,55 @@
+package com.sinse.loginsecurity.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+/**
+ * 부하 테스트 실행 : ./gradlew loadTest
+ *
+ * loadtest.target이 비어 있으면 LoadTestServer(내장 Redis + H2)를 같은 JVM에 띄워 측정하고,
+ * 결과는 build/reports/loadtest/loadtest-{시각}.json 과 latest.json 에 저장함 (실행끼리 diff 가능)
+ *
+ * 예) ./gradlew loadTest -Ploadtest.rate=500 -Ploadtest.duration-seconds=120
+ *     ./gradlew loadTest -Ploadtest.app-args="--loginsecurity.jwt.stateless=true --loginsecurity.token-cache.enabled=true"
+ *     ./gradlew loadTest -Ploadtest.target=http://localhost:8888
+ *     ./gradlew loadTest -Ploadtest.variant=reactive -Ploadtest.active-processors=2
+ *     ./gradlew loadTest -Ploadtest.login-storm-rate=2000   (평상시 측정 뒤 /login 폭주를 더해 /info 지연 비교)
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        Map<String, Object> report;
+        if (config.target().isEmpty()) {
+            try (LoadTestServer server = LoadTestServer.start(config.variant(), 0, config.appArgs())) {
+                report = new LoadGenerator(server.baseUrl(), config).run();
+            }
+        } else {
+            report = new LoadGenerator(config.target(), config).run();
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        Files.createDirectories(config.outputDir());
+        Path result = config.outputDir().resolve(
+                "loadtest-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        objectMapper.writeValue(result.toFile(), report);
+        Files.copy(result, config.outputDir().resolve("latest.json"), StandardCopyOption.REPLACE_EXISTING);
+
+        System.out.println(objectMapper.writeValueAsString(report.get("endpoints")));
+        if (report.get("loginStorm") instanceof Map<?, ?> loginStorm) {
+            System.out.println("로그인 폭주 /info 지연(ms) : " + objectMapper.writeValueAsString(loginStorm.get("infoLatencyMs"))
+                    + ", /login 503 비율 : " + loginStorm.get("login503Rate"));
+        }
+        System.out.println("결과 저장 : " + result.toAbsolutePath());
+    }
+}
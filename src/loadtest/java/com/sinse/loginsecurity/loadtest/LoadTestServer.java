@@ -0,0 +1,85 @@
+package com.sinse.loginsecurity.loadtest;
+
+import com.sinse.loginsecurity.LoginsecurityApplication;
+import com.sinse.loginsecurity.reactive.ReactiveLoginsecurityApplication;
+import com.sinse.loginsecurity.support.EmbeddedRedis;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 부하 테스트용 서버 : 내장 Redis + H2(MySQL 모드)로 애플리케이션을 띄움 (loadtest 프로파일)
+ * 공유 MySQL, Redis(192.168.60.29) 없이 로컬에서 측정할 수 있음
+ *
+ * 단독 실행 : ./gradlew loadTestServer  (외부 부하 도구로 측정할 때, Ctrl+C로 종료)
+ * -Ploadtest.variant=reactive 이면 서블릿(Tomcat) 대신 WebFlux(Netty) 버전을 같은 설정으로 띄움
+ */
+public final class LoadTestServer implements AutoCloseable {
+
+    private final EmbeddedRedis redis;
+    private final ConfigurableApplicationContext context;
+    private final String baseUrl;
+
+    private LoadTestServer(EmbeddedRedis redis, ConfigurableApplicationContext context, String baseUrl) {
+        this.redis = redis;
+        this.context = context;
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * @param variant    servlet(LoginsecurityApplication) 또는 reactive(ReactiveLoginsecurityApplication)
+     * @param serverPort 애플리케이션 포트 (0이면 빈 포트)
+     * @param args       추가 Spring 설정 (--loginsecurity.jwt.stateless=true 등)
+     */
+    public static LoadTestServer start(String variant, int serverPort, String... args) throws IOException {
+        EmbeddedRedis redis = EmbeddedRedis.start();
+        try {
+            // 두 버전이 같은 클래스패스에 있으므로 웹 애플리케이션 종류를 직접 지정
+            SpringApplicationBuilder builder = LoadTestConfig.REACTIVE.equals(variant)
+                    ? new SpringApplicationBuilder(ReactiveLoginsecurityApplication.class).web(WebApplicationType.REACTIVE)
+                    : new SpringApplicationBuilder(LoginsecurityApplication.class).web(WebApplicationType.SERVLET);
+            ConfigurableApplicationContext context = builder
+                    .profiles("loadtest")
+                    .properties("server.port=" + serverPort, "spring.data.redis.port=" + redis.port())
+                    .run(args);
+            String port = context.getEnvironment().getProperty("local.server.port");
+            return new LoadTestServer(redis, context, "http://localhost:" + port);
+        } catch (RuntimeException e) {
+            redis.close();
+            throw e;
+        }
+    }
+
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            context.close();
+        } finally {
+            redis.close();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestServer server = start(System.getProperty("loadtest.variant", LoadTestConfig.SERVLET),
+                Integer.getInteger("loadtest.port", 8888), args);
+        System.out.println("부하 테스트 서버가 시작되었습니다 : " + server.baseUrl());
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                stopped.countDown();
+            }
+        }));
+        stopped.await();
+    }
+}
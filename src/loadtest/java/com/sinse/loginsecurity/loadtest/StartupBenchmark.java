@@ -0,0 +1,190 @@
+package com.sinse.loginsecurity.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sinse.loginsecurity.support.EmbeddedRedis;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 시작 시간 벤치마크 : ./gradlew startupBenchmark (-Paot, -Pstartup.cds)
+ *
+ * 애플리케이션(cdsExtract로 푼 bootJar)을 새 JVM으로 startup.runs번 띄우고, 프로세스 시작부터
+ * 첫 응답, 첫 /login 성공까지 걸린 시간을 측정함 (오토스케일러가 추가한 인스턴스가 로그인을 처리하기까지의 시간)
+ * - 대역 환경 : 내장 Redis는 이 JVM에서 한 번 띄워 모든 실행이 공유하고, DB는 자식 JVM 안의 H2(loadtest 프로파일)
+ * - H2 드라이버와 loadtest 설정은 앱 jar 뒤에 덧붙이고 앱 jar가 있는 디렉터리에서 실행함
+ *   -> AppCDS 아카이브(cdsArchive)의 클래스패스와 앞부분이 같으므로 아카이브가 그대로 사용됨
+ * - 결과는 build/reports/startup/startup-{시각}.json 과 latest.json, 실행별 앱 로그는 run-{n}.log
+ */
+public final class StartupBenchmark {
+
+    private static final String MAIN_CLASS = "com.sinse.loginsecurity.LoginsecurityApplication";
+    private static final String USERNAME = "startup-user";
+    private static final String PASSWORD = "startup-password";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+    private static final long POLL_INTERVAL_MS = 10;
+
+    private StartupBenchmark() {
+    }
+
+    /**
+     * 실행 한 번의 결과
+     *
+     * @param firstResponseMillis 프로세스 시작부터 첫 HTTP 응답(상태 코드 무관)까지
+     * @param firstLoginMillis    프로세스 시작부터 첫 /login 200 응답까지 (회원가입 포함)
+     */
+    record Run(int run, long firstResponseMillis, long firstLoginMillis) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = Integer.getInteger("startup.runs", 5);
+        Path appJar = Path.of(System.getProperty("startup.app-jar", "build/cds/loginsecurity-0.0.1-SNAPSHOT.jar")).toAbsolutePath();
+        String extraClasspath = System.getProperty("startup.extra-classpath", "");
+        String jvmArgs = System.getProperty("startup.jvm-args", "").trim();
+        Duration timeout = Duration.ofSeconds(Long.getLong("startup.timeout-seconds", 120));
+        Path outputDir = Path.of(System.getProperty("startup.output-dir", "build/reports/startup")).toAbsolutePath();
+        if (runs < 1) {
+            throw new IllegalArgumentException("startup.runs는 1 이상이어야 합니다 : " + runs);
+        }
+        if (!Files.isRegularFile(appJar)) {
+            throw new IllegalStateException("앱 jar가 없습니다. ./gradlew cdsExtract를 먼저 실행하세요 : " + appJar);
+        }
+        Files.createDirectories(outputDir);
+
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        if (!jvmArgs.isEmpty()) {
+            command.addAll(Arrays.asList(jvmArgs.split("\\s+")));
+        }
+        command.add("-cp");
+        command.add(extraClasspath.isEmpty() ? appJar.getFileName().toString()
+                : appJar.getFileName() + File.pathSeparator + extraClasspath);
+        command.add(MAIN_CLASS);
+        command.add("--spring.profiles.active=loadtest");
+
+        List<Run> results = new ArrayList<>(runs);
+        try (EmbeddedRedis redis = EmbeddedRedis.start()) {
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(1))
+                    .build();
+            for (int i = 1; i <= runs; i++) {
+                Run result = run(i, command, appJar.getParent(), redis.port(), timeout, outputDir, http);
+                results.add(result);
+                System.out.printf("run %d : 첫 응답 %d ms, 첫 로그인 성공 %d ms%n",
+                        result.run(), result.firstResponseMillis(), result.firstLoginMillis());
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", Map.of("appJar", appJar.toString(), "jvmArgs", jvmArgs, "runs", runs,
+                "availableProcessors", Runtime.getRuntime().availableProcessors()));
+        report.put("firstResponseMillis", summary(results.stream().mapToLong(Run::firstResponseMillis).toArray()));
+        report.put("firstLoginMillis", summary(results.stream().mapToLong(Run::firstLoginMillis).toArray()));
+        report.put("runs", results);
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        Path result = outputDir.resolve(
+                "startup-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        objectMapper.writeValue(result.toFile(), report);
+        Files.copy(result, outputDir.resolve("latest.json"), StandardCopyOption.REPLACE_EXISTING);
+
+        System.out.println(objectMapper.writeValueAsString(report.get("firstLoginMillis")));
+        System.out.println("결과 저장 : " + result);
+    }
+
+    // 앱을 새 JVM으로 띄우고 회원가입 -> 로그인이 성공할 때까지 요청을 반복한 뒤 종료
+    private static Run run(int run, List<String> baseCommand, Path appDir, int redisPort, Duration timeout,
+                           Path outputDir, HttpClient http) throws IOException, InterruptedException {
+        int port = EmbeddedRedis.freePort();
+        List<String> command = new ArrayList<>(baseCommand);
+        command.add("--server.port=" + port);
+        command.add("--spring.data.redis.port=" + redisPort);
+        Path log = outputDir.resolve("run-" + run + ".log");
+        String baseUrl = "http://localhost:" + port;
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(appDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = started + timeout.toNanos();
+            long firstResponse = -1;
+            boolean registered = false;
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("애플리케이션이 종료되었습니다 (exit " + process.exitValue() + "). 로그 : " + log);
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException(timeout.toSeconds() + "초 안에 로그인에 성공하지 못했습니다. 로그 : " + log);
+                }
+                HttpResponse<String> response = registered
+                        ? post(http, baseUrl + "/login", "{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD + "\"}")
+                        : post(http, baseUrl + "/register", "{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD
+                        + "\",\"age\":20,\"role\":\"USER\"}");
+                if (response != null) {
+                    if (firstResponse < 0) {
+                        firstResponse = System.nanoTime() - started;
+                    }
+                    if (response.statusCode() == 200) {
+                        if (registered) {
+                            return new Run(run, TimeUnit.NANOSECONDS.toMillis(firstResponse),
+                                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+                        }
+                        registered = true;
+                        continue;
+                    }
+                }
+                Thread.sleep(POLL_INTERVAL_MS);
+            }
+        } finally {
+            // SIGTERM으로 정상 종료 (H2 메모리 DB는 프로세스와 함께 사라짐)
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    // 연결 실패(아직 포트를 열지 않음)면 null
+    private static HttpResponse<String> post(HttpClient http, String url, String body) throws InterruptedException {
+        try {
+            return http.send(HttpRequest.newBuilder(URI.create(url))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, Long> summary(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        Map<String, Long> summary = new LinkedHashMap<>();
+        summary.put("min", sorted[0]);
+        summary.put("median", sorted[sorted.length / 2]);
+        summary.put("max", sorted[sorted.length - 1]);
+        return summary;
+    }
+}
@@ -0,0 +1,15 @@
+-- Load-test schema (H2, MySQL mode) : same columns as the User / Role entities
+create table if not exists role (
+    role_id   int primary key auto_increment,
+    role_name varchar(20) not null
+);
+
+create table if not exists user (
+    user_id  int primary key auto_increment,
+    username varchar(255) not null unique,
+    password varchar(255) not null,
+    age      int not null default 20,
+    role_id  int references role (role_id)
+);
+
+insert into role (role_name) values ('USER'), ('STORE'), ('ADMIN');
@@ -1,10 +1,12 @@
 package com.sinse.loginsecurity.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+
 /**
  * 프로젝트 전반적으로 (재)사용하는 기능, 툴 들을 모아놓음
  *
@@ -16,11 +18,24 @@ public class AppConfig {
 
     /**
      * 회원가입 시, 로그인 시 마다 암호화를 통한 검증로직은 구현해 놓았으므로
+     * BCrypt 연산은 요청 스레드가 아닌 전용 풀(OffloadingPasswordEncoder)에서 실행
+     * threads가 0 이하이면 코어 수만큼 스레드를 만듦
+     * (반환 타입을 구체 클래스로 두어야 MeterBinder로도 인식되어 풀 지표가 등록됨)
      *
+     * 해싱 비용(strength)은 시작 시 이 장비에서 측정하여 target-millis에 맞춤 (PasswordEncoderCalibrator 참고)
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public OffloadingPasswordEncoder passwordEncoder(@Value("${loginsecurity.password.hashing.threads:0}") int threads,
+                                                     @Value("${loginsecurity.password.hashing.queue-capacity:64}") int queueCapacity,
+                                                     @Value("${loginsecurity.password.hashing.timeout-ms:5000}") long timeoutMs,
+                                                     @Value("${loginsecurity.password.algorithm:bcrypt}") String algorithm,
+                                                     @Value("${loginsecurity.password.target-millis:100}") long targetMillis,
+                                                     @Value("${loginsecurity.password.min-strength:10}") int minStrength,
+                                                     @Value("${loginsecurity.password.max-strength:16}") int maxStrength) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        PasswordEncoder calibrated = PasswordEncoderCalibrator.create(
+                algorithm, Duration.ofMillis(targetMillis), minStrength, maxStrength);
+        return new OffloadingPasswordEncoder(calibrated, poolSize, queueCapacity, Duration.ofMillis(timeoutMs));
     }
 
 
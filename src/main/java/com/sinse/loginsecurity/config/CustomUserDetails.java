@@ -1,40 +1,43 @@
 package com.sinse.loginsecurity.config;
 
-import com.sinse.loginsecurity.domain.User;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
+/**
+ * 인증에 필요한 값(username, password, 권한)만 복사해서 들고 있는 불변 UserDetails
+ * JPA 엔티티(User)를 참조하지 않고 모든 필드가 final 이므로 캐시에 넣어 여러 스레드가 공유해도 안전함
+ * 권한 목록은 RoleRegistry가 역할별로 미리 만들어 둔 불변 List를 그대로 공유함 (getAuthorities() 호출 시 할당 없음)
+ * +) CredentialsContainer를 구현하지 않으므로 인증 후 비밀번호가 지워지지 않음 (공유 인스턴스가 망가지지 않도록)
+ */
 public class CustomUserDetails implements UserDetails {
 
-    private final User user;
+    private final String username;
+    private final String password;
+    private final List<GrantedAuthority> authorities;
 
-    public CustomUserDetails(User user) {
-        this.user = user;
+    public CustomUserDetails(String username, String password, List<GrantedAuthority> authorities) {
+        this.username = username;
+        this.password = password;
+        // Spring Security의 표준에 따라 "ROLE_" 접두사가 붙은 권한 (RoleRegistry.authoritiesOf)
+        this.authorities = List.copyOf(authorities);
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        Collection<GrantedAuthority> authorities = new ArrayList<>();
-        // 사용자가 Role 정보를 가지고 있는지 확인
-        if (user.getRole() != null) {
-            // Spring Security의 표준에 따라 "ROLE_" 접두사를 붙여서 권한을 추가합니다.
-            authorities.add(new SimpleGrantedAuthority("ROLE_" + user.getRole().getRoleName()));
-        }
         return authorities;
     }
 
     @Override
     public String getPassword() {
-        return user.getPassword();
+        return password;
     }
 
     @Override
     public String getUsername() {
-        return user.getUsername();
+        return username;
     }
 
     // UserDetails의 나머지 메서드들은 기본값(true)을 반환하도록 오버라이드하는 것이 좋습니다.
@@ -61,4 +64,10 @@ public class CustomUserDetails implements UserDetails {
     public boolean isEnabled() {
         return true;
     }
-}
\ No newline at end of file
+
+    // 로그에 비밀번호 해시가 찍히지 않도록 username과 권한만 출력
+    @Override
+    public String toString() {
+        return "CustomUserDetails[username=" + username + ", authorities=" + authorities + "]";
+    }
+}
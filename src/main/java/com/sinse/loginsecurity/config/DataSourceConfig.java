@@ -0,0 +1,97 @@
+package com.sinse.loginsecurity.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 읽기 복제본(replica) 라우팅 : loginsecurity.datasource.replica-urls가 비어 있으면 이 설정은 쓰이지 않고
+ * Spring Boot 기본 DataSource(spring.datasource.*, primary 하나)를 그대로 사용함
+ *
+ * - 쓰기 트랜잭션(회원가입, 비밀번호 해시 갱신, 대량 가입)과 트랜잭션 밖의 조회 : primary
+ * - readOnly 트랜잭션(사용자 인증 조회, 역할 목록 조회) : ReplicaDataSource (복제본 round-robin, 모두 안 되면 primary)
+ * LazyConnectionDataSourceProxy가 첫 쿼리 시점까지 커넥션을 미루므로 트랜잭션의 readOnly 여부가 정해진 뒤에 대상이 고름
+ * 복제 지연 대응(방금 가입/변경한 사용자는 primary에서 읽기)은 UserDetailsCache.recentlyWritten 참고
+ */
+@Configuration
+@ConditionalOnExpression("!'${loginsecurity.datasource.replica-urls:}'.isBlank()")
+public class DataSourceConfig {
+
+    private final ObjectProvider<ReplicaDataSource> replicaDataSource;
+
+    public DataSourceConfig(ObjectProvider<ReplicaDataSource> replicaDataSource) {
+        this.replicaDataSource = replicaDataSource;
+    }
+
+    // spring.datasource.* (+ spring.datasource.hikari.*)로 만드는 primary 커넥션 풀 (Boot 기본 설정과 같음)
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * 복제본마다 읽기 전용 커넥션 풀을 만듦
+     * 복제본이 꺼져 있어도 애플리케이션은 시작되고(initializationFailTimeout -1),
+     * 커넥션을 기다리는 시간은 connection-timeout으로 짧게 두어 곧바로 다음 복제본이나 primary로 넘어감
+     */
+    @Bean(destroyMethod = "close")
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource,
+                                               DataSourceProperties properties,
+                                               @Value("${loginsecurity.datasource.replica-urls}") List<String> urls,
+                                               @Value("${loginsecurity.datasource.replica-username:${spring.datasource.username:}}") String username,
+                                               @Value("${loginsecurity.datasource.replica-password:${spring.datasource.password:}}") String password,
+                                               @Value("${loginsecurity.datasource.replica-connection-timeout:PT1S}") Duration connectionTimeout,
+                                               @Value("${loginsecurity.datasource.replica-pool-size:10}") int poolSize) {
+        List<ReplicaDataSource.Replica> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String name = "replica-" + replicas.size();
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url.trim())
+                    .username(username)
+                    .password(password)
+                    .build();
+            pool.setPoolName(name);
+            pool.setReadOnly(true);
+            pool.setMaximumPoolSize(poolSize);
+            pool.setConnectionTimeout(connectionTimeout.toMillis());
+            pool.setInitializationFailTimeout(-1);
+            replicas.add(new ReplicaDataSource.Replica(name, pool));
+        }
+        return new ReplicaDataSource(primaryDataSource, replicas, (int) Math.max(1, connectionTimeout.toSeconds()));
+    }
+
+    // JPA, 트랜잭션 매니저가 사용하는 DataSource : 기본은 primary, readOnly 커넥션만 ReplicaDataSource에서 가져옴
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+
+    // 빠진 복제본이 다시 살아났는지(또는 살아 있던 복제본이 죽었는지) 주기적으로 확인
+    @Scheduled(fixedDelayString = "${loginsecurity.datasource.health-check-ms:5000}")
+    public void checkReplicas() {
+        replicaDataSource.ifAvailable(ReplicaDataSource::checkHealth);
+    }
+}
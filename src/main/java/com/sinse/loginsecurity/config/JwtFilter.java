@@ -1,7 +1,15 @@
 package com.sinse.loginsecurity.config;
 
+import com.sinse.loginsecurity.service.AccessTokenRevocationService;
 import com.sinse.loginsecurity.service.JpaUserDetailsService;
-import com.sinse.loginsecurity.util.JwtUtil;
+import com.sinse.loginsecurity.service.RoleRegistry;
+import com.sinse.loginsecurity.service.SecurityEpochService;
+import com.sinse.loginsecurity.util.AuthMetrics;
+import com.sinse.loginsecurity.util.BearerTokens;
+import com.sinse.loginsecurity.util.JwtClaims;
+import com.sinse.loginsecurity.util.VerifiedTokenCache;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,52 +27,107 @@ import java.io.IOException;
 @Slf4j
 public class JwtFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    // 검증 결과 캐시가 꺼져 있으면 매번 JwtUtil.verify()로 검증함
+    private final VerifiedTokenCache verifiedTokenCache;
     private final JpaUserDetailsService jpaUserDetailsService;
+    private final SecurityEpochService securityEpochService;
+    // true면 DB 조회 없이 검증된 클레임만으로 인증 정보를 만듦 (loginsecurity.jwt.stateless)
+    private final boolean stateless;
+    private final AuthMetrics authMetrics;
+    private final RoleRegistry roleRegistry;
+    private final AccessTokenRevocationService accessTokenRevocationService;
+
+    // 정적 파일, 로그인/회원가입 등 토큰을 볼 필요가 없는 경로는 필터를 실행하지 않음 (SecurityConfig와 같은 목록)
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return PublicPaths.isUnfiltered(request);
+    }
 
     @Override
     //Filter의 doFilter 메서드는 어떤 요청이 오든 다 필터링 하게끔 설계되어 있음.
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
         log.debug("8. 요청이 들어온 이후 가동된 필터 입니다 ");
         // 1. "Authorization" 헤더에서 토큰을 가져옵니다.
         String authorization = request.getHeader("Authorization");
-        log.debug("9. authorization은 무엇인가요????"+authorization);
 
         // 2. 토큰이 없거나, "Bearer "로 시작하지 않으면 인증을 시도하지 않고 다음 필터로 넘어갑니다.
-        if (authorization == null || !authorization.startsWith("Bearer ")) {
+        if (!BearerTokens.hasPrefix(authorization)) {
+            authMetrics.recordFilter(AuthMetrics.ANONYMOUS, start);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // 3. "Bearer " 뒤의 토큰 위치를 찾아 형식을 확인합니다. (split 없이 위치만 계산, 서명 검증 전에 거름)
+        int tokenStart = BearerTokens.tokenStart(authorization);
+        if (tokenStart < 0) {
+            log.debug("형식이 올바르지 않은 Authorization 헤더(길이 {})이므로 인증 없이 다음 필터로 넘어갑니다.", authorization.length());
+            authMetrics.recordFilter(AuthMetrics.MALFORMED, start);
             filterChain.doFilter(request, response);
             return;
         }
+        String token = authorization.substring(tokenStart);
         log.debug("10. 'Bearer '로 시작하는 토큰이 존재하는 것을 확인 했습니다. 다음 단계로 넘어갑니다.");
 
-        // 3. "Bearer " 부분을 제거하고 순수 토큰만 추출합니다.
-        String token = authorization.split(" ")[1];
-        log.debug("11. 'Bearer '를 제거하고 순수하게 추출한 토큰 값은====="+token);
+        // 4. 토큰을 한 번만 파싱하여 서명/만료를 검증하고 클레임을 꺼냅니다.
+        //    만료되었거나 유효하지 않다면 인증을 진행하지 않습니다.
+        JwtClaims claims;
+        try {
+            claims = verifiedTokenCache.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("토큰 검증에 실패하여 인증 없이 다음 필터로 넘어갑니다. 사유 : {}", e.getMessage());
+            authMetrics.recordFilter(e instanceof ExpiredJwtException ? AuthMetrics.EXPIRED : AuthMetrics.INVALID, start);
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-        // 4. 토큰이 만료되었는지 확인하고, 만료되었다면 인증을 진행하지 않습니다.
-        if (jwtUtil.isExpired(token)) {
+        // 4.1 로그아웃 등으로 만료 전에 폐기된 토큰인지 확인합니다.
+        //     대부분의 토큰은 메모리의 Bloom filter에서 바로 걸러지고, 걸린 경우에만 Redis를 조회합니다.
+        if (accessTokenRevocationService.isRevoked(claims.tokenId())) {
+            log.debug("폐기된 토큰(jti={})이므로 인증 없이 다음 필터로 넘어갑니다.", claims.tokenId());
+            authMetrics.recordFilter(AuthMetrics.REVOKED, start);
             filterChain.doFilter(request, response);
             return;
         }
 
-        // 5. 토큰에서 username을 추출합니다.
-        String username = jwtUtil.getUsername(token);
+        // 5. 검증된 클레임에서 username을 꺼냅니다.
+        String username = claims.username();
+
+        UsernamePasswordAuthenticationToken authToken;
+        if (stateless) {
+            // 6-1. Stateless 모드 : 토큰이 발급된 뒤 로그아웃/역할 변경 등으로 폐기되었는지 epoch로 확인합니다.
+            //      epoch는 로컬 캐시에서 읽으므로 DB, Redis를 다녀오지 않습니다.
+            if (securityEpochService.isRevoked(username, claims.epoch())) {
+                log.debug("폐기된 토큰(epoch={})이므로 인증 없이 다음 필터로 넘어갑니다.", claims.epoch());
+                authMetrics.recordFilter(AuthMetrics.REVOKED, start);
+                filterChain.doFilter(request, response);
+                return;
+            }
+            // 7-1. 서명된 클레임(username, role)만으로 인증 토큰을 생성합니다.
+            //      권한 객체는 RoleRegistry가 미리 만들어 둔 것을 재사용합니다.
+            authToken = new UsernamePasswordAuthenticationToken(
+                    username, null, roleRegistry.authoritiesOfAuthority(claims.role()));
+        } else {
+            // 6. username으로 UserDetails 객체(사용자 정보)를 조회합니다.
+            UserDetails userDetails = jpaUserDetailsService.loadUserByUsername(username);
+            log.debug("16. userDetails를 DB(또는 캐시)에서 잘 꺼내왔습니다.");
 
-        // 6. username으로 UserDetails 객체(사용자 정보)를 조회합니다.
-        UserDetails userDetails = jpaUserDetailsService.loadUserByUsername(username);
-        log.debug("16. userDetails를 DB에서 잘 꺼내왔습니다. 이 로그는 한번만 출력되어야 합니다.");
+            // 7. Spring Security가 이해할 수 있는 인증 토큰(Authentication)을 생성합니다.
+            authToken = new UsernamePasswordAuthenticationToken(
+                    userDetails, null, userDetails.getAuthorities());
+        }
 
-        // 7. Spring Security가 이해할 수 있는 인증 토큰(Authentication)을 생성합니다.
-        UsernamePasswordAuthenticationToken authToken = new
-                UsernamePasswordAuthenticationToken(
-                userDetails, null, userDetails.getAuthorities());
+        // 7.1 로그아웃 시 이 액세스 토큰을 폐기할 수 있도록 클레임(jti, 만료 시각)을 함께 담아 둡니다.
+        authToken.setDetails(claims);
 
         // 8. SecurityContext에 위에서 만든 인증 정보를 설정합니다.
         //    이 시점부터 해당 사용자는 '인증된' 상태가 됩니다.
         SecurityContextHolder.getContext().setAuthentication(authToken);
+        // 필터 자신의 소요시간만 기록 (이후 컨트롤러 처리 시간은 포함하지 않음)
+        authMetrics.recordFilter(AuthMetrics.SUCCESS, start);
 
         // 9. 다음 필터로 요청을 전달합니다.
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
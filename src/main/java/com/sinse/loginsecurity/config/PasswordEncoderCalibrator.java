@@ -0,0 +1,84 @@
+package com.sinse.loginsecurity.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 서버 시작 시 이 장비에서 BCrypt 해싱 시간을 측정하여 목표 지연시간(target)에 맞는 strength를 고르고,
+ * {bcrypt}, {pbkdf2@SpringSecurity_v5_8} 처럼 알고리즘 id가 붙은(self-describing) 형식으로 저장하는 인코더를 만듦
+ *
+ * - 접두사가 없는 예전 해시($2a$10$...)도 BCrypt로 검증됨
+ * - 예전 형식이거나 현재 strength보다 낮은 해시는 upgradeEncoding()이 true를 반환하므로,
+ *   로그인 성공 시 DaoAuthenticationProvider가 JpaUserDetailsService.updatePassword()를 호출해 재해싱 결과를 저장함
+ * - BCrypt는 strength가 1 오를 때마다 시간이 2배가 되므로, 최소 strength에서 한 번 측정한 값으로 나머지를 계산함
+ */
+@Slf4j
+public final class PasswordEncoderCalibrator {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String PBKDF2 = "pbkdf2@SpringSecurity_v5_8";
+
+    private static final int SAMPLES = 5;
+
+    private PasswordEncoderCalibrator() {
+    }
+
+    /**
+     * @param idForEncode 새로 해싱할 때 사용할 알고리즘 id (bcrypt 또는 pbkdf2@SpringSecurity_v5_8)
+     * @param target      로그인 1회의 목표 해싱 시간
+     * @param minStrength 측정 결과와 상관없이 보장할 최소 BCrypt strength
+     * @param maxStrength 허용할 최대 BCrypt strength
+     */
+    public static PasswordEncoder create(String idForEncode, Duration target, int minStrength, int maxStrength) {
+        int strength = calibrateBcryptStrength(target, minStrength, maxStrength);
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put(PBKDF2, Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        if (!encoders.containsKey(idForEncode)) {
+            throw new IllegalArgumentException("지원하지 않는 비밀번호 알고리즘입니다 : " + idForEncode);
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(idForEncode, encoders);
+        // 접두사 없이 저장된 기존 BCrypt 해시 검증용
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
+    }
+
+    // target 이하로 걸리는 가장 높은 strength (범위 : minStrength ~ maxStrength)
+    static int calibrateBcryptStrength(Duration target, int minStrength, int maxStrength) {
+        long measuredNanos = measureBcryptNanos(minStrength);
+        int strength = minStrength;
+        long expectedNanos = measuredNanos;
+        while (strength < maxStrength && expectedNanos * 2 <= target.toNanos()) {
+            strength++;
+            expectedNanos *= 2;
+        }
+        log.info("BCrypt strength를 {}(으)로 결정했습니다. (strength {} 측정값 {}ms, 예상 {}ms, 목표 {}ms)",
+                strength, minStrength, measuredNanos / 1_000_000, expectedNanos / 1_000_000, target.toMillis());
+        return strength;
+    }
+
+    // JIT 워밍업 1회 후 여러 번 측정한 중앙값
+    private static long measureBcryptNanos(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        encoder.encode("calibration");
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
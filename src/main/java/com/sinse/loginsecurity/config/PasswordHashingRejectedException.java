@@ -0,0 +1,12 @@
+package com.sinse.loginsecurity.config;
+
+/**
+ * 비밀번호 해싱 전용 풀이 포화 상태여서 요청을 처리하지 못했을 때 발생하는 예외
+ * AuthExceptionHandler에서 503(Service Unavailable)으로 변환됨
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
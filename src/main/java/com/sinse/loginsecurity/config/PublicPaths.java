@@ -0,0 +1,77 @@
+package com.sinse.loginsecurity.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 인증 없이 접근할 수 있는 경로 목록 : SecurityConfig(permitAll)와 JwtFilter(필터 생략)가 함께 사용
+ * (WebFlux 버전(src/reactive)의 보안 설정과 필터도 같은 목록을 사용)
+ *
+ * - UNFILTERED : 토큰을 볼 필요가 없는 경로 -> JwtFilter를 아예 실행하지 않음 (정적 파일, 로그인, 회원가입 등)
+ * - PERMIT_ALL : UNFILTERED + 인증 정보가 있으면 사용하는 경로 (/info는 토큰이 있으면 사용자 정보를 돌려주므로 필터는 실행)
+ *
+ * 패턴은 시작 시 한 번 정확 일치 Set과 "/dir/*" 접두사 목록으로 나눠 두므로, 요청마다 패턴을 해석하지 않음
+ */
+public final class PublicPaths {
+
+    // "/dir/*"는 /dir 바로 아래 한 단계만 일치 (Spring Security 패턴과 같은 의미)
+    public static final String[] UNFILTERED = {
+            "/", "/login", "/register", "/reissue",
+            "/registerform.html", "/loginform.html", "/main.html", "/css/*",
+            "/actuator/health"
+    };
+
+    public static final String[] PERMIT_ALL = concat(UNFILTERED, "/info");
+
+    private static final Set<String> EXACT = new HashSet<>();
+    private static final String[] SINGLE_SEGMENT_PREFIXES;
+
+    static {
+        List<String> prefixes = new ArrayList<>();
+        for (String pattern : UNFILTERED) {
+            if (pattern.endsWith("/*")) {
+                prefixes.add(pattern.substring(0, pattern.length() - 1));
+            } else {
+                EXACT.add(pattern);
+            }
+        }
+        SINGLE_SEGMENT_PREFIXES = prefixes.toArray(String[]::new);
+    }
+
+    private PublicPaths() {
+    }
+
+    // JwtFilter.shouldNotFilter : 문자열 생성 없이 Set 조회와 접두사 비교만 함
+    public static boolean isUnfiltered(HttpServletRequest request) {
+        // DispatcherServlet이 "/"에 매핑되어 있으므로 servletPath가 컨텍스트 경로를 뺀 요청 경로임
+        String path = request.getServletPath();
+        if (path == null || path.isEmpty()) {
+            path = request.getPathInfo();
+        }
+        return path != null && isUnfiltered(path);
+    }
+
+    // 서블릿 API 없이 경로 문자열만으로 확인 (WebFlux 필터)
+    public static boolean isUnfiltered(String path) {
+        if (EXACT.contains(path)) {
+            return true;
+        }
+        for (String prefix : SINGLE_SEGMENT_PREFIXES) {
+            if (path.startsWith(prefix) && path.length() > prefix.length() && path.indexOf('/', prefix.length()) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String[] concat(String[] paths, String... more) {
+        String[] result = new String[paths.length + more.length];
+        System.arraycopy(paths, 0, result, 0, paths.length);
+        System.arraycopy(more, 0, result, paths.length, more.length);
+        return result;
+    }
+}
@@ -1,18 +1,28 @@
 package com.sinse.loginsecurity.config;
 
+import com.sinse.loginsecurity.util.CircuitBreaker;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.repository.configuration.EnableRedisRepositories;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.time.Duration;
+
+/**
+ * Redis 연결과 템플릿 설정
+ * Redis는 StringRedisTemplate/RedisTemplate로만 사용하므로 Redis 리포지토리(@EnableRedisRepositories)는 켜지 않음
+ * (spring.data.redis.repositories.enabled=false : 시작할 때 리포지토리 스캔, 키-값 매핑 컨텍스트 생성을 건너뜀)
+ */
 @Configuration
-@EnableRedisRepositories
 public class RedisConfig {
 
     @Value("${spring.data.redis.host}")
@@ -24,13 +34,50 @@ public class RedisConfig {
     @Value("${spring.data.redis.password}")
     private String redisPassword;
 
+    @Value("${loginsecurity.redis.command-timeout:PT0.5S}")
+    private Duration commandTimeout;
+
+    @Value("${loginsecurity.redis.connect-timeout:PT0.5S}")
+    private Duration connectTimeout;
+
+    @Value("${loginsecurity.redis.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${loginsecurity.redis.open-duration:PT5S}")
+    private Duration openDuration;
+
     @Bean
     public RedisConnectionFactory redisConnectionFactory() {
         RedisStandaloneConfiguration redisStandaloneConfiguration = new RedisStandaloneConfiguration();
         redisStandaloneConfiguration.setHostName(redisHost);
         redisStandaloneConfiguration.setPort(redisPort);
         redisStandaloneConfiguration.setPassword(redisPassword);
-        return new LettuceConnectionFactory(redisStandaloneConfiguration);
+        return new LettuceConnectionFactory(redisStandaloneConfiguration, clientConfiguration(commandTimeout, connectTimeout));
+    }
+
+    /**
+     * Redis가 느리거나 꺼졌을 때 요청 스레드가 오래 묶이지 않도록 짧은 타임아웃을 둠 (기본 60초 -> 0.5초)
+     * 연결이 끊긴 동안의 명령은 재연결까지 쌓아 두지 않고 바로 실패시킴 -> circuit breaker(RefreshTokenStore, redisCircuitBreaker)가 곧바로 대체 경로로 전환
+     */
+    public static LettuceClientConfiguration clientConfiguration(Duration commandTimeout, Duration connectTimeout) {
+        return LettuceClientConfiguration.builder()
+                .commandTimeout(commandTimeout)
+                .clientOptions(ClientOptions.builder()
+                        .socketOptions(SocketOptions.builder().connectTimeout(connectTimeout).build())
+                        .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                        .autoReconnect(true)
+                        .build())
+                .build();
+    }
+
+    /**
+     * RefreshTokenStore 밖의 Redis 호출(보안 epoch, 액세스 토큰 폐기 목록, 캐시 무효화 발행, 로그인 시도 제한)이 함께 쓰는 circuit breaker
+     * 어느 한 곳에서 연속 실패가 쌓이면 나머지도 타임아웃을 기다리지 않고 곧바로 각자의 대체 경로를 사용함
+     * (RefreshTokenStore는 로컬 저장소와 reconcile 상태에 맞춰 따로 circuit을 둠)
+     */
+    @Bean
+    public CircuitBreaker redisCircuitBreaker() {
+        return new CircuitBreaker(failureThreshold, openDuration);
     }
 
     @Bean
@@ -43,4 +90,15 @@ public class RedisConfig {
         redisTemplate.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
         return redisTemplate;
     }
+
+    /**
+     * 여러 서버(노드) 간에 인증 관련 변경사항(보안 epoch 등)을 알리기 위한 Redis pub/sub 리스너 컨테이너
+     * 각 서비스는 이 컨테이너에 자신의 채널을 등록하여 메시지를 받음
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        return container;
+    }
 }
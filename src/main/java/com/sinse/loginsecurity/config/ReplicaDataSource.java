@@ -0,0 +1,152 @@
+package com.sinse.loginsecurity.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 읽기 전용 트랜잭션이 사용할 DataSource : 복제본(replica) 여러 개를 돌아가며(round-robin) 사용
+ * DataSourceConfig가 LazyConnectionDataSourceProxy의 readOnlyDataSource로 등록하므로,
+ * readOnly 트랜잭션의 첫 쿼리 시점에만 여기서 커넥션을 가져감 (쓰기 트랜잭션은 항상 primary)
+ *
+ * - 커넥션을 얻지 못한 복제본은 바로 목록에서 빼고 다음 복제본 -> primary 순서로 시도 (요청은 실패하지 않음)
+ * - 뺀 복제본은 checkHealth()(주기 실행)에서 다시 연결되면 목록에 돌려놓음
+ * - 사용 가능한 목록은 불변 배열을 통째로 교체하므로 커넥션을 고를 때 락이 없음
+ * - onPrimary() 안에서는 읽기 전용이라도 primary를 사용 (방금 쓴 데이터를 복제 지연 없이 읽어야 할 때)
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements Closeable {
+
+    // onPrimary() 범위 안이면 TRUE (중첩되어도 가장 바깥 범위가 끝날 때 지움)
+    private static final ThreadLocal<Boolean> PRIMARY_SCOPE = new ThreadLocal<>();
+
+    /**
+     * 복제본 하나
+     *
+     * @param name       로그용 이름 (replica-0 ...)
+     * @param dataSource 복제본 커넥션 풀
+     */
+    public record Replica(String name, DataSource dataSource) {
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final int validationTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile Replica[] healthy;
+
+    public ReplicaDataSource(DataSource primary, List<Replica> replicas, int validationTimeoutSeconds) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.healthy = this.replicas.toArray(Replica[]::new);
+    }
+
+    /**
+     * 이 범위 안의 읽기 전용 조회는 복제본 대신 primary에서 실행
+     * 커넥션은 범위 안에서 처음 쿼리할 때 정해지므로, 이미 커넥션을 잡은 바깥 트랜잭션 안에서는 효과가 없음
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean outer = PRIMARY_SCOPE.get();
+        PRIMARY_SCOPE.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (outer == null) {
+                PRIMARY_SCOPE.remove();
+            }
+        }
+    }
+
+    public static void runOnPrimary(Runnable work) {
+        onPrimary(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (PRIMARY_SCOPE.get() != null) {
+            return primary.getConnection();
+        }
+        Replica[] candidates = healthy;
+        if (candidates.length > 0) {
+            int start = Math.floorMod(next.getAndIncrement(), candidates.length);
+            for (int i = 0; i < candidates.length; i++) {
+                Replica replica = candidates[(start + i) % candidates.length];
+                try {
+                    return replica.dataSource().getConnection();
+                } catch (SQLException e) {
+                    markDown(replica, e);
+                }
+            }
+        }
+        // 사용할 수 있는 복제본이 없으면 primary에서 읽음
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("ReplicaDataSource는 설정된 계정의 커넥션만 제공합니다.");
+    }
+
+    // 모든 복제본에 연결해 보고 사용 가능한 목록을 다시 만듦 (DataSourceConfig가 주기적으로 호출)
+    public void checkHealth() {
+        List<Replica> up = new ArrayList<>();
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource().getConnection()) {
+                if (connection.isValid(validationTimeoutSeconds)) {
+                    up.add(replica);
+                    continue;
+                }
+                log.warn("복제본 {}의 커넥션이 유효하지 않습니다.", replica.name());
+            } catch (SQLException e) {
+                log.warn("복제본 {}에 연결하지 못했습니다. 사유 : {}", replica.name(), e.getMessage());
+            }
+        }
+        Replica[] previous = healthy;
+        healthy = up.toArray(Replica[]::new);
+        if (previous.length != healthy.length) {
+            log.info("읽기 전용 조회에 사용할 복제본 : {}/{}개", healthy.length, replicas.size());
+        }
+    }
+
+    // 현재 읽기 조회에 사용 중인 복제본 이름 (관리, 테스트용)
+    public List<String> healthyReplicas() {
+        return List.of(healthy).stream().map(Replica::name).toList();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Replica replica : replicas) {
+            if (replica.dataSource() instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    // 커넥션을 얻지 못한 복제본을 목록에서 뺌 (다른 스레드가 먼저 뺐으면 그대로 둠)
+    private void markDown(Replica replica, SQLException cause) {
+        Replica[] current = healthy;
+        List<Replica> remaining = new ArrayList<>(current.length);
+        for (Replica candidate : current) {
+            if (candidate != replica) {
+                remaining.add(candidate);
+            }
+        }
+        if (remaining.size() != current.length) {
+            healthy = remaining.toArray(Replica[]::new);
+            log.warn("복제본 {}을(를) 읽기 대상에서 제외합니다. 사유 : {}", replica.name(), cause.getMessage());
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.sinse.loginsecurity.config;
 
+import com.sinse.loginsecurity.service.AccessTokenRevocationService;
 import com.sinse.loginsecurity.service.JpaUserDetailsService;
-import com.sinse.loginsecurity.util.JwtUtil;
+import com.sinse.loginsecurity.service.RoleRegistry;
+import com.sinse.loginsecurity.service.SecurityEpochService;
+import com.sinse.loginsecurity.util.AuthMetrics;
+import com.sinse.loginsecurity.util.VerifiedTokenCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -19,8 +24,16 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @RequiredArgsConstructor
 public class SecurityConfig {
 
-    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final JpaUserDetailsService jpaUserDetailsService;
+    private final SecurityEpochService securityEpochService;
+    private final AuthMetrics authMetrics;
+    private final RoleRegistry roleRegistry;
+    private final AccessTokenRevocationService accessTokenRevocationService;
+
+    // true면 JwtFilter가 요청마다 DB에서 사용자를 조회하지 않고 토큰 클레임만으로 인증함
+    @Value("${loginsecurity.jwt.stateless:false}")
+    private boolean stateless;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -50,14 +63,20 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // "/login", "/register", "/" 경로는 인증 없이 모든 사용자가 접근할 수 있도록 허용합니다.
                         // 로그인과 회원가입 기능은 인증되지 않은 사용자도 이용할 수 있어야 합니다.
-                        .requestMatchers("/login", "/register", "/", "/registerform.html", "/loginform.html", "/css/*", "/reissue", "/main.html", "/info").permitAll()
+                        // 헬스 체크는 로드밸런서가 호출하므로 공개합니다.
+                        // 목록은 JwtFilter가 필터를 생략하는 경로와 함께 PublicPaths에서 관리합니다.
+                        .requestMatchers(PublicPaths.PERMIT_ALL).permitAll()
+                        // 지표(metrics)는 관리자만 조회할 수 있도록 합니다.
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+                        // 대량 가입은 관리자만 호출할 수 있습니다.
+                        .requestMatchers("/users/bulk").hasRole("ADMIN")
                         // 위에서 허용한 경로를 제외한 모든 나머지 요청은 반드시 인증을 거쳐야 합니다.
                         .anyRequest().authenticated()
                 )
                 // 우리가 직접 구현한 JwtFilter를 Spring Security의 필터 체인에 추가합니다.
                 // UsernamePasswordAuthenticationFilter는 Spring Security의 기본 아이디/비밀번호 로그인 처리 필터인데,
                 // 이 필터가 실행되기 '전에(Before)' JwtFilter를 먼저 실행하여 JWT 토큰 기반의 인증을 우선적으로 처리하도록 합니다.
-                .addFilterBefore(new JwtFilter(jwtUtil, jpaUserDetailsService), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(new JwtFilter(verifiedTokenCache, jpaUserDetailsService, securityEpochService, stateless, authMetrics, roleRegistry, accessTokenRevocationService), UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,38 @@
+package com.sinse.loginsecurity.controller;
+
+import com.sinse.loginsecurity.config.PasswordHashingRejectedException;
+import com.sinse.loginsecurity.service.RedisUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * 인증 관련 컨트롤러에서 공통으로 발생하는 예외를 HTTP 응답으로 바꿔주는 클래스
+ */
+@RestControllerAdvice
+@Slf4j
+public class AuthExceptionHandler {
+
+    // 해싱 풀이 포화 상태 -> 바로 503을 돌려주고 잠시 후 재시도하도록 안내
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<Map<String, String>> handlePasswordHashingRejected(PasswordHashingRejectedException e) {
+        log.debug("비밀번호 해싱 요청 거절 : {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", "요청이 많아 잠시 후 다시 시도해 주세요."));
+    }
+
+    // Redis 장애 중 Redis 없이는 처리할 수 없는 요청(모든 기기 로그아웃 등) -> 503, Redis 복구 후 재시도하도록 안내
+    @ExceptionHandler(RedisUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleRedisUnavailable(RedisUnavailableException e) {
+        log.warn("Redis 장애로 요청을 처리하지 못했습니다 : {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(Map.of("error", "일시적으로 처리할 수 없습니다. 잠시 후 다시 시도해 주세요."));
+    }
+}
@@ -0,0 +1,75 @@
+package com.sinse.loginsecurity.controller;
+
+import com.sinse.loginsecurity.dto.SessionInfo;
+import com.sinse.loginsecurity.service.AccessTokenRevocationService;
+import com.sinse.loginsecurity.service.RefreshTokenStore;
+import com.sinse.loginsecurity.service.SecurityEpochService;
+import com.sinse.loginsecurity.util.JwtClaims;
+import com.sinse.loginsecurity.util.JwtUtil;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.CookieValue;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 로그인 세션(기기) 관리 API (인증 필요)
+ * - GET    /sessions       : 내 세션 목록
+ * - DELETE /sessions/{id}  : 특정 기기 로그아웃
+ * - DELETE /sessions       : 모든 기기 로그아웃
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class SessionController {
+    private final RefreshTokenStore refreshTokenStore;
+    private final SecurityEpochService securityEpochService;
+    private final AccessTokenRevocationService accessTokenRevocationService;
+    private final JwtUtil jwtUtil;
+
+    @GetMapping("/sessions")
+    public ResponseEntity<List<SessionInfo>> list(Authentication authentication,
+                                                  @CookieValue(value = "refreshToken", required = false) String refreshToken) {
+        String username = authentication.getName();
+        return ResponseEntity.ok(refreshTokenStore.list(username, jwtUtil.sessionIdOf(refreshToken, username)));
+    }
+
+    @DeleteMapping("/sessions/{sessionId}")
+    public ResponseEntity<Void> revoke(Authentication authentication, @PathVariable String sessionId) {
+        // 키에 username이 들어가므로 다른 사용자의 세션은 지울 수 없음
+        refreshTokenStore.revoke(authentication.getName(), sessionId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * 모든 기기 로그아웃 : 모든 세션의 리프레시 토큰을 지우고,
+     * 보안 epoch를 올려 이미 발급된 액세스 토큰도 (stateless 모드에서) 더 이상 통과하지 못하게 함
+     * 지금 사용한 액세스 토큰은 모드와 관계없이 폐기 목록에 추가
+     */
+    @DeleteMapping("/sessions")
+    public ResponseEntity<Map<String, Integer>> revokeAll(Authentication authentication, HttpServletResponse response) {
+        String username = authentication.getName();
+        int revoked = refreshTokenStore.revokeAll(username);
+        securityEpochService.bump(username);
+        if (authentication.getDetails() instanceof JwtClaims accessClaims) {
+            accessTokenRevocationService.revoke(accessClaims);
+        }
+        log.debug("사용자 '{}'의 모든 세션({}개)을 로그아웃했습니다.", username, revoked);
+
+        Cookie cookie = new Cookie("refreshToken", null);
+        cookie.setMaxAge(0);
+        cookie.setHttpOnly(true);
+        cookie.setPath("/");
+        response.addCookie(cookie);
+        return ResponseEntity.ok(Map.of("revoked", revoked));
+    }
+}
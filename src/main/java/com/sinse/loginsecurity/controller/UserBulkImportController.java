@@ -0,0 +1,55 @@
+package com.sinse.loginsecurity.controller;
+
+import com.sinse.loginsecurity.dto.BulkImportResult;
+import com.sinse.loginsecurity.dto.UserDTO;
+import com.sinse.loginsecurity.service.UserBulkImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 관리자용 대량 가입 API (ADMIN 권한 필요, SecurityConfig 참고)
+ * 일부 행이 실패해도 200과 함께 행별 실패 사유를 돌려줌
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class UserBulkImportController {
+    private final UserBulkImportService userBulkImportService;
+
+    /**
+     * JSON 배열로 대량 가입
+     * body: [{ "username": "...", "password": "...", "age": 20, "role": "USER" }, ...]
+     */
+    @PostMapping(value = "/users/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkImportResult> importJson(@RequestBody List<UserDTO> users) {
+        log.debug("JSON 대량 가입 요청 {}건", users.size());
+        return ResponseEntity.ok(userBulkImportService.importUsers(users));
+    }
+
+    /**
+     * CSV로 대량 가입 (요청 본문을 스트리밍으로 읽음)
+     * 첫 줄은 헤더 : username,password,age,role
+     * Content-Type에 charset이 없으면 UTF-8로 읽음 (request.getReader()는 text/* 기본값인 ISO-8859-1로 읽어 한글이 깨짐)
+     */
+    @PostMapping(value = "/users/bulk", consumes = "text/csv")
+    public ResponseEntity<BulkImportResult> importCsv(HttpServletRequest request) throws IOException {
+        log.debug("CSV 대량 가입 요청");
+        String encoding = request.getCharacterEncoding();
+        Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), charset));
+        return ResponseEntity.ok(userBulkImportService.importCsv(reader));
+    }
+}
@@ -1,23 +1,36 @@
 package com.sinse.loginsecurity.controller;
 
 import com.sinse.loginsecurity.config.CustomUserDetails;
+import com.sinse.loginsecurity.config.PasswordHashingRejectedException;
 import com.sinse.loginsecurity.domain.Role;
 import com.sinse.loginsecurity.domain.User;
 import com.sinse.loginsecurity.dto.UserDTO;
-import com.sinse.loginsecurity.repository.JpaRoleRepository;
+import com.sinse.loginsecurity.service.AccessTokenRevocationService;
+import com.sinse.loginsecurity.service.LoginThrottle;
+import com.sinse.loginsecurity.service.RefreshTokenStore;
+import com.sinse.loginsecurity.service.ReissueCoalescer;
+import com.sinse.loginsecurity.service.ReissueCoalescer.Reissued;
+import com.sinse.loginsecurity.service.RoleRegistry;
+import com.sinse.loginsecurity.service.SecurityEpochService;
+import com.sinse.loginsecurity.service.UserDetailsCache;
+import com.sinse.loginsecurity.util.AuthMetrics;
+import com.sinse.loginsecurity.util.JwtClaims;
 import com.sinse.loginsecurity.util.JwtUtil;
 import com.sinse.loginsecurity.util.LogCounter;
+import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -28,6 +41,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.GetMapping;
 import com.sinse.loginsecurity.repository.JpaUserRepository;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
@@ -37,13 +51,22 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 public class UserController {
+    // 리프레시 토큰 유효시간 (쿠키, Redis TTL 공통)
+    private static final Duration REFRESH_TOKEN_TTL = Duration.ofHours(24);
+
     private final LogCounter logCounter;
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
     private final PasswordEncoder passwordEncoder;
     private final JpaUserRepository jpaUserRepository;
-    private final JpaRoleRepository jpaRoleRepository;
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final RoleRegistry roleRegistry;
+    private final RefreshTokenStore refreshTokenStore;
+    private final AccessTokenRevocationService accessTokenRevocationService;
+    private final SecurityEpochService securityEpochService;
+    private final UserDetailsCache userDetailsCache;
+    private final AuthMetrics authMetrics;
+    private final LoginThrottle loginThrottle;
+    private final ReissueCoalescer reissueCoalescer;
 
     /**
      * login 로직을 구현한 메서드
@@ -56,23 +79,62 @@ public class UserController {
      * @author 이세형
      */
     @PostMapping("/login")
-    public ResponseEntity<Map<String, String>> login(@RequestBody UserDTO userDTO, HttpServletResponse response) {
-        log.debug("현재까지 찍혀야 하는 log의 마지막 번호는" + logCounter.getCount());
-        log.debug("1. 들어와서 userDTO에 저장된 정보의 정체는 " + userDTO.toString());
-        log.debug("2. 들어와서 userDTO에 저장된 유저ID는 " + userDTO.getUsername());
-        log.debug("3. 들어와서 userDTO에 저장된 유저의 비밀번호는 " + userDTO.getPassword());
+    public ResponseEntity<Map<String, String>> login(@RequestBody UserDTO userDTO, HttpServletRequest request, HttpServletResponse response) {
+        long start = System.nanoTime();
+        // 잘못된 비밀번호, 해싱 풀 포화는 handleLogin에서 outcome을 기록하므로 그 밖의 예외만 error로 기록
+        return authMetrics.recordErrors(AuthMetrics.LOGIN, start, () -> handleLogin(userDTO, request, response, start),
+                AuthenticationException.class, PasswordHashingRejectedException.class);
+    }
+
+    private ResponseEntity<Map<String, String>> handleLogin(UserDTO userDTO, HttpServletRequest request, HttpServletResponse response,
+                                                            long start) {
+        // 단계별 소요시간 측정 (AuthMetrics : throttle -> authenticate -> jwt_sign -> redis_set)
+        //  authenticate 단계의 DB 조회 시간은 auth.user_lookup으로 따로 기록됨 (JpaUserDetailsService)
+        long stageStart = start;
+        log.debug("현재까지 찍혀야 하는 log의 마지막 번호는 {}", logCounter.getCount());
+        // 비밀번호는 로그에 남기지 않습니다.
+        log.debug("1. 들어와서 userDTO에 저장된 유저ID는 {}", userDTO.getUsername());
+
+        // 0. username, 클라이언트 IP별 시도 횟수 확인 (LoginThrottle)
+        //    거절은 BCrypt 해싱, DB 조회 전에 끝나므로 대량 시도가 해싱 풀을 차지하지 못합니다.
+        LoginThrottle.Decision decision = loginThrottle.check(userDTO.getUsername(), request.getRemoteAddr());
+        if (!decision.allowed()) {
+            log.warn("로그인 시도가 제한되었습니다. username === {}, 사유 === {}", userDTO.getUsername(), decision.reason());
+            // Retry-After는 초 단위 (올림)
+            long retryAfterSeconds = Math.max(1L, (decision.retryAfter().toMillis() + 999) / 1000);
+            return authMetrics.record(AuthMetrics.LOGIN, AuthMetrics.THROTTLED, start,
+                    ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                            .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                            .body(Map.of("error", "로그인 시도가 너무 많습니다. 잠시 후 다시 시도하세요.")));
+        }
+        stageStart = authMetrics.recordStage(AuthMetrics.LOGIN, "throttle", stageStart);
 
         // 1. 사용자 인증을 시도합니다.
         //    UsernamePasswordAuthenticationToken은 인증 요청을 나타내는 객체입니다.
         // 이 곳애서 authenticationManager가 내부적으로 비밀번호 인증로직을 실행하여 hash값으로 생성
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(userDTO.getUsername(), userDTO.getPassword()));
-        log.debug("4. authenticationManager로 검증해서 가져온 객체 ===>" + authentication);
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(userDTO.getUsername(), userDTO.getPassword()));
+        } catch (AuthenticationException e) {
+            authMetrics.recordStage(AuthMetrics.LOGIN, "authenticate", stageStart);
+            authMetrics.record(AuthMetrics.LOGIN, AuthMetrics.BAD_CREDENTIALS, start);
+            // 연속 실패가 쌓이면 이 username은 지수 백오프로 잠시 잠김
+            loginThrottle.onFailure(userDTO.getUsername());
+            throw e;
+        } catch (PasswordHashingRejectedException e) {
+            // 해싱 풀이 포화 상태 -> AuthExceptionHandler가 503으로 응답
+            authMetrics.record(AuthMetrics.LOGIN, AuthMetrics.REJECTED, start);
+            throw e;
+        }
+        stageStart = authMetrics.recordStage(AuthMetrics.LOGIN, "authenticate", stageStart);
+        log.debug("4. authenticationManager로 검증한 사용자 ===> {}, 권한 ===> {}", authentication.getName(), authentication.getAuthorities());
 
         // 2. 인증에 성공하면, 인증된 사용자의 상세 정보를 가져옵니다.
         CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
-        log.debug("5. getPrincipal()로 가져와 담아낸 userDetails 정보는" + userDetails);
+        log.debug("5. getPrincipal()로 가져와 담아낸 userDetails의 유저ID는 {}", userDetails.getUsername());
         String username = userDetails.getUsername();
+        loginThrottle.onSuccess(username);
 
         // 3. 사용자의 권한(Role) 정보를 추출합니다.
         Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
@@ -82,15 +144,23 @@ public class UserController {
             GrantedAuthority auth = iterator.next();
             role = auth.getAuthority();
         }
-        log.debug("6.로그인 정보가 담긴 UserDetails객체에서 추출해낸 role은" + role);
+        log.debug("6.로그인 정보가 담긴 UserDetails객체에서 추출해낸 role은 {}", role);
+
+        // 3.1 이번 로그인(기기)의 세션 id를 발급합니다. 다른 기기의 세션은 그대로 유지됩니다.
+        String sessionId = refreshTokenStore.newSessionId();
 
         // 4. JwtUtil을 사용하여 JWT(accessToken)를 생성합니다. (유효시간 : 15분)
-        String accessToken = jwtUtil.createJwt(username, role, 1 * 15 * 1000L);
-        log.debug("7. 로그인 정보를 사용(JwtUtil객체를 통해)해 만든 accessToken 문자열은 == " + accessToken + "\n이 토큰을 client에게 반환합니다.");
+        //    토큰에는 사용자의 현재 보안 epoch를 담아, 이후 로그아웃/역할 변경 시 폐기할 수 있게 합니다.
+        long epoch = securityEpochService.current(username);
+        String accessToken = jwtUtil.createJwt(username, role, epoch, 1 * 15 * 1000L);
+        // 토큰 값은 로그에 남기지 않습니다.
+        log.debug("7. 사용자 '{}'의 accessToken을 만들었습니다. 이 토큰을 client에게 반환합니다.", username);
 
         // 4.1. JWTUtil을 사용하여 RefreshToken을 생성합니다. (유효시간 : 24시간)
-        String refreshToken = jwtUtil.createJwt(username, role, 24 * 60 * 60 * 1000L);
-        log.debug("17. 로그인 정보를 사용해 만든 refreshToken 문자열은 === " + refreshToken + "\n이 문자열은 반영구 쿠키에 저장됩니다.");
+        //      리프레시 토큰에는 세션 id(sid)를 담아 재발급, 로그아웃 시 해당 세션만 찾아 처리합니다.
+        String refreshToken = jwtUtil.createJwt(username, role, epoch, sessionId, REFRESH_TOKEN_TTL.toMillis());
+        log.debug("17. 사용자 '{}'의 refreshToken을 만들었습니다. 이 문자열은 반영구 쿠키에 저장됩니다.", username);
+        stageStart = authMetrics.recordStage(AuthMetrics.LOGIN, "jwt_sign", stageStart);
 
         // 4.1.1 쿠키 생성 및 설정
         Cookie cookie = new Cookie("refreshToken", refreshToken);
@@ -104,18 +174,15 @@ public class UserController {
         response.addCookie(cookie);
         log.debug("18. 응답에 RefreshToken 쿠키 추가(영구)");
 
-        //4.2 Redis에 Refresh Token 저장(유효시간 : 24시간)
-        redisTemplate.opsForValue().set(
-                username,
-                refreshToken,
-                24, // 만료시간
-                java.util.concurrent.TimeUnit.HOURS // 시간단위
-        );
+        //4.2 Redis에 Refresh Token 저장(유효시간 : 24시간, 토큰 원문 대신 SHA-256 digest만 저장)
+        refreshTokenStore.save(username, sessionId, refreshToken, REFRESH_TOKEN_TTL);
         // logger문법도 하나 더 배웠음
-        log.debug("Redis에 RefreshToken을 저장했습니다. Key: {}, TTL: 24시간", username);
+        log.debug("Redis에 RefreshToken을 저장했습니다. username: {}, session: {}, TTL: 24시간", username, sessionId);
+        authMetrics.recordStage(AuthMetrics.LOGIN, "redis_set", stageStart);
 
         // 5. 생성된 토큰을 "token"이라는 키와 함께 JSON 형태로 클라이언트에게 반환합니다.
-        return ResponseEntity.ok(Map.of("token", accessToken));
+        return authMetrics.record(AuthMetrics.LOGIN, AuthMetrics.SUCCESS, start,
+                ResponseEntity.ok(Map.of("token", accessToken)));
     }
 
     /**
@@ -128,20 +195,31 @@ public class UserController {
      */
     @PostMapping("/reissue")
     public ResponseEntity<Map<String, String>> reissue(@CookieValue("refreshToken") String oldRefreshToken, HttpServletResponse response) {
+        long start = System.nanoTime();
+        return authMetrics.recordErrors(AuthMetrics.REISSUE, start, () -> handleReissue(oldRefreshToken, response, start));
+    }
+
+    private ResponseEntity<Map<String, String>> handleReissue(String oldRefreshToken, HttpServletResponse response, long start) {
         log.debug("20. 액세스(리프레시) 토큰 재발급 요청이 들어왔습니다.");
+        // 단계별 소요시간 측정 (AuthMetrics : jwt_verify -> jwt_sign -> redis_rotate)
+        long stageStart = start;
 
         // 1. 리프레시 토큰 검증
         if (oldRefreshToken == null || oldRefreshToken.isEmpty()) {
             log.debug("21. 리프레시 토큰 검증에 실패 했습니다.");
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "리프레시 토큰이 없습니다."));
+            return authMetrics.record(AuthMetrics.REISSUE, AuthMetrics.MISSING, start,
+                    ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "리프레시 토큰이 없습니다.")));
         }
 
-        // 2. 리프레시토큰 만료여부 확인 및 현존 쿠키 삭제
+        // 2. 리프레시토큰 검증(서명 + 만료) 및 실패 시 현존 쿠키 삭제
+        //    한 번의 파싱으로 검증과 클레임 추출을 함께 처리합니다.
+        JwtClaims claims;
         try {
-            if (jwtUtil.isExpired(oldRefreshToken)) {
-                log.warn("이미 만료된 리프레시 토큰 입니다.");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "이미 만료된 리프레시 토큰입니다."));
-            }
+            claims = jwtUtil.verify(oldRefreshToken);
+        } catch (ExpiredJwtException e) {
+            log.warn("이미 만료된 리프레시 토큰 입니다.");
+            return authMetrics.record(AuthMetrics.REISSUE, AuthMetrics.EXPIRED, start,
+                    ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "이미 만료된 리프레시 토큰입니다.")));
         } catch (Exception e) {
             log.warn("리프레시 토큰 검증 중 오류발생 : {}", e.getMessage());
             // 쿠키를 삭제. 클라이언트의 재 로그인 유도
@@ -150,48 +228,81 @@ public class UserController {
             cookie.setHttpOnly(true);
             cookie.setPath("/");
             response.addCookie(cookie);
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "유효하지 않은 토큰"));
+            return authMetrics.record(AuthMetrics.REISSUE, AuthMetrics.INVALID, start,
+                    ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "유효하지 않은 토큰")));
         }
 
-        // 3. 토큰에서 username과 role 추출
-        String username = jwtUtil.getUsername(oldRefreshToken);
-        String role = jwtUtil.getRole(oldRefreshToken);
-        log.debug("22. 리프레시 토큰에서 추출해온 값이 어떻게 들어왔냐면 username === {}, role === {}", username, role);
+        stageStart = authMetrics.recordStage(AuthMetrics.REISSUE, "jwt_verify", stageStart);
 
-        /* 4. Redis에서 저장된 리프레시 토큰 조회
-            Redis문법 SETEX 'username', {시간}, '토큰의 값' 을 넣어서
-            username : 토큰의값이 들어갔기 때문에 바로 토큰 조회라고 볼 수 있는 것
-        */
-        String savedRefreshToken = (String) redisTemplate.opsForValue().get(username);
+        // 3. 검증된 클레임에서 username과 role 추출
+        String username = claims.username();
+        String role = claims.role();
+        log.debug("22. 리프레시 토큰에서 추출해온 값이 어떻게 들어왔냐면 username === {}, role === {}", username, role);
 
-        //5. Redis에 토큰이 없거나, 요청된 초큰과 일치하지 않는 경우 (보안 위협)
-        if (savedRefreshToken == null || !savedRefreshToken.equals(oldRefreshToken)) {
-            log.warn("Redis에 저장된 토큰과 가진 토큰이 일치하지 않습니다.");
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "리프레시 토큰 정보가 유효하지 않습니다."));
+        // 3.1 로그아웃, 역할/비밀번호 변경 이전에 발급된 토큰이라면 재발급하지 않습니다.
+        if (securityEpochService.isRevoked(username, claims.epoch())) {
+            log.warn("보안 epoch가 지난 리프레시 토큰입니다. username === {}", username);
+            return authMetrics.record(AuthMetrics.REISSUE, AuthMetrics.REVOKED, start,
+                    ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "리프레시 토큰 정보가 유효하지 않습니다.")));
         }
 
-        // 5.1 토큰이 유효(일치)하는경우 새로운 토큰들을 생성
-        log.debug("23. 토큰들이 모두 유효합니다. 새로운 토큰들 발급 프로세스에 진입합니다.");
-
-        // 5.1.1 새로운 액세스토큰 생성
-        String newAccessToken = jwtUtil.createJwt(username, role, 15 * 60 * 1000L);
-
-        // 5.1.2 새로운 리프레시 토큰 생성
-        String newRefreshToken = jwtUtil.createJwt(username, role, 24 * 60 * 60 * 1000L);
-
-        // 5.2 새로운 리프레시 토큰을 Redis, Cookie에 업데이트
-        //Redis
-        redisTemplate.opsForValue().set(username, newRefreshToken, 24, java.util.concurrent.TimeUnit.HOURS);
-        //Cookie
-        Cookie cookie = new Cookie("refreshToken", newRefreshToken);
-        cookie.setMaxAge(24 * 60 * 60);
-        cookie.setHttpOnly(true);
-        cookie.setPath("/");
-        response.addCookie(cookie);
+        // 4. 새 토큰 생성 + Redis 교체
+        //    여러 탭이 같은 리프레시 토큰으로 동시에 요청하면 이 노드에서는 한 번만 실행하고, 실행 중에 온 나머지는 액세스 토큰만 받습니다.
+        //    (끝난 뒤에 온 요청은 Redis 교체 스크립트의 유예(GRACE) 확인을 거침)
+        //    (sid가 없는 예전 토큰은 교체할 세션이 없으므로 재로그인하게 됨)
+        long rotateStart = stageStart;
+        Reissued reissued = claims.sessionId() == null
+                ? Reissued.rejected(RefreshTokenStore.RotateResult.MISSING)
+                : reissueCoalescer.reissue(oldRefreshToken, () -> rotateTokens(claims, oldRefreshToken, rotateStart));
+
+        // 5. Redis에 토큰이 없거나, 요청된 토큰과 일치하지 않는 경우 (보안 위협)
+        if (!reissued.issued()) {
+            log.warn("Redis에 저장된 토큰과 가진 토큰이 일치하지 않습니다. ({})", reissued.result());
+            return authMetrics.record(AuthMetrics.REISSUE, AuthMetrics.REDIS_MISMATCH, start,
+                    ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "리프레시 토큰 정보가 유효하지 않습니다.")));
+        }
 
+        // 5.1 새로운 리프레시 토큰을 Cookie에 업데이트
+        //     GRACE(방금 교체됨)와 함께 기다린 요청(shared)은 새 리프레시 토큰이 없으므로 쿠키를 그대로 둡니다. (교체한 쪽 응답이 쿠키를 바꿈)
+        if (reissued.refreshToken() != null) {
+            Cookie cookie = new Cookie("refreshToken", reissued.refreshToken());
+            cookie.setMaxAge((int) REFRESH_TOKEN_TTL.toSeconds());
+            cookie.setHttpOnly(true);
+            cookie.setPath("/");
+            response.addCookie(cookie);
+        }
 
         // 6. 새로 생성된 액세스 토큰 반환
-        return ResponseEntity.ok(Map.of("token", newAccessToken));
+        String outcome = reissued.shared() ? AuthMetrics.COALESCED
+                : reissued.result() == RefreshTokenStore.RotateResult.GRACE ? AuthMetrics.GRACE : AuthMetrics.SUCCESS;
+        return authMetrics.record(AuthMetrics.REISSUE, outcome, start,
+                ResponseEntity.ok(Map.of("token", reissued.accessToken())));
+    }
+
+    /**
+     * 새 액세스/리프레시 토큰을 만들고 Redis에 저장된 토큰이 요청된 토큰과 같을 때만 교체 (Lua 스크립트, 왕복 1회)
+     * 같은 토큰으로 여러 노드에 동시에 요청이 와도 하나만 ROTATED를 받고,
+     * 유예 시간 안의 나머지는 GRACE(액세스 토큰만 발급), 그 밖은 불일치로 처리됩니다.
+     */
+    private Reissued rotateTokens(JwtClaims claims, String oldRefreshToken, long stageStart) {
+        log.debug("23. 토큰 서명이 유효합니다. 새로운 토큰들 발급 프로세스에 진입합니다.");
+        String username = claims.username();
+        String role = claims.role();
+
+        // 새로운 액세스토큰, 리프레시 토큰 생성 (세션 id는 그대로 유지)
+        String newAccessToken = jwtUtil.createJwt(username, role, claims.epoch(), 15 * 60 * 1000L);
+        String newRefreshToken = jwtUtil.createJwt(username, role, claims.epoch(), claims.sessionId(), REFRESH_TOKEN_TTL.toMillis());
+        stageStart = authMetrics.recordStage(AuthMetrics.REISSUE, "jwt_sign", stageStart);
+
+        RefreshTokenStore.RotateResult rotateResult =
+                refreshTokenStore.rotate(username, claims.sessionId(), oldRefreshToken, newRefreshToken, REFRESH_TOKEN_TTL);
+        authMetrics.recordStage(AuthMetrics.REISSUE, "redis_rotate", stageStart);
+
+        return switch (rotateResult) {
+            case ROTATED -> new Reissued(rotateResult, newAccessToken, newRefreshToken, false);
+            case GRACE -> new Reissued(rotateResult, newAccessToken, null, false);
+            default -> Reissued.rejected(rotateResult);
+        };
     }
 
 
@@ -209,10 +320,10 @@ public class UserController {
         // 1. 비밀번호 암호화
         String encodedPassword = passwordEncoder.encode(userDTO.getPassword());
 
-        // 2. Role 존재 여부 확인 및 예외 처리
-        Role role = jpaRoleRepository.findByRoleName(userDTO.getRole())
+        // 2. Role 존재 여부 확인 및 예외 처리 (DB 대신 메모리에 올려둔 RoleRegistry에서 조회)
+        Role role = roleRegistry.findByName(userDTO.getRole())
                 .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 역할입니다."));
-        log.debug("14. USER값을 가진 role 객체는?" + role.toString());
+        log.debug("14. USER값을 가진 role 객체는? {}", role);
 
         // 3. User 객체 생성 및 데이터 설정
         User user = new User();
@@ -223,6 +334,8 @@ public class UserController {
 
         // 4. DB에 User 저장
         jpaUserRepository.save(user);
+        // 4.1 같은 username으로 캐시된 이전 정보가 남아있지 않도록 모든 노드의 캐시를 비웁니다.
+        userDetailsCache.invalidate(user.getUsername());
 
         // 5. 성공 응답 반환
         return ResponseEntity.ok("회원가입이 성공적으로 완료되었습니다.");
@@ -242,14 +355,40 @@ public class UserController {
         return ResponseEntity.ok(userInfo);
     }
 
+    /**
+     * 현재 기기(세션)에서만 로그아웃하는 메서드
+     * 다른 기기의 세션까지 모두 끝내려면 DELETE /sessions (SessionController) 사용
+     */
     @PostMapping("/logout")
-    public ResponseEntity<String> logout(Authentication authentication, HttpServletResponse response) {
+    public ResponseEntity<String> logout(Authentication authentication,
+                                         @CookieValue(value = "refreshToken", required = false) String refreshToken,
+                                         HttpServletResponse response) {
+        long start = System.nanoTime();
+        return authMetrics.recordErrors(AuthMetrics.LOGOUT, start, () -> handleLogout(authentication, refreshToken, response, start));
+    }
+
+    private ResponseEntity<String> handleLogout(Authentication authentication, String refreshToken, HttpServletResponse response,
+                                                long start) {
         log.debug("25. 로그아웃 메서드를 호출합니다(매핑이 잘 되었는지? O)");
-        // 1. Redis에서 Refresh Token 삭제
+        // 단계별 소요시간 측정 (AuthMetrics : session_revoke -> access_revoke -> cache_invalidate)
+        long stageStart = start;
+        // 1. Redis에서 이 기기 세션의 Refresh Token 삭제
         if (authentication != null) {
             String username = authentication.getName();
-            redisTemplate.delete(username);
-            log.debug("Redis에서 사용자 '{}'의 리프레시 토큰을 삭제했습니다.", username);
+            String sessionId = jwtUtil.sessionIdOf(refreshToken, username);
+            if (sessionId != null) {
+                refreshTokenStore.revoke(username, sessionId);
+                log.debug("Redis에서 사용자 '{}'의 세션 {} 리프레시 토큰을 삭제했습니다.", username, sessionId);
+            }
+            stageStart = authMetrics.recordStage(AuthMetrics.LOGOUT, "session_revoke", stageStart);
+            // 1.1 지금 사용한 액세스 토큰도 만료 전까지 더 이상 통과하지 못하게 폐기합니다. (JwtFilter가 클레임을 담아 둠)
+            if (authentication.getDetails() instanceof JwtClaims accessClaims) {
+                accessTokenRevocationService.revoke(accessClaims);
+            }
+            stageStart = authMetrics.recordStage(AuthMetrics.LOGOUT, "access_revoke", stageStart);
+            // 1.2 모든 노드의 UserDetails 캐시에서도 제거합니다.
+            userDetailsCache.invalidate(username);
+            authMetrics.recordStage(AuthMetrics.LOGOUT, "cache_invalidate", stageStart);
         }
 
         // 2. 브라우저의 Refresh Token 쿠키 삭제
@@ -258,6 +397,7 @@ public class UserController {
         cookie.setPath("/");
         response.addCookie(cookie);
 
-        return ResponseEntity.ok("success");
+        return authMetrics.record(AuthMetrics.LOGOUT, authentication != null ? AuthMetrics.SUCCESS : AuthMetrics.ANONYMOUS, start,
+                ResponseEntity.ok("success"));
     }
 }
@@ -2,9 +2,15 @@ package com.sinse.loginsecurity.domain;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+// 행이 몇 개 안 되고 거의 바뀌지 않으므로 Hibernate 2차 캐시(region "role", 노드별 Caffeine)에 둠
+// 다른 노드에서 역할이 바뀌면 RoleRegistry가 pub/sub 메시지를 받아 이 region을 비움
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "role")
 @Table(name="role")
 public class Role {
     @Id
@@ -18,7 +18,11 @@ public class User {
     private String password;
     @Column(nullable = false)
     private int age;
-    @ManyToOne
+    // 역할 정보는 RoleRegistry(메모리)에서 찾으므로 사용자 조회 시 role 테이블을 join하지 않음
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="role_id")
     private Role role;
+    // 같은 role_id 컬럼을 읽기 전용으로 한 번 더 매핑 (지연 로딩 프록시를 건드리지 않고 역할 id를 얻기 위함)
+    @Column(name="role_id", insertable = false, updatable = false)
+    private Integer roleId;
 }
@@ -0,0 +1,11 @@
+package com.sinse.loginsecurity.dto;
+
+/**
+ * 대량 가입 중 실패한 행 정보
+ *
+ * @param row      요청 안에서의 행 번호 (1부터 시작, CSV는 헤더 제외)
+ * @param username 해당 행의 username
+ * @param reason   실패 사유 (중복 username, 존재하지 않는 역할 등)
+ */
+public record BulkImportFailure(int row, String username, String reason) {
+}
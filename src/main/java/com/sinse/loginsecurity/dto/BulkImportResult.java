@@ -0,0 +1,13 @@
+package com.sinse.loginsecurity.dto;
+
+import java.util.List;
+
+/**
+ * 대량 가입 결과 : 일부 행이 실패해도 나머지 행은 저장되며, 실패한 행만 failures에 담김
+ *
+ * @param requested 요청된 행 수
+ * @param imported  저장에 성공한 행 수
+ * @param failures  실패한 행 목록
+ */
+public record BulkImportResult(int requested, int imported, List<BulkImportFailure> failures) {
+}
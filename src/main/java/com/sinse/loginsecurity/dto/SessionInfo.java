@@ -0,0 +1,14 @@
+package com.sinse.loginsecurity.dto;
+
+import java.time.Instant;
+
+/**
+ * 로그인 세션(기기) 하나의 정보 : 세션 목록 조회(GET /sessions) 응답
+ *
+ * @param sessionId 세션 id (리프레시 토큰의 sid 클레임)
+ * @param createdAt 로그인 시각
+ * @param expiresAt 리프레시 토큰 만료 예정 시각 (재발급하면 연장됨)
+ * @param current   지금 요청을 보낸 기기의 세션인지 여부
+ */
+public record SessionInfo(String sessionId, Instant createdAt, Instant expiresAt, boolean current) {
+}
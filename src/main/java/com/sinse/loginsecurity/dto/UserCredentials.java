@@ -0,0 +1,13 @@
+package com.sinse.loginsecurity.dto;
+
+/**
+ * 인증에 필요한 컬럼만 담은 읽기 전용 조회 결과 (JpaUserRepository.findCredentialsByUsername)
+ * 엔티티가 아니므로 영속성 컨텍스트에 올라가지 않고 스냅샷 보관, dirty checking도 없음
+ *
+ * @param username 사용자 이름
+ * @param password 저장된 비밀번호 해시 ({id} 접두사 포함)
+ * @param roleId   role_id (RoleRegistry에서 미리 만들어 둔 권한 목록을 찾는 키)
+ * @param roleName 역할 이름 (RoleRegistry가 아직 모르는 역할일 때만 사용)
+ */
+public record UserCredentials(String username, String password, Integer roleId, String roleName) {
+}
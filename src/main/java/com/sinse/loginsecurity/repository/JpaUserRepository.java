@@ -1,8 +1,26 @@
 package com.sinse.loginsecurity.repository;
 
 import com.sinse.loginsecurity.domain.User;
+import com.sinse.loginsecurity.dto.UserCredentials;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface JpaUserRepository extends JpaRepository<User, Integer> {
     public User findByUsername(String username); //username으로 user찾기
+
+    //인증(loadUserByUsername)용 조회 : 엔티티 대신 필요한 컬럼만 record로 받음 (role은 같은 쿼리에서 left join, 쿼리 1번)
+    //readOnly 트랜잭션이므로 복제본이 설정되어 있으면 복제본에서 실행됨 (DataSourceConfig)
+    @Transactional(readOnly = true)
+    @Query("select new com.sinse.loginsecurity.dto.UserCredentials(u.username, u.password, u.roleId, r.roleName)"
+            + " from User u left join u.role r where u.username = :username")
+    UserCredentials findCredentialsByUsername(@Param("username") String username);
+
+    //대량 가입 시 이미 존재하는 username만 한 번의 쿼리로 찾기 (엔티티를 만들지 않고 username만 조회)
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
 }
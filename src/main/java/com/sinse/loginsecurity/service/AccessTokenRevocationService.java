@@ -0,0 +1,290 @@
+package com.sinse.loginsecurity.service;
+
+import com.sinse.loginsecurity.util.BloomFilter;
+import com.sinse.loginsecurity.util.CircuitBreaker;
+import com.sinse.loginsecurity.util.JwtClaims;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 만료 전에 폐기된 액세스 토큰(jti) 목록
+ * 로그아웃한 액세스 토큰이 만료될 때까지 계속 통과하지 않도록 함
+ *
+ * - 원본 목록은 Redis(auth:revoked:{jti}, TTL = 토큰의 남은 유효시간)
+ * - 각 노드는 Bloom filter를 메모리에 두고, 필터가 "있을 수도 있음"이라고 할 때만 Redis를 조회함
+ *   -> 폐기되지 않은 토큰(대부분의 요청)은 메모리 조회만으로 끝남
+ * - 폐기 시 pub/sub으로 다른 노드의 필터에도 추가하고,
+ *   만료된 jti를 빼고 놓친 메시지를 보충하기 위해 주기적으로 Redis를 SCAN하여 필터를 새로 만듦
+ * - 시작 후 한 번도 필터를 만들지 못했다면(시작 시 Redis 장애 등) 빈 필터를 믿지 않고 모든 토큰을 Redis로 확인하며,
+ *   재구성에 실패하면 주기(rebuild-interval-ms)를 기다리지 않고 짧은 간격부터 늘려 가며 다시 시도함
+ *
+ * Redis 장애 시 (redisCircuitBreaker가 OPEN이거나 호출이 실패한 경우)
+ * - 폐기(revoke)는 이 노드에서 바로 적용하고 로그아웃은 계속 진행 : Redis에 쓰지 못한 jti는 pending에 두었다가
+ *   복구되면 flushPendingRevocations()가 Redis에 기록하고 다른 노드에 알림 (그 전까지 다른 노드에서는 만료 전까지 통과할 수 있음)
+ * - 확인(isRevoked)은 fail-closed : 필터에 걸린 토큰을 Redis로 확인할 수 없으면 폐기된 것으로 봄
+ */
+@Service
+@Slf4j
+public class AccessTokenRevocationService implements MessageListener, MeterBinder {
+
+    static final String KEY_PREFIX = "auth:revoked:";
+    static final String CHANNEL = "auth:token-revoked";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CircuitBreaker redisCircuitBreaker;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile BloomFilter filter;
+    // 재구성 중인 새 필터 (재구성 도중 들어온 폐기도 빠지지 않도록 양쪽에 모두 넣음)
+    private volatile BloomFilter rebuilding;
+    // Redis의 폐기 목록으로 필터를 한 번이라도 만들었는지 (false면 필터에 없어도 폐기되지 않았다고 확신할 수 없음)
+    private volatile boolean built;
+    // Redis에 기록하지 못한 폐기 (jti -> 토큰 만료 시각), 최대 expected-insertions개
+    private final Map<String, Instant> pending = new ConcurrentHashMap<>();
+
+    // 재구성 실패 후 재시도 간격 (retry-min-ms부터 두 배씩 retry-max-ms까지), rebuildLock 안에서만 변경
+    private final long retryMinNanos;
+    private final long retryMaxNanos;
+    private long retryDelayNanos;
+    private volatile boolean retryPending;
+    private volatile long retryAtNanos;
+
+    private final LongAdder redisLookups = new LongAdder();
+    private final LongAdder confirmedRevoked = new LongAdder();
+
+    public AccessTokenRevocationService(StringRedisTemplate stringRedisTemplate,
+                                        RedisMessageListenerContainer redisMessageListenerContainer,
+                                        CircuitBreaker redisCircuitBreaker,
+                                        @Value("${loginsecurity.revocation.expected-insertions:100000}") long expectedInsertions,
+                                        @Value("${loginsecurity.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                                        @Value("${loginsecurity.revocation.retry-min-ms:1000}") long retryMinMillis,
+                                        @Value("${loginsecurity.revocation.retry-max-ms:60000}") long retryMaxMillis) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.retryMinNanos = Duration.ofMillis(retryMinMillis).toNanos();
+        this.retryMaxNanos = Duration.ofMillis(Math.max(retryMinMillis, retryMaxMillis)).toNanos();
+        this.filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * 액세스 토큰을 남은 유효시간 동안 폐기 (로그아웃 시 호출)
+     * Redis에 먼저 기록한 뒤 필터에 넣으므로, 재구성(SCAN) 중이어도 빠지지 않음
+     * Redis에 기록하지 못하면 pending에 두고 이 노드의 필터에만 넣음 (예외를 던지지 않음)
+     */
+    public void revoke(JwtClaims claims) {
+        if (claims.tokenId() == null || claims.expiration() == null) {
+            return;
+        }
+        Duration remaining = Duration.between(Instant.now(), claims.expiration());
+        if (remaining.isNegative() || remaining.isZero()) {
+            return;
+        }
+        if (redisCircuitBreaker.tryAcquire()) {
+            try {
+                redisCircuitBreaker.run(() -> publish(claims.tokenId(), remaining));
+                log.debug("액세스 토큰 {}을(를) {}ms 동안 폐기했습니다.", claims.tokenId(), remaining.toMillis());
+                return;
+            } catch (DataAccessException e) {
+                log.warn("액세스 토큰 폐기를 Redis에 기록하지 못해 이 노드에만 적용하고 복구 후 다시 기록합니다. 사유 : {}", e.getMessage());
+            }
+        }
+        if (pending.size() < expectedInsertions) {
+            pending.put(claims.tokenId(), claims.expiration());
+        } else {
+            log.warn("Redis에 기록하지 못한 액세스 토큰 폐기가 {}건을 넘어 jti {}은(는) 이 노드에만 적용합니다.", expectedInsertions, claims.tokenId());
+        }
+        remember(claims.tokenId());
+    }
+
+    /**
+     * Bloom filter만 확인 (false면 폐기되지 않은 것이 확실, true면 isRevoked()로 Redis 확인 필요)
+     * 필터를 아직 한 번도 만들지 못했으면 항상 true
+     */
+    public boolean mightBeRevoked(String tokenId) {
+        return tokenId != null && (!built || filter.mightContain(tokenId));
+    }
+
+    /**
+     * 폐기된 토큰인지 확인 (JwtFilter가 요청마다 호출)
+     * 필터에 없으면 메모리 조회만으로 false, 있을 수도 있을 때만 Redis로 확인
+     */
+    public boolean isRevoked(String tokenId) {
+        if (!mightBeRevoked(tokenId)) {
+            return false;
+        }
+        if (pending.containsKey(tokenId)) {
+            return true;
+        }
+        // 필터에 걸린 토큰인데 Redis로 확인할 수 없으면 폐기된 것으로 봄 (폐기된 토큰이 통과하는 것보다 안전)
+        if (!redisCircuitBreaker.tryAcquire()) {
+            return true;
+        }
+        redisLookups.increment();
+        try {
+            boolean revoked = Boolean.TRUE.equals(redisCircuitBreaker.call(() -> stringRedisTemplate.hasKey(KEY_PREFIX + tokenId)));
+            if (revoked) {
+                confirmedRevoked.increment();
+            }
+            return revoked;
+        } catch (DataAccessException e) {
+            log.warn("토큰 폐기 여부를 Redis에서 확인하지 못했습니다. 폐기된 것으로 처리합니다. 사유 : {}", e.getMessage());
+            return true;
+        }
+    }
+
+    // 다른 노드에서 폐기한 jti를 필터에 추가
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        remember(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Redis에 남아있는 jti만으로 필터를 새로 만들어 교체
+     * 시작 시 한 번, 이후 주기적으로 실행 (만료된 jti를 빼서 오탐률이 계속 오르지 않게 함)
+     * 실패하면 retryFailedRebuild()가 짧은 간격으로 다시 실행함
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${loginsecurity.revocation.rebuild-interval-ms:600000}",
+            initialDelayString = "${loginsecurity.revocation.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        if (!rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            BloomFilter fresh = new BloomFilter(expectedInsertions, falsePositiveRate);
+            rebuilding = fresh;
+            long count = 0;
+            ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(1000).build();
+            try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+                while (cursor.hasNext()) {
+                    fresh.put(cursor.next().substring(KEY_PREFIX.length()));
+                    count++;
+                }
+            }
+            // 아직 Redis에 기록하지 못한 폐기도 새 필터에 유지
+            pending.keySet().forEach(fresh::put);
+            filter = fresh;
+            built = true;
+            retryPending = false;
+            retryDelayNanos = 0;
+            log.debug("폐기된 액세스 토큰 필터를 다시 만들었습니다. (jti {}개)", count);
+            if (count > expectedInsertions) {
+                log.warn("폐기된 액세스 토큰 수({})가 expected-insertions({})보다 많아 오탐률이 높아집니다.", count, expectedInsertions);
+            }
+        } catch (DataAccessException e) {
+            // 기존 필터를 계속 사용 (한 번도 만들지 못했다면 isRevoked가 모든 토큰을 Redis로 확인)
+            retryDelayNanos = retryDelayNanos == 0 ? retryMinNanos : Math.min(retryDelayNanos * 2, retryMaxNanos);
+            retryAtNanos = System.nanoTime() + retryDelayNanos;
+            retryPending = true;
+            log.warn("폐기된 액세스 토큰 필터를 다시 만들지 못했습니다. {}ms 후 다시 시도합니다. 사유 : {}",
+                    Duration.ofNanos(retryDelayNanos).toMillis(), e.getMessage());
+        } finally {
+            rebuilding = null;
+            rebuildLock.unlock();
+        }
+    }
+
+    // 재구성에 실패했다면 재시도 시각이 지났을 때 다시 실행 (확인은 retry-check-ms마다, 실패가 없으면 아무것도 하지 않음)
+    @Scheduled(fixedDelayString = "${loginsecurity.revocation.retry-check-ms:1000}")
+    public void retryFailedRebuild() {
+        if (retryPending && System.nanoTime() - retryAtNanos >= 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Redis 장애 중 이 노드에만 적용한 폐기를 Redis에 기록하고 다른 노드에 알림 (write-behind)
+     * 남은 것이 있을 때만 Redis를 호출하며, circuit이 OPEN이면 open-duration이 지난 뒤의 시험 호출로도 쓰임
+     */
+    @Scheduled(fixedDelayString = "${loginsecurity.revocation.retry-check-ms:1000}")
+    public void flushPendingRevocations() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        pending.values().removeIf(expiration -> !expiration.isAfter(now));
+        if (pending.isEmpty() || !redisCircuitBreaker.tryAcquire()) {
+            return;
+        }
+        int before = pending.size();
+        try {
+            redisCircuitBreaker.run(() -> {
+                for (Map.Entry<String, Instant> entry : pending.entrySet()) {
+                    Duration remaining = Duration.between(Instant.now(), entry.getValue());
+                    if (!remaining.isNegative() && !remaining.isZero()) {
+                        publish(entry.getKey(), remaining);
+                    }
+                    pending.remove(entry.getKey(), entry.getValue());
+                }
+            });
+            log.info("Redis 장애 중 이 노드에만 적용한 액세스 토큰 폐기 {}건을 Redis에 기록했습니다.", before - pending.size());
+        } catch (DataAccessException e) {
+            log.debug("Redis에 기록하지 못한 액세스 토큰 폐기를 다시 기록하지 못했습니다. (남은 {}건) 사유 : {}", pending.size(), e.getMessage());
+        }
+    }
+
+    // 아직 Redis에 기록하지 못한 폐기 수
+    public int pendingRevocations() {
+        return pending.size();
+    }
+
+    // 필터에 걸려 Redis까지 조회한 횟수와 실제 폐기된 토큰 수 (차이가 오탐)
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("auth.revocation.lookups", redisLookups, LongAdder::sum)
+                .description("Bloom filter에 걸려 Redis를 조회한 횟수")
+                .register(registry);
+        FunctionCounter.builder("auth.revocation.revoked", confirmedRevoked, LongAdder::sum)
+                .description("Redis에서 폐기가 확인된 횟수")
+                .register(registry);
+        Gauge.builder("auth.revocation.pending", pending, Map::size)
+                .description("Redis 장애로 이 노드에만 적용하고 아직 Redis에 기록하지 못한 폐기 수")
+                .register(registry);
+    }
+
+    // Redis에 기록(TTL = 남은 유효시간)한 뒤 필터에 넣고 다른 노드에 알림
+    private void publish(String tokenId, Duration remaining) {
+        stringRedisTemplate.opsForValue().set(KEY_PREFIX + tokenId, "1", remaining);
+        remember(tokenId);
+        stringRedisTemplate.convertAndSend(CHANNEL, tokenId);
+    }
+
+    // 재구성 중인 필터를 먼저 읽고 넣은 뒤 현재 필터에 넣음
+    // rebuild()는 rebuilding 설정 -> filter 교체 -> rebuilding 해제 순서이므로, rebuilding이 이미 null이면 filter는 새 필터임
+    // (반대 순서면 교체 직전의 필터에만 들어가고 rebuilding은 null로 읽혀 새 필터에서 빠질 수 있음)
+    private void remember(String tokenId) {
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(tokenId);
+        }
+        filter.put(tokenId);
+    }
+}
@@ -1,35 +1,95 @@
 package com.sinse.loginsecurity.service;
 
 import com.sinse.loginsecurity.config.CustomUserDetails;
+import com.sinse.loginsecurity.config.ReplicaDataSource;
 import com.sinse.loginsecurity.domain.User;
+import com.sinse.loginsecurity.dto.UserCredentials;
 import com.sinse.loginsecurity.repository.JpaUserRepository;
+import com.sinse.loginsecurity.util.AuthMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 @Service
 @Slf4j
-public class JpaUserDetailsService implements UserDetailsService {
+public class JpaUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final JpaUserRepository jpaUserRepository;
-    public JpaUserDetailsService(JpaUserRepository jpaUserRepository) {
+    private final UserDetailsCache userDetailsCache;
+    private final RoleRegistry roleRegistry;
+    private final AuthMetrics authMetrics;
+
+    public JpaUserDetailsService(JpaUserRepository jpaUserRepository, UserDetailsCache userDetailsCache,
+                                 RoleRegistry roleRegistry, AuthMetrics authMetrics) {
         this.jpaUserRepository = jpaUserRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.roleRegistry = roleRegistry;
+        this.authMetrics = authMetrics;
     }
 
+    // 캐시에 없을 때만 DB를 조회합니다. (UserDetailsCache 참고)
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = jpaUserRepository.findByUsername(username);
-        log.debug("12. 유저이름으로 꺼내온 유저 객체에 담긴 정보는 " + user.toString());
-        log.debug("13. 유저이름으로 꺼내온 유저 객체에 담긴 userName은 === "+user.getUsername());
-        log.debug("14. 유저이름으로 꺼내온 유저 객체에 담긴 password는 === "+user.getPassword());
-        log.debug("15. 유저이름으로 꺼내온 유저 객체에 담긴 age는 === "+user.getAge());
+        return userDetailsCache.get(username, this::loadFromDatabase);
+    }
 
+    /**
+     * 로그인 성공 후 저장된 해시가 예전 알고리즘이거나 현재 strength보다 낮으면
+     * DaoAuthenticationProvider가 새로 해싱한 값(newPassword)으로 이 메서드를 호출함
+     * 비밀번호 자체는 바뀌지 않으므로 보안 epoch는 올리지 않고 캐시만 비움
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = jpaUserRepository.findByUsername(userDetails.getUsername());
         if (user == null) {
+            return userDetails;
+        }
+        user.setPassword(newPassword);
+        jpaUserRepository.save(user);
+        userDetailsCache.invalidate(user.getUsername());
+        log.debug("사용자 '{}'의 비밀번호 해시를 현재 알고리즘/비용으로 갱신했습니다.", user.getUsername());
+        return toUserDetails(user);
+    }
+
+    // 엔티티를 만들지 않고 username, password, 역할만 한 번의 쿼리로 읽음 (JpaUserRepository.findCredentialsByUsername)
+    // 조회 시간은 auth.user_lookup 타이머로 따로 기록 (로그인의 authenticate 단계에서 DB 조회와 BCrypt 검증을 구분하기 위함)
+    private UserDetails loadFromDatabase(String username) {
+        long start = System.nanoTime();
+        // 읽기 전용 조회라 복제본에서 읽지만, 방금 가입/변경된 사용자는 복제 지연을 피해 primary에서 읽음 (read-your-writes)
+        UserCredentials credentials;
+        try {
+            credentials = userDetailsCache.recentlyWritten(username)
+                    ? ReplicaDataSource.onPrimary(() -> jpaUserRepository.findCredentialsByUsername(username))
+                    : jpaUserRepository.findCredentialsByUsername(username);
+        } catch (RuntimeException e) {
+            authMetrics.record(AuthMetrics.USER_LOOKUP, AuthMetrics.ERROR, start);
+            throw e;
+        }
+        if (credentials == null) {
+            authMetrics.record(AuthMetrics.USER_LOOKUP, AuthMetrics.MISSING, start);
             throw new UsernameNotFoundException(username);
         }
-        // DB에서 찾은 user 객체를 CustomUserDetails로 감싸서 반환합니다.
-        return new CustomUserDetails(user);
+        authMetrics.record(AuthMetrics.USER_LOOKUP, AuthMetrics.SUCCESS, start);
+        log.debug("12. 유저이름으로 꺼내온 인증 정보의 username === {}, roleId === {}", credentials.username(), credentials.roleId());
+
+        // 조회한 값으로 불변 CustomUserDetails를 만들어 반환합니다.
+        List<GrantedAuthority> authorities = roleRegistry.authoritiesOf(credentials.roleId());
+        if (authorities.isEmpty() && credentials.roleName() != null) {
+            // 다른 노드에서 방금 추가되어 RoleRegistry가 아직 모르는 역할 : join으로 함께 읽은 이름을 사용
+            authorities = roleRegistry.authoritiesOfAuthority("ROLE_" + credentials.roleName());
+        }
+        return new CustomUserDetails(credentials.username(), credentials.password(), authorities);
+    }
+
+    // 권한은 role 테이블을 join하지 않고 RoleRegistry에서 미리 만들어 둔 것을 사용
+    private UserDetails toUserDetails(User user) {
+        return new CustomUserDetails(user.getUsername(), user.getPassword(), roleRegistry.authoritiesOf(user.getRoleId()));
     }
 }
@@ -0,0 +1,278 @@
+package com.sinse.loginsecurity.service;
+
+import com.sinse.loginsecurity.util.CircuitBreaker;
+import com.sinse.loginsecurity.util.JwtKeyRing;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ES256 서명 키 교체 (loginsecurity.jwt.algorithm=es256 일 때만 동작, hmac이면 아무 일도 하지 않음)
+ *
+ * - 서명 노드는 각자 키 쌍을 메모리에서 만들고, 공개키만 Redis hash(auth:jwt:keys)에 게시함
+ *   -> 개인키는 어디에도 저장/전송되지 않고, 검증 노드는 공개키만 가짐
+ * - 게시하는 값에는 설정된 루트 키(loginsecurity.jwt.key-publish-secret)로 만든 HMAC을 붙이고, 읽을 때 확인함
+ *   -> Redis에 쓸 수 있다는 것만으로는 검증 키를 끼워 넣을 수 없음 (HMAC이 맞지 않는 키는 건너뜀)
+ * - 시작 시와 교체 주기(rotation-interval)마다 새 키를 게시하고, activation-delay 뒤에 서명을 시작함
+ *   -> 그 사이 pub/sub으로 모든 노드가 새 공개키를 먼저 알게 됨 (첫 키가 활성화되기 전까지는 active-kid의 HMAC 키로 서명)
+ * - 이전 키의 공개키는 retention(가장 긴 토큰 수명 이상) 동안 남겨 이미 발급된 토큰을 계속 검증함 (overlap)
+ * - Redis를 쓸 수 없으면(redisCircuitBreaker) 지금 가진 키로 계속 서명/검증하고, 게시하지 못한 키는 활성화하지 않음
+ *   -> Redis가 꺼진 채 시작해도 기동은 실패하지 않으며, tick()이 Redis가 돌아온 뒤 다시 게시함
+ */
+@Service
+@Slf4j
+public class JwtKeyRotationService implements MessageListener {
+
+    static final String KEYS_KEY = "auth:jwt:keys";
+    static final String CHANNEL = "auth:jwt:keys-changed";
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    // HMAC-SHA256 키로 쓰기에 충분한 루트 키 길이
+    private static final int MIN_PUBLISH_SECRET_BYTES = 32;
+
+    private final JwtKeyRing keyRing;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CircuitBreaker redisCircuitBreaker;
+    private final boolean enabled;
+    private final boolean signer;
+    private final Duration rotationInterval;
+    private final Duration activationDelay;
+    private final Duration retention;
+    // 게시된 공개키를 인증하는 루트 키 (hmac 모드에서는 null)
+    private final SecretKeySpec publishKey;
+    private final ReentrantLock rotationLock = new ReentrantLock();
+    private Instant activatedAt;
+    private NodeKey pending;
+
+    // 이 노드가 만든 키 (개인키는 이 객체 밖으로 나가지 않음)
+    private record NodeKey(String kid, KeyPair keyPair, Instant activatesAt, Instant notAfter) {
+    }
+
+    public JwtKeyRotationService(JwtKeyRing keyRing,
+                                 StringRedisTemplate stringRedisTemplate,
+                                 RedisMessageListenerContainer redisMessageListenerContainer,
+                                 CircuitBreaker redisCircuitBreaker,
+                                 @Value("${loginsecurity.jwt.algorithm:hmac}") String algorithm,
+                                 @Value("${loginsecurity.jwt.signer:true}") boolean signer,
+                                 @Value("${loginsecurity.jwt.rotation-interval:PT24H}") Duration rotationInterval,
+                                 @Value("${loginsecurity.jwt.activation-delay:PT1M}") Duration activationDelay,
+                                 @Value("${loginsecurity.jwt.key-retention:PT25H}") Duration retention,
+                                 @Value("${loginsecurity.jwt.key-publish-secret:}") String keyPublishSecret) {
+        if (!algorithm.equalsIgnoreCase("hmac") && !algorithm.equalsIgnoreCase("es256")) {
+            throw new IllegalArgumentException("loginsecurity.jwt.algorithm은 hmac 또는 es256이어야 합니다 : " + algorithm);
+        }
+        byte[] publishSecret = keyPublishSecret.getBytes(StandardCharsets.UTF_8);
+        if (algorithm.equalsIgnoreCase("es256") && publishSecret.length < MIN_PUBLISH_SECRET_BYTES) {
+            throw new IllegalArgumentException("loginsecurity.jwt.algorithm=es256이면 loginsecurity.jwt.key-publish-secret을 "
+                    + MIN_PUBLISH_SECRET_BYTES + "바이트 이상으로 설정해야 합니다.");
+        }
+        this.keyRing = keyRing;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.enabled = algorithm.equalsIgnoreCase("es256");
+        this.signer = signer;
+        this.rotationInterval = rotationInterval;
+        this.activationDelay = activationDelay;
+        this.retention = retention;
+        this.publishKey = enabled ? new SecretKeySpec(publishSecret, MAC_ALGORITHM) : null;
+        if (enabled) {
+            redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        }
+    }
+
+    /**
+     * 시작 시 게시된 공개키를 읽고, 서명 노드라면 첫 키를 게시 (서명은 activation-delay 뒤 tick()에서 시작)
+     * (재시작하면 이전 개인키는 사라지지만, 그 키로 발급된 토큰은 게시된 공개키로 계속 검증됨)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        rotationLock.lock();
+        try {
+            reload();
+            if (signer) {
+                publishPending(Instant.now());
+            }
+        } finally {
+            rotationLock.unlock();
+        }
+    }
+
+    // 주기적으로 게시된 키를 다시 읽고(pub/sub 누락 대비), 게시한 키의 활성화 시각이 지났으면 서명을 시작하고,
+    // 교체 시점이 되면(또는 시작 시 게시하지 못했으면) 새 키를 게시
+    @Scheduled(fixedDelayString = "${loginsecurity.jwt.rotation-check-ms:60000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        rotationLock.lock();
+        try {
+            reload();
+            if (!signer) {
+                return;
+            }
+            Instant now = Instant.now();
+            if (pending != null && !now.isBefore(pending.activatesAt())) {
+                activate(pending);
+                pending = null;
+            } else if (pending == null && (activatedAt == null || !now.isBefore(activatedAt.plus(rotationInterval)))) {
+                publishPending(now);
+            }
+        } finally {
+            rotationLock.unlock();
+        }
+    }
+
+    // 다른 노드가 새 키를 게시하면 바로 다시 읽음
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        reload();
+    }
+
+    // 새 키를 만들어 게시하고, activation-delay 뒤에 활성화하도록 pending으로 둠 (게시하지 못하면 다음 tick()에서 다시 시도)
+    private void publishPending(Instant now) {
+        NodeKey key = newKey(now.plus(activationDelay));
+        if (!publish(key)) {
+            return;
+        }
+        pending = key;
+        log.info("새 JWT 서명 키 {}를 게시했습니다. {}부터 서명에 사용합니다.", key.kid(), key.activatesAt());
+    }
+
+    private NodeKey newKey(Instant activatesAt) {
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        byte[] random = new byte[4];
+        ThreadLocalRandom.current().nextBytes(random);
+        String kid = "es256-" + Long.toString(activatesAt.getEpochSecond(), 36) + "-" + HexFormat.of().formatHex(random);
+        // 서명은 activatesAt부터 최대 rotationInterval(+확인 주기 지연) 동안, 그 뒤 retention 동안 검증 가능해야 함
+        Instant notAfter = activatesAt.plus(rotationInterval).plus(activationDelay).plus(retention);
+        return new NodeKey(kid, keyPair, activatesAt, notAfter);
+    }
+
+    // 공개키만 게시 : "ES256|만료시각(ms)|X.509 공개키(base64)|HMAC(base64, kid까지 포함)"
+    // Redis에 쓰지 못하면 false (알림 발행만 실패하면 다른 노드는 다음 tick()의 reload로 읽음)
+    private boolean publish(NodeKey key) {
+        String value = SignatureAlgorithm.ES256.getValue() + "|" + key.notAfter().toEpochMilli() + "|"
+                + Base64.getEncoder().encodeToString(key.keyPair().getPublic().getEncoded());
+        if (!redisCircuitBreaker.tryAcquire()) {
+            log.warn("Redis circuit이 열려 있어 새 JWT 서명 키를 게시하지 못했습니다. 지금 키로 계속 서명하고 다음 확인 때 다시 게시합니다.");
+            return false;
+        }
+        try {
+            redisCircuitBreaker.run(() -> stringRedisTemplate.opsForHash().put(KEYS_KEY, key.kid(), value + "|" + mac(key.kid(), value)));
+        } catch (DataAccessException e) {
+            log.warn("새 JWT 서명 키를 게시하지 못했습니다. 지금 키로 계속 서명하고 다음 확인 때 다시 게시합니다. 사유 : {}", e.getMessage());
+            return false;
+        }
+        try {
+            redisCircuitBreaker.run(() -> stringRedisTemplate.convertAndSend(CHANNEL, key.kid()));
+        } catch (DataAccessException e) {
+            log.warn("JWT 키 변경 알림을 발행하지 못했습니다. 다른 노드는 다음 확인 때 읽습니다. 사유 : {}", e.getMessage());
+        }
+        return true;
+    }
+
+    private void activate(NodeKey key) {
+        keyRing.activate(key.kid(), SignatureAlgorithm.ES256, key.keyPair().getPrivate(), key.keyPair().getPublic(), key.notAfter());
+        activatedAt = Instant.now();
+        log.info("JWT 서명 키를 {}(으)로 교체했습니다.", key.kid());
+    }
+
+    // 게시된 공개키를 읽어 검증 키 목록을 교체하고, 만료된 키는 Redis에서도 지움 (HMAC이 맞지 않는 키는 건너뜀)
+    // Redis를 쓸 수 없으면 지금 가진 검증 키를 그대로 사용
+    private void reload() {
+        if (!redisCircuitBreaker.tryAcquire()) {
+            log.debug("Redis circuit이 열려 있어 게시된 JWT 키를 다시 읽지 않았습니다.");
+            return;
+        }
+        Map<Object, Object> entries;
+        try {
+            entries = redisCircuitBreaker.call(() -> stringRedisTemplate.opsForHash().entries(KEYS_KEY));
+        } catch (DataAccessException e) {
+            log.warn("게시된 JWT 키를 Redis에서 읽지 못해 지금 가진 키를 그대로 사용합니다. 사유 : {}", e.getMessage());
+            return;
+        }
+        Instant now = Instant.now();
+        Map<String, JwtKeyRing.VerificationKey> keys = new HashMap<>();
+        List<Object> expired = new ArrayList<>();
+        for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+            String kid = String.valueOf(entry.getKey());
+            String published = String.valueOf(entry.getValue());
+            int macSeparator = published.lastIndexOf('|');
+            if (macSeparator < 0 || !authentic(kid, published.substring(0, macSeparator), published.substring(macSeparator + 1))) {
+                log.warn("게시된 JWT 키 {}의 HMAC이 올바르지 않아 건너뜁니다. (key-publish-secret이 다르거나 위조된 키)", kid);
+                continue;
+            }
+            String[] parts = published.substring(0, macSeparator).split("\\|");
+            try {
+                Instant notAfter = Instant.ofEpochMilli(Long.parseLong(parts[1]));
+                if (!notAfter.isAfter(now)) {
+                    expired.add(kid);
+                    continue;
+                }
+                SignatureAlgorithm algorithm = SignatureAlgorithm.forName(parts[0]);
+                PublicKey publicKey = KeyFactory.getInstance("EC")
+                        .generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(parts[2])));
+                keys.put(kid, new JwtKeyRing.VerificationKey(algorithm, publicKey, notAfter));
+            } catch (GeneralSecurityException | RuntimeException e) {
+                log.warn("게시된 JWT 키 {}를 읽지 못해 건너뜁니다. 사유 : {}", kid, e.getMessage());
+            }
+        }
+        keyRing.replacePublished(keys);
+        if (!expired.isEmpty()) {
+            try {
+                redisCircuitBreaker.run(() -> stringRedisTemplate.opsForHash().delete(KEYS_KEY, expired.toArray()));
+            } catch (DataAccessException e) {
+                log.debug("만료된 JWT 키를 Redis에서 지우지 못했습니다. 다음 확인 때 다시 지웁니다. 사유 : {}", e.getMessage());
+            }
+        }
+    }
+
+    private String mac(String kid, String value) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(publishKey);
+            return Base64.getEncoder().encodeToString(mac.doFinal((kid + "|" + value).getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("게시할 JWT 키의 HMAC을 만들지 못했습니다.", e);
+        }
+    }
+
+    // 상수 시간 비교 (HMAC 값을 한 바이트씩 추측하지 못하도록)
+    private boolean authentic(String kid, String value, String expectedMac) {
+        return MessageDigest.isEqual(mac(kid, value).getBytes(StandardCharsets.US_ASCII),
+                expectedMac.getBytes(StandardCharsets.US_ASCII));
+    }
+}
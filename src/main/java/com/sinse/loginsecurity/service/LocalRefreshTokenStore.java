@@ -0,0 +1,245 @@
+package com.sinse.loginsecurity.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.sinse.loginsecurity.dto.SessionInfo;
+import com.sinse.loginsecurity.service.RefreshTokenStore.RotateResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redis를 쓸 수 없는 동안(circuit OPEN) RefreshTokenStore가 대신 사용하는 노드 로컬 저장소
+ *
+ * - 키와 값(digest)은 Redis와 같음 : auth:{username}:rt:{sid} -> 토큰 digest
+ * - 최대 개수(maxSessions)로 메모리를 제한하며, 넘치면 오래된 세션부터 버림 (그 사용자는 다시 로그인)
+ * - 변경된 세션 키는 사용자별로 dirty에 모아 두고 Redis가 돌아오면 RefreshTokenStore가 현재 상태를 그대로 반영(write-behind)함
+ *   (재발급 전에 그 사용자의 변경만 꺼내 반영하므로, 다른 사용자의 반영 대기 건수와 관계없이 요청당 비용이 일정함)
+ * - 폐기는 값이 없는 항목(tombstone)으로 세션 캐시와 따로 보관해 Redis에 있는 세션도 복구 후 지워지게 함
+ *   (세션 캐시의 크기 제한으로 버려지면 복구 후 폐기한 리프레시 토큰이 다시 통과하므로, 가득 차면 폐기 자체를 거절)
+ */
+final class LocalRefreshTokenStore {
+
+    /**
+     * 로컬에 보관한 세션 하나
+     *
+     * @param digest          토큰 digest (null이면 폐기된 세션)
+     * @param createdAtMillis 로그인 시각
+     * @param expiresAtMillis 만료 시각
+     */
+    record LocalSession(String username, String sessionId, String digest, long createdAtMillis, long expiresAtMillis) {
+        boolean live(long nowMillis) {
+            return digest != null && expiresAtMillis > nowMillis;
+        }
+    }
+
+    private final Cache<String, LocalSession> sessions;
+    // 아직 Redis에 반영하지 않은 세션 키 (username -> 세션 키, tombstone 포함)
+    private final Map<String, Set<String>> dirty = new ConcurrentHashMap<>();
+    // 아직 Redis에 반영하지 않은 폐기 (세션 키 -> tombstone), 최대 maxSessions개
+    private final Map<String, LocalSession> tombstones = new ConcurrentHashMap<>();
+    private final long maxTombstones;
+    // 모든 세션 폐기(revokeAll)를 요청받은 사용자 -> 요청 시각
+    private final Map<String, Long> revokedAll = new ConcurrentHashMap<>();
+    private final Duration tombstoneTtl;
+
+    LocalRefreshTokenStore(long maxSessions, Duration maxTtl) {
+        this.tombstoneTtl = maxTtl;
+        this.maxTombstones = maxSessions;
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maxSessions)
+                .expireAfterWrite(maxTtl)
+                .evictionListener((String key, LocalSession session, RemovalCause cause) -> {
+                    if (session != null && !tombstones.containsKey(key)) {
+                        unmark(session.username(), key);
+                    }
+                })
+                .build();
+    }
+
+    void save(String username, String sessionId, String digest, Duration ttl) {
+        long now = System.currentTimeMillis();
+        String key = RefreshTokenStore.sessionKey(username, sessionId);
+        sessions.put(key, new LocalSession(username, sessionId, digest, now, now + ttl.toMillis()));
+        mark(username, key);
+    }
+
+    // RefreshTokenStore.ROTATE_SCRIPT와 같은 비교 -> 교체 (ConcurrentHashMap.compute로 원자적으로 실행)
+    RotateResult rotate(String username, String sessionId, String oldDigest, String newDigest, Duration ttl) {
+        long now = System.currentTimeMillis();
+        String key = RefreshTokenStore.sessionKey(username, sessionId);
+        RotateResult[] result = {RotateResult.MISSING};
+        sessions.asMap().computeIfPresent(key, (k, current) -> {
+            if (!current.live(now)) {
+                return current;
+            }
+            if (!current.digest().equals(oldDigest)) {
+                result[0] = RotateResult.MISMATCH;
+                return current;
+            }
+            result[0] = RotateResult.ROTATED;
+            return new LocalSession(username, sessionId, newDigest, current.createdAtMillis(), now + ttl.toMillis());
+        });
+        if (result[0] == RotateResult.ROTATED) {
+            mark(username, key);
+        }
+        return result[0];
+    }
+
+    /**
+     * 세션 폐기 : 세션 캐시에서 지우고 tombstone으로 남김
+     * tombstone이 maxSessions개를 넘으면 RedisUnavailableException (버리면 복구 후 폐기한 토큰이 다시 통과하므로 503으로 재시도하게 함)
+     */
+    void revoke(String username, String sessionId) {
+        String key = RefreshTokenStore.sessionKey(username, sessionId);
+        long now = System.currentTimeMillis();
+        if (tombstones.size() >= maxTombstones && !tombstones.containsKey(key)) {
+            tombstones.values().removeIf(tombstone -> tombstone.expiresAtMillis() <= now);
+            if (tombstones.size() >= maxTombstones) {
+                throw new RedisUnavailableException("Redis에 반영하지 못한 세션 폐기가 " + maxTombstones
+                        + "건을 넘어 사용자 '" + username + "'의 세션을 폐기하지 못했습니다.", null);
+            }
+        }
+        tombstones.put(key, new LocalSession(username, sessionId, null, now, now + tombstoneTtl.toMillis()));
+        sessions.invalidate(key);
+        mark(username, key);
+    }
+
+    // 로컬 세션을 모두 지우고, Redis 복구 후 Redis 쪽 세션도 모두 지우도록 기록
+    // (로컬 세션은 모두 반영 대기 중이므로 그 사용자의 dirty만 확인, 개별 폐기도 모든 세션 폐기에 포함됨)
+    int revokeAll(String username) {
+        long now = System.currentTimeMillis();
+        int revoked = 0;
+        Set<String> keys = dirty.remove(username);
+        if (keys != null) {
+            for (String key : keys) {
+                tombstones.remove(key);
+                LocalSession session = sessions.asMap().remove(key);
+                if (session != null && session.live(now)) {
+                    revoked++;
+                }
+            }
+        }
+        revokedAll.put(username, now);
+        return revoked;
+    }
+
+    List<SessionInfo> list(String username, String currentSessionId) {
+        long now = System.currentTimeMillis();
+        List<SessionInfo> result = new ArrayList<>();
+        for (LocalSession session : sessions.asMap().values()) {
+            if (session.username().equals(username) && session.live(now)) {
+                result.add(new SessionInfo(session.sessionId(), Instant.ofEpochMilli(session.createdAtMillis()),
+                        Instant.ofEpochMilli(session.expiresAtMillis()), session.sessionId().equals(currentSessionId)));
+            }
+        }
+        result.sort(Comparator.comparing(SessionInfo::createdAt));
+        return result;
+    }
+
+    // Redis에 아직 반영하지 않은 변경 수 (반영 대기 중인 사용자 수만큼 순회하므로 메트릭, 로그용)
+    int pending() {
+        int pending = revokedAll.size();
+        for (Set<String> keys : dirty.values()) {
+            pending += keys.size();
+        }
+        return pending;
+    }
+
+    boolean hasPending() {
+        return !dirty.isEmpty() || !revokedAll.isEmpty();
+    }
+
+    boolean hasPending(String username) {
+        return dirty.containsKey(username) || revokedAll.containsKey(username);
+    }
+
+    boolean isDirty(String username, String key) {
+        Set<String> keys = dirty.get(username);
+        return keys != null && keys.contains(key);
+    }
+
+    // 반영 대기 중인 사용자
+    Set<String> dirtyUsers() {
+        return Set.copyOf(dirty.keySet());
+    }
+
+    // 사용자 하나의 반영 대기 세션 키
+    Set<String> dirtyKeys(String username) {
+        Set<String> keys = dirty.get(username);
+        return keys == null ? Set.of() : Set.copyOf(keys);
+    }
+
+    Map<String, Long> revokedAllUsers() {
+        return Map.copyOf(revokedAll);
+    }
+
+    // 모든 세션 폐기를 요청받은 시각 (없으면 null)
+    Long revokeAllRequestedAt(String username) {
+        return revokedAll.get(username);
+    }
+
+    // 폐기된 세션이면 tombstone(digest가 null), 아니면 세션 캐시의 값
+    LocalSession get(String key) {
+        LocalSession tombstone = tombstones.get(key);
+        return tombstone != null ? tombstone : sessions.getIfPresent(key);
+    }
+
+    // Redis에 반영한 세션 정리 : 반영하는 사이 다시 바뀌었으면(값이 다르면) 남겨 두고 다음 반영 때 처리
+    void reconciled(String username, String key, LocalSession reconciled) {
+        if (reconciled != null && reconciled.digest() == null) {
+            if (tombstones.remove(key, reconciled)) {
+                unmark(username, key);
+            }
+            return;
+        }
+        if (reconciled == null || sessions.asMap().remove(key, reconciled)) {
+            unmark(username, key);
+        }
+    }
+
+    void revokeAllReconciled(String username, long requestedAt) {
+        revokedAll.remove(username, requestedAt);
+    }
+
+    // Redis에서 직접 처리한 세션의 로컬 기록은 버림 (폐기가 우선)
+    void discard(String username, String key) {
+        sessions.invalidate(key);
+        tombstones.remove(key);
+        unmark(username, key);
+    }
+
+    void discardUser(String username) {
+        Set<String> keys = dirty.remove(username);
+        if (keys != null) {
+            for (String key : keys) {
+                sessions.invalidate(key);
+                tombstones.remove(key);
+            }
+        }
+        revokedAll.remove(username);
+    }
+
+    // 사용자별 dirty 추가/제거는 compute 안에서 실행 (빈 집합을 지우는 사이에 추가한 키가 사라지지 않게 함)
+    private void mark(String username, String key) {
+        dirty.compute(username, (user, keys) -> {
+            Set<String> marked = keys != null ? keys : ConcurrentHashMap.newKeySet();
+            marked.add(key);
+            return marked;
+        });
+    }
+
+    private void unmark(String username, String key) {
+        dirty.computeIfPresent(username, (user, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+}
@@ -0,0 +1,399 @@
+package com.sinse.loginsecurity.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sinse.loginsecurity.util.CircuitBreaker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * /login 시도 제한 : authenticate()(BCrypt 검증) 전에 username별, 클라이언트 IP별로 시도 횟수를 제한
+ * 거절은 해싱, DB 조회 없이 끝나므로 credential stuffing 트래픽이 해싱 풀을 차지하지 못함
+ *
+ * 1. 로컬 (노드별, 락 없음)
+ *    - token bucket을 GCRA(다음 허용 시각 하나)로 구현해 AtomicLong CAS 한 번으로 판단
+ *    - 실패가 free-failures를 넘으면 지수 백오프(base * 2^n, 최대 max)로 username을 잠시 차단
+ *    - 상태는 Caffeine(내부적으로 분할된 ConcurrentHashMap)에 두고 접근이 없으면 만료
+ * 2. Redis (클러스터 전체)
+ *    - 로컬에서 통과한 시도만 sliding window 카운터(현재/이전 고정 창의 가중합)로 한 번 더 확인 (Lua, 왕복 1회)
+ *    - 실패 횟수와 백오프 잠금도 Redis에 두어 다른 노드로 시도를 옮겨도 이어짐
+ *    - Redis 장애 시에는 fail-open : 로컬 판단만으로 허용 (로그인 자체를 막지 않음)
+ *      redisCircuitBreaker가 OPEN이면 Redis를 호출하지 않으므로 로그인마다 타임아웃을 기다리지 않음
+ *
+ * Redis 키 ({...}은 Redis Cluster hash tag, 대상별로 같은 슬롯)
+ * - auth:login:{u:username}:w:{창 번호} / auth:login:{ip:주소}:w:{창 번호} : 창별 시도 횟수
+ * - auth:login:{u:username}:fail : 연속 실패 횟수, auth:login:{u:username}:lock : 백오프 잠금 (TTL = 남은 잠금 시간)
+ */
+@Service
+@Slf4j
+public class LoginThrottle implements MeterBinder {
+
+    static final String KEY_PREFIX = "auth:login:";
+
+    // KEYS[1] = 현재 창 카운터, KEYS[2] = 이전 창 카운터, KEYS[3] = 잠금 키
+    // ARGV[1] = 창당 허용 횟수, ARGV[2] = 이전 창 가중치(‰), ARGV[3] = 창 길이(ms)
+    // 반환 : 0 = 허용(현재 창 +1), -1 = 창 한도 초과, 양수 = 잠금 남은 시간(ms)
+    private static final RedisScript<Long> WINDOW_SCRIPT = new DefaultRedisScript<>("""
+            local locked = redis.call('PTTL', KEYS[3])
+            if locked > 0 then
+                return locked
+            end
+            local previous = tonumber(redis.call('GET', KEYS[2]) or '0')
+            local current = tonumber(redis.call('GET', KEYS[1]) or '0')
+            if previous * tonumber(ARGV[2]) / 1000 + current >= tonumber(ARGV[1]) then
+                return -1
+            end
+            redis.call('INCR', KEYS[1])
+            redis.call('PEXPIRE', KEYS[1], tonumber(ARGV[3]) * 2)
+            return 0
+            """, Long.class);
+
+    // KEYS[1] = 실패 횟수, KEYS[2] = 잠금 키
+    // ARGV[1] = 잠금 없이 허용할 실패 횟수, ARGV[2] = 백오프 기본값(ms), ARGV[3] = 백오프 최대값(ms), ARGV[4] = 실패 횟수 유지 시간(ms)
+    // 반환 : 설정한 잠금 시간(ms, 없으면 0)
+    private static final RedisScript<Long> FAILURE_SCRIPT = new DefaultRedisScript<>("""
+            local failures = redis.call('INCR', KEYS[1])
+            redis.call('PEXPIRE', KEYS[1], ARGV[4])
+            local over = failures - tonumber(ARGV[1])
+            if over <= 0 then
+                return 0
+            end
+            local lock = math.floor(math.min(tonumber(ARGV[2]) * 2 ^ math.min(over - 1, 30), tonumber(ARGV[3])))
+            redis.call('SET', KEYS[2], '1', 'PX', lock)
+            return lock
+            """, Long.class);
+
+    /**
+     * 시도 허용 여부
+     *
+     * @param allowed    true면 authenticate() 진행
+     * @param retryAfter 거절된 경우 다시 시도할 수 있을 때까지의 시간 (Retry-After 헤더)
+     * @param reason     거절 사유 (user_rate, ip_rate, backoff) - 로그, 지표용
+     */
+    public record Decision(boolean allowed, Duration retryAfter, String reason) {
+        static final Decision ALLOWED = new Decision(true, Duration.ZERO, null);
+
+        static Decision rejected(String reason, long retryAfterNanos) {
+            return new Decision(false, Duration.ofNanos(Math.max(retryAfterNanos, 0L)), reason);
+        }
+    }
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CircuitBreaker redisCircuitBreaker;
+    private final boolean enabled;
+    private final boolean redisEnabled;
+    private final Rate userRate;
+    private final Rate ipRate;
+    private final long windowMillis;
+    private final long userWindowLimit;
+    private final long ipWindowLimit;
+    private final int freeFailures;
+    private final long backoffBaseNanos;
+    private final long backoffMaxNanos;
+    private final Duration failureTtl;
+    private final LongSupplier nanoClock;
+    private final Cache<String, LocalState> users;
+    private final Cache<String, LocalState> clients;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejectedLocal = new LongAdder();
+    private final LongAdder rejectedRedis = new LongAdder();
+
+    @Autowired
+    public LoginThrottle(StringRedisTemplate stringRedisTemplate,
+                         CircuitBreaker redisCircuitBreaker,
+                         @Value("${loginsecurity.login-throttle.enabled:true}") boolean enabled,
+                         @Value("${loginsecurity.login-throttle.redis-enabled:true}") boolean redisEnabled,
+                         @Value("${loginsecurity.login-throttle.user-per-minute:10}") double userPerMinute,
+                         @Value("${loginsecurity.login-throttle.user-burst:5}") int userBurst,
+                         @Value("${loginsecurity.login-throttle.ip-per-minute:60}") double ipPerMinute,
+                         @Value("${loginsecurity.login-throttle.ip-burst:20}") int ipBurst,
+                         @Value("${loginsecurity.login-throttle.window:PT1M}") Duration window,
+                         @Value("${loginsecurity.login-throttle.user-window-limit:20}") long userWindowLimit,
+                         @Value("${loginsecurity.login-throttle.ip-window-limit:200}") long ipWindowLimit,
+                         @Value("${loginsecurity.login-throttle.free-failures:3}") int freeFailures,
+                         @Value("${loginsecurity.login-throttle.backoff-base:PT1S}") Duration backoffBase,
+                         @Value("${loginsecurity.login-throttle.backoff-max:PT15M}") Duration backoffMax,
+                         @Value("${loginsecurity.login-throttle.local-max-size:100000}") long localMaxSize) {
+        this(stringRedisTemplate, redisCircuitBreaker, enabled, redisEnabled,
+                new Rate(userPerMinute, userBurst), new Rate(ipPerMinute, ipBurst),
+                window, userWindowLimit, ipWindowLimit, freeFailures, backoffBase, backoffMax, localMaxSize, System::nanoTime);
+    }
+
+    // 시계를 바꿔 끼울 수 있는 생성자 (테스트, 벤치마크용)
+    LoginThrottle(StringRedisTemplate stringRedisTemplate, CircuitBreaker redisCircuitBreaker, boolean enabled, boolean redisEnabled,
+                  Rate userRate, Rate ipRate, Duration window, long userWindowLimit, long ipWindowLimit,
+                  int freeFailures, Duration backoffBase, Duration backoffMax, long localMaxSize, LongSupplier nanoClock) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.enabled = enabled;
+        this.redisEnabled = redisEnabled && stringRedisTemplate != null && redisCircuitBreaker != null;
+        this.userRate = userRate;
+        this.ipRate = ipRate;
+        this.windowMillis = window.toMillis();
+        this.userWindowLimit = userWindowLimit;
+        this.ipWindowLimit = ipWindowLimit;
+        this.freeFailures = freeFailures;
+        this.backoffBaseNanos = backoffBase.toNanos();
+        this.backoffMaxNanos = backoffMax.toNanos();
+        // 백오프가 끝난 뒤에도 한동안은 실패가 이어지면 잠금이 다시 길어지도록 최대 백오프만큼 실패 횟수를 유지
+        this.failureTtl = backoffMax.plus(window);
+        this.nanoClock = nanoClock;
+        // 접근이 없으면 버킷이 가득 찬 상태와 같아지는 시간보다 길게 유지
+        this.users = Caffeine.newBuilder()
+                .expireAfterAccess(failureTtl)
+                .maximumSize(localMaxSize)
+                .build();
+        this.clients = Caffeine.newBuilder()
+                .expireAfterAccess(window.multipliedBy(2))
+                .maximumSize(localMaxSize)
+                .build();
+    }
+
+    // Redis 없이 로컬 판단만 하는 인스턴스 (벤치마크용)
+    public static LoginThrottle localOnly(double userPerMinute, int userBurst, double ipPerMinute, int ipBurst) {
+        return new LoginThrottle(null, null, true, false, new Rate(userPerMinute, userBurst), new Rate(ipPerMinute, ipBurst),
+                Duration.ofMinutes(1), Long.MAX_VALUE, Long.MAX_VALUE, 3, Duration.ofSeconds(1), Duration.ofMinutes(15),
+                100_000, System::nanoTime);
+    }
+
+    /**
+     * authenticate() 전에 호출 : 로컬 판단(메모리) -> 통과한 경우에만 Redis 확인
+     */
+    public Decision check(String username, String clientIp) {
+        if (!enabled) {
+            return Decision.ALLOWED;
+        }
+        String user = username == null ? "" : username;
+        String client = clientIp == null ? "" : clientIp;
+        long now = nanoClock.getAsLong();
+
+        LocalState userState = users.get(user, key -> new LocalState(now));
+        long blockedFor = userState.blockedUntil.get() - now;
+        if (blockedFor > 0) {
+            return rejectLocal("backoff", blockedFor);
+        }
+        // IP를 먼저 확인 : 여러 username을 돌려가며 시도하는 경우 username 버킷을 소모하지 않음
+        long ipWait = clients.get(client, key -> new LocalState(now)).tryAcquire(now, ipRate);
+        if (ipWait > 0) {
+            return rejectLocal("ip_rate", ipWait);
+        }
+        long userWait = userState.tryAcquire(now, userRate);
+        if (userWait > 0) {
+            return rejectLocal("user_rate", userWait);
+        }
+
+        if (redisEnabled) {
+            Decision decision = checkRedis(user, client);
+            if (!decision.allowed()) {
+                rejectedRedis.increment();
+                return decision;
+            }
+        }
+        allowed.increment();
+        return Decision.ALLOWED;
+    }
+
+    // 로그인 실패 (잘못된 비밀번호, 없는 사용자) : free-failures를 넘으면 지수 백오프로 잠금
+    public void onFailure(String username) {
+        if (!enabled) {
+            return;
+        }
+        String user = username == null ? "" : username;
+        long now = nanoClock.getAsLong();
+        LocalState state = users.get(user, key -> new LocalState(now));
+        int failures = state.failures.incrementAndGet();
+        long lockNanos = backoffNanos(failures);
+        if (lockNanos > 0) {
+            state.blockedUntil.accumulateAndGet(now + lockNanos, Math::max);
+        }
+        if (redisEnabled && redisCircuitBreaker.tryAcquire()) {
+            try {
+                redisCircuitBreaker.run(() -> stringRedisTemplate.execute(FAILURE_SCRIPT, List.of(failuresKey(user), lockKey(user)),
+                        String.valueOf(freeFailures), String.valueOf(TimeUnit.NANOSECONDS.toMillis(backoffBaseNanos)),
+                        String.valueOf(TimeUnit.NANOSECONDS.toMillis(backoffMaxNanos)), String.valueOf(failureTtl.toMillis())));
+            } catch (DataAccessException e) {
+                log.warn("로그인 실패 횟수를 Redis에 기록하지 못했습니다. 사유 : {}", e.getMessage());
+            }
+        }
+    }
+
+    // 로그인 성공 : 연속 실패 횟수를 초기화 (다른 노드에서 쌓인 실패도 지우도록 Redis는 항상 삭제, BCrypt에 비하면 무시할 비용)
+    public void onSuccess(String username) {
+        if (!enabled) {
+            return;
+        }
+        String user = username == null ? "" : username;
+        LocalState state = users.getIfPresent(user);
+        if (state != null) {
+            state.failures.set(0);
+        }
+        if (redisEnabled && redisCircuitBreaker.tryAcquire()) {
+            try {
+                redisCircuitBreaker.run(() -> stringRedisTemplate.delete(failuresKey(user)));
+            } catch (DataAccessException e) {
+                log.warn("로그인 실패 횟수를 Redis에서 지우지 못했습니다. 사유 : {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("auth.login.throttle", allowed, LongAdder::sum)
+                .tag("result", "allowed")
+                .register(registry);
+        FunctionCounter.builder("auth.login.throttle", rejectedLocal, LongAdder::sum)
+                .tag("result", "rejected_local")
+                .register(registry);
+        FunctionCounter.builder("auth.login.throttle", rejectedRedis, LongAdder::sum)
+                .tag("result", "rejected_redis")
+                .register(registry);
+    }
+
+    // username, IP 두 창을 pipeline으로 한 번에 확인 (대상별 hash tag가 달라 스크립트 하나로 묶지 않음)
+    private Decision checkRedis(String user, String client) {
+        if (!redisCircuitBreaker.tryAcquire()) {
+            return Decision.ALLOWED;
+        }
+        long nowMillis = System.currentTimeMillis();
+        long window = nowMillis / windowMillis;
+        // 이전 창은 현재 창에서 지난 비율만큼 덜 반영 (창 경계에서 한도가 두 배가 되지 않게 함)
+        long previousWeight = 1000 - (nowMillis % windowMillis) * 1000 / windowMillis;
+        List<Object> results;
+        try {
+            results = redisCircuitBreaker.call(() -> stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    @SuppressWarnings("unchecked")
+                    RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+                    redis.execute(WINDOW_SCRIPT, List.of(windowKey("u:" + user, window), windowKey("u:" + user, window - 1), lockKey(user)),
+                            String.valueOf(userWindowLimit), String.valueOf(previousWeight), String.valueOf(windowMillis));
+                    redis.execute(WINDOW_SCRIPT, List.of(windowKey("ip:" + client, window), windowKey("ip:" + client, window - 1), KEY_PREFIX + "{ip:" + client + "}:lock"),
+                            String.valueOf(ipWindowLimit), String.valueOf(previousWeight), String.valueOf(windowMillis));
+                    return null;
+                }
+            }));
+        } catch (DataAccessException e) {
+            // Redis를 쓸 수 없으면 로컬 판단만으로 허용 (로컬 버킷과 백오프는 계속 동작)
+            log.warn("로그인 시도 횟수를 Redis에서 확인하지 못해 로컬 판단으로 허용합니다. 사유 : {}", e.getMessage());
+            return Decision.ALLOWED;
+        }
+        long untilNextWindow = TimeUnit.MILLISECONDS.toNanos(windowMillis - nowMillis % windowMillis);
+        Decision userDecision = toDecision(results.get(0), "user", untilNextWindow);
+        return userDecision.allowed() ? toDecision(results.get(1), "ip", untilNextWindow) : userDecision;
+    }
+
+    private static Decision toDecision(Object result, String subject, long untilNextWindowNanos) {
+        long value = result instanceof Number number ? number.longValue() : 0L;
+        if (value == 0) {
+            return Decision.ALLOWED;
+        }
+        return value < 0
+                ? Decision.rejected(subject + "_window", untilNextWindowNanos)
+                : Decision.rejected("backoff", TimeUnit.MILLISECONDS.toNanos(value));
+    }
+
+    private Decision rejectLocal(String reason, long waitNanos) {
+        rejectedLocal.increment();
+        return Decision.rejected(reason, waitNanos);
+    }
+
+    // 연속 실패 횟수에 따른 잠금 시간 : free-failures까지는 0, 이후 base, 2*base, 4*base ... (최대 backoff-max)
+    long backoffNanos(int failures) {
+        int over = failures - freeFailures;
+        if (over <= 0) {
+            return 0L;
+        }
+        int shift = Math.min(over - 1, 30);
+        long lock = backoffBaseNanos << shift;
+        return lock < 0 || lock > backoffMaxNanos ? backoffMaxNanos : lock;
+    }
+
+    private static String windowKey(String subject, long window) {
+        return KEY_PREFIX + "{" + subject + "}:w:" + window;
+    }
+
+    private static String failuresKey(String username) {
+        return KEY_PREFIX + "{u:" + username + "}:fail";
+    }
+
+    private static String lockKey(String username) {
+        return KEY_PREFIX + "{u:" + username + "}:lock";
+    }
+
+    /**
+     * token bucket 설정
+     *
+     * @param perMinute 분당 채워지는 시도 수
+     * @param burst     한 번에 허용하는 최대 시도 수 (버킷 크기)
+     */
+    record Rate(double perMinute, int burst) {
+        Rate {
+            if (perMinute <= 0 || burst < 1) {
+                throw new IllegalArgumentException("perMinute는 0보다 크고 burst는 1 이상이어야 합니다.");
+            }
+        }
+
+        // 시도 하나가 채워지는 간격(ns)
+        long intervalNanos() {
+            return (long) (TimeUnit.MINUTES.toNanos(1) / perMinute);
+        }
+
+        // 버킷이 가득 찼을 때 tat가 현재 시각보다 앞설 수 있는 최대 시간 (burst 개까지 연속 허용)
+        long toleranceNanos() {
+            long interval = intervalNanos();
+            return interval > Long.MAX_VALUE / burst ? Long.MAX_VALUE / 2 : interval * burst;
+        }
+    }
+
+    /**
+     * 대상(username, IP) 하나의 로컬 상태
+     * token bucket은 GCRA로 구현 : "이론상 다음 도착 시각(tat)" 하나만 두고 CAS로 갱신 (락, 부동소수점 없음)
+     */
+    static final class LocalState {
+        private final AtomicLong tat;
+        private final AtomicLong blockedUntil;
+        private final AtomicInteger failures = new AtomicInteger();
+
+        LocalState(long now) {
+            this.tat = new AtomicLong(now);
+            this.blockedUntil = new AtomicLong(now);
+        }
+
+        // 허용되면 0, 아니면 다시 시도할 수 있을 때까지의 시간(ns)
+        long tryAcquire(long now, Rate rate) {
+            long interval = rate.intervalNanos();
+            long tolerance = rate.toleranceNanos();
+            while (true) {
+                long current = tat.get();
+                long next = Math.max(current, now) + interval;
+                long wait = next - now - tolerance;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (tat.compareAndSet(current, next)) {
+                    return 0L;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.sinse.loginsecurity.service;
+
+/**
+ * Redis 없이는 처리할 수 없는 요청(보안 epoch 올리기 등)을 Redis 장애 중에 받았을 때 발생하는 예외
+ * AuthExceptionHandler에서 503(Service Unavailable)으로 변환됨
+ */
+public class RedisUnavailableException extends RuntimeException {
+
+    public RedisUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
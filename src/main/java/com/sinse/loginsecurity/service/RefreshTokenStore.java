@@ -0,0 +1,420 @@
+package com.sinse.loginsecurity.service;
+
+import com.sinse.loginsecurity.dto.SessionInfo;
+import com.sinse.loginsecurity.util.CircuitBreaker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 사용자별, 로그인 세션(기기)별 리프레시 토큰을 Redis에 저장/교체/폐기하는 저장소
+ *
+ * Redis 키 구성 (모두 "auth:" 네임스페이스, {username}은 Redis Cluster에서 같은 슬롯에 두기 위한 hash tag)
+ * - auth:{username}:rt:{sid}   : 세션별 리프레시 토큰의 SHA-256 digest (세션마다 TTL)
+ * - auth:{username}:sessions   : 세션 목록 hash (sid -> 로그인 시각 ms)
+ *
+ * - 토큰 원문 대신 digest(base64url, 43자)만 저장 -> 사용자당 메모리가 줄고, Redis가 유출되어도 토큰을 재사용할 수 없음
+ * - 로그인/재발급은 Lua 스크립트 한 번(왕복 1회)으로 처리하며, 재발급의 "비교 -> 교체"는 Redis 안에서 원자적으로 실행됨
+ * - 전체 폐기는 세션 목록 조회 1회 + 다중 키 DEL 1회로 처리 (세션 수만큼 왕복하지 않음)
+ * - 스크립트와 키 규칙은 WebFlux 버전(ReactiveRefreshTokenStore)도 그대로 사용하므로 public
+ *
+ * Redis 장애 대응 (degraded mode)
+ * - 모든 Redis 호출은 circuit breaker를 거침 : 연속 실패가 쌓이면 open-duration 동안 Redis를 호출하지 않음
+ *   (Lettuce 타임아웃은 RedisConfig에서 짧게 설정) -> 장애 중에도 로그인 지연이 타임아웃만큼 쌓이지 않음
+ * - 그동안 저장/교체/폐기는 노드 로컬 저장소(LocalRefreshTokenStore, 최대 개수 제한)에서 처리
+ *   장애 전에 Redis에만 저장된 세션은 확인할 수 없으므로 재발급이 거절되고(MISSING), 사용자는 다시 로그인함
+ * - Redis가 돌아오면 로컬에서 바뀐 세션을 Redis에 반영(write-behind)하고 로컬 기록을 지움 (reconcile)
+ */
+@Service
+@Slf4j
+public class RefreshTokenStore implements MeterBinder {
+
+    static final String KEY_PREFIX = "auth:";
+
+    // KEYS[1] = 세션 키, KEYS[2] = 세션 목록, ARGV[1] = 토큰 digest, ARGV[2] = TTL(ms), ARGV[3] = sid, ARGV[4] = 로그인 시각(ms)
+    // 세션 목록의 TTL은 가장 늦게 만료되는 세션에 맞춰 늘림
+    public static final RedisScript<Long> SAVE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            redis.call('HSET', KEYS[2], ARGV[3], ARGV[4])
+            if redis.call('PTTL', KEYS[2]) < tonumber(ARGV[2]) then
+                redis.call('PEXPIRE', KEYS[2], ARGV[2])
+            end
+            return 1
+            """, Long.class);
+
+    // KEYS[1] = 세션 키, KEYS[2] = 세션 목록, KEYS[3] = 직전 토큰 키
+    // ARGV[1] = 기존 토큰 digest, ARGV[2] = 새 토큰 digest, ARGV[3] = TTL(ms), ARGV[4] = sid, ARGV[5] = 유예 시간(ms, 0이면 사용 안 함)
+    // 반환 : 1 = 교체 성공, 2 = 방금 교체된 직전 토큰(유예 시간 이내), 0 = 저장된 값과 불일치, -1 = 저장된 값 없음(만료, 폐기)
+    // 세션 목록에 없는 세션(전체 폐기 도중 남은 키)은 폐기된 것으로 봄
+    // 교체할 때 기존 digest를 직전 토큰 키에 유예 시간만큼 남겨 둠 -> 여러 탭이 같은 토큰으로 동시에 재발급해도 늦은 요청이 401을 받지 않음
+    public static final RedisScript<Long> ROTATE_SCRIPT = new DefaultRedisScript<>("""
+            local current = redis.call('GET', KEYS[1])
+            if not current or redis.call('HEXISTS', KEYS[2], ARGV[4]) == 0 then
+                return -1
+            end
+            if current ~= ARGV[1] then
+                if tonumber(ARGV[5]) > 0 and redis.call('GET', KEYS[3]) == ARGV[1] then
+                    return 2
+                end
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            if tonumber(ARGV[5]) > 0 then
+                redis.call('SET', KEYS[3], ARGV[1], 'PX', ARGV[5])
+            end
+            if redis.call('PTTL', KEYS[2]) < tonumber(ARGV[3]) then
+                redis.call('PEXPIRE', KEYS[2], ARGV[3])
+            end
+            return 1
+            """, Long.class);
+
+    /**
+     * 재발급(rotate) 결과
+     * GRACE : 방금 다른 요청이 교체한 직전 토큰 (유예 시간 이내) -> 세션은 그대로 두고 액세스 토큰만 새로 발급
+     */
+    public enum RotateResult {
+        ROTATED, GRACE, MISMATCH, MISSING;
+
+        // ROTATE_SCRIPT 반환값 변환 (WebFlux 버전도 사용)
+        public static RotateResult of(Long result) {
+            if (result == null || result < 0) {
+                return MISSING;
+            }
+            return result == 1 ? ROTATED : result == 2 ? GRACE : MISMATCH;
+        }
+    }
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final LocalRefreshTokenStore local;
+    private final LongAdder fallbacks = new LongAdder();
+    private final Duration reuseGrace;
+
+    public RefreshTokenStore(StringRedisTemplate stringRedisTemplate,
+                             @Value("${loginsecurity.reissue.grace:PT10S}") Duration reuseGrace,
+                             @Value("${loginsecurity.refresh-store.failure-threshold:3}") int failureThreshold,
+                             @Value("${loginsecurity.refresh-store.open-duration:PT5S}") Duration openDuration,
+                             @Value("${loginsecurity.refresh-store.local-max-sessions:100000}") long localMaxSessions,
+                             @Value("${loginsecurity.refresh-store.local-ttl:PT24H}") Duration localTtl) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.reuseGrace = reuseGrace;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+        this.local = new LocalRefreshTokenStore(localMaxSessions, localTtl);
+    }
+
+    // 로그인마다 새 세션 id 발급 (리프레시 토큰의 sid 클레임)
+    public String newSessionId() {
+        return UUID.randomUUID().toString();
+    }
+
+    // 로그인 시 새 세션의 리프레시 토큰 저장 (다른 기기의 세션은 그대로 유지됨)
+    public void save(String username, String sessionId, String refreshToken, Duration ttl) {
+        String digest = digest(refreshToken);
+        withRedis("save", () -> {
+            redisSave(username, sessionId, digest, ttl.toMillis(), System.currentTimeMillis());
+            return null;
+        }, () -> {
+            local.save(username, sessionId, digest, ttl);
+            return null;
+        });
+    }
+
+    /**
+     * 세션에 저장된 토큰이 oldRefreshToken과 같을 때만 newRefreshToken으로 교체
+     * 비교와 교체가 Redis 안에서 원자적으로 실행되므로 동시 요청 중 하나만 ROTATED를 받고,
+     * 유예 시간(loginsecurity.reissue.grace) 안에 같은 oldRefreshToken으로 온 나머지 요청은 GRACE를 받음
+     * (Redis 장애로 로컬 저장소를 쓰는 동안에는 유예 없이 MISMATCH)
+     */
+    public RotateResult rotate(String username, String sessionId, String oldRefreshToken, String newRefreshToken, Duration ttl) {
+        String oldDigest = digest(oldRefreshToken);
+        String newDigest = digest(newRefreshToken);
+        return withRedis("rotate", () -> {
+            // 장애 중 로컬에서 바꾼 이 사용자의 세션(교체, 폐기)이 남아 있으면 먼저 Redis에 반영한 뒤 비교
+            if (local.hasPending(username)) {
+                reconcileUser(username);
+            }
+            return RotateResult.of(stringRedisTemplate.execute(ROTATE_SCRIPT, rotateKeys(username, sessionId),
+                    oldDigest, newDigest, String.valueOf(ttl.toMillis()), sessionId, String.valueOf(reuseGrace.toMillis())));
+        }, () -> local.rotate(username, sessionId, oldDigest, newDigest, ttl));
+    }
+
+    /**
+     * 사용자의 살아있는 세션 목록 (로그인 시각 순)
+     * 세션 목록 조회 1회 + 세션별 남은 TTL을 pipeline으로 1회 조회하고, 이미 만료된 세션은 목록에서 정리함
+     */
+    public List<SessionInfo> list(String username, String currentSessionId) {
+        return withRedis("list", () -> {
+            if (local.hasPending(username)) {
+                reconcileUser(username);
+            }
+            return redisList(username, currentSessionId);
+        }, () -> local.list(username, currentSessionId));
+    }
+
+    private List<SessionInfo> redisList(String username, String currentSessionId) {
+        Map<Object, Object> sessions = stringRedisTemplate.opsForHash().entries(sessionsKey(username));
+        if (sessions.isEmpty()) {
+            return List.of();
+        }
+        List<String> sessionIds = sessions.keySet().stream().map(String::valueOf).toList();
+        List<Object> ttls = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                @SuppressWarnings("unchecked")
+                RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+                for (String sessionId : sessionIds) {
+                    redis.getExpire(sessionKey(username, sessionId));
+                }
+                return null;
+            }
+        });
+
+        Instant now = Instant.now();
+        List<SessionInfo> result = new ArrayList<>(sessionIds.size());
+        List<Object> expired = new ArrayList<>();
+        for (int i = 0; i < sessionIds.size(); i++) {
+            String sessionId = sessionIds.get(i);
+            long ttlSeconds = ttls.get(i) instanceof Number number ? number.longValue() : -2L;
+            if (ttlSeconds < 0) {
+                // -2 : 키 없음(만료, 폐기) / -1 : TTL 없음(있을 수 없는 상태) -> 목록에서 제거
+                expired.add(sessionId);
+                continue;
+            }
+            Instant createdAt = Instant.ofEpochMilli(Long.parseLong(String.valueOf(sessions.get(sessionId))));
+            result.add(new SessionInfo(sessionId, createdAt, now.plusSeconds(ttlSeconds), sessionId.equals(currentSessionId)));
+        }
+        if (!expired.isEmpty()) {
+            stringRedisTemplate.opsForHash().delete(sessionsKey(username), expired.toArray());
+        }
+        result.sort(Comparator.comparing(SessionInfo::createdAt));
+        return result;
+    }
+
+    // 세션 하나 폐기 (로그아웃, 다른 기기 로그아웃) : 두 명령을 pipeline으로 한 번에 전송
+    // Redis 장애 중 반영 대기 폐기가 local-max-sessions건을 넘으면 RedisUnavailableException(503)
+    public void revoke(String username, String sessionId) {
+        withRedis("revoke", () -> {
+            redisRevoke(username, sessionId);
+            local.discard(username, sessionKey(username, sessionId));
+            return null;
+        }, () -> {
+            local.revoke(username, sessionId);
+            return null;
+        });
+        log.debug("사용자 '{}'의 세션 {}을(를) 폐기했습니다.", username, sessionId);
+    }
+
+    private void redisRevoke(String username, String sessionId) {
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                @SuppressWarnings("unchecked")
+                RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+                redis.delete(sessionKey(username, sessionId));
+                redis.opsForHash().delete(sessionsKey(username), sessionId);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * 사용자의 모든 세션 폐기 (모든 기기에서 로그아웃)
+     * 세션 목록 조회 1회 + 모든 세션 키와 세션 목록 삭제를 DEL 1회로 처리
+     * 조회와 삭제 사이에 로그인한 세션은 키가 남을 수 있지만, 세션 목록에서 빠졌으므로 재발급(rotate)에 사용할 수 없음
+     */
+    public int revokeAll(String username) {
+        return withRedis("revokeAll", () -> {
+            int revoked = redisRevokeAll(username);
+            if (local.hasPending(username)) {
+                local.discardUser(username);
+            }
+            return revoked;
+        }, () -> local.revokeAll(username));
+    }
+
+    private int redisRevokeAll(String username) {
+        Set<Object> sessionIds = stringRedisTemplate.opsForHash().keys(sessionsKey(username));
+        List<String> keys = new ArrayList<>(sessionIds.size() + 1);
+        for (Object sessionId : sessionIds) {
+            keys.add(sessionKey(username, String.valueOf(sessionId)));
+        }
+        keys.add(sessionsKey(username));
+        // 모든 키가 같은 hash tag({username})를 가지므로 Cluster에서도 DEL 명령 하나로 삭제 가능
+        stringRedisTemplate.delete(keys);
+        log.debug("사용자 '{}'의 세션 {}개를 모두 폐기했습니다.", username, sessionIds.size());
+        return sessionIds.size();
+    }
+
+    /**
+     * 장애 중 로컬에 쌓인 변경을 Redis에 반영 (write-behind)
+     * 모든 세션 폐기를 먼저 반영한 뒤, 세션별로 로컬의 현재 상태(저장/교체된 digest 또는 폐기)를 그대로 덮어씀
+     * 반영할 것이 있을 때만 Redis를 호출하며, circuit이 OPEN이면 open-duration이 지난 뒤의 시험 호출로도 쓰임
+     */
+    @Scheduled(fixedDelayString = "${loginsecurity.refresh-store.reconcile-ms:1000}")
+    public void reconcile() {
+        if (!local.hasPending() || !circuitBreaker.tryAcquire()) {
+            return;
+        }
+        int before = local.pending();
+        boolean recovering = circuitBreaker.state() != CircuitBreaker.State.CLOSED;
+        try {
+            circuitBreaker.run(() -> {
+                local.revokedAllUsers().forEach((username, requestedAt) -> {
+                    redisRevokeAll(username);
+                    local.revokeAllReconciled(username, requestedAt);
+                });
+                for (String username : local.dirtyUsers()) {
+                    for (String key : local.dirtyKeys(username)) {
+                        flush(username, key);
+                    }
+                }
+            });
+            succeeded(recovering);
+            log.info("Redis 장애 중 로컬에 저장한 리프레시 토큰 변경 {}건을 Redis에 반영했습니다.", before - local.pending());
+        } catch (DataAccessException e) {
+            failed("reconcile", recovering, e);
+        }
+    }
+
+    // 현재 circuit 상태 (OPEN이면 로컬 저장소 사용 중) : 관리, 테스트용
+    public CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    // 아직 Redis에 반영하지 못한 로컬 변경 수
+    public int pendingReconciliation() {
+        return local.pending();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("auth.refresh_store.circuit", circuitBreaker, breaker -> breaker.state().ordinal())
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .register(registry);
+        Gauge.builder("auth.refresh_store.pending", local, LocalRefreshTokenStore::pending)
+                .register(registry);
+        FunctionCounter.builder("auth.refresh_store.fallback", fallbacks, LongAdder::sum)
+                .register(registry);
+    }
+
+    /**
+     * circuit이 허용하면 Redis에서 실행하고, 허용하지 않거나 Redis 호출이 실패하면 로컬 저장소에서 실행
+     */
+    private <T> T withRedis(String operation, Supplier<T> redis, Supplier<T> fallback) {
+        if (circuitBreaker.tryAcquire()) {
+            boolean recovering = circuitBreaker.state() != CircuitBreaker.State.CLOSED;
+            try {
+                T result = circuitBreaker.call(redis);
+                succeeded(recovering);
+                return result;
+            } catch (DataAccessException e) {
+                failed(operation, recovering, e);
+            }
+        }
+        fallbacks.increment();
+        return fallback.get();
+    }
+
+    // call()이 이미 결과를 기록했으므로 상태 변화에 따른 로그만 남김
+    private void succeeded(boolean recovering) {
+        if (recovering) {
+            log.info("Redis가 복구되어 리프레시 토큰 저장소를 Redis로 되돌립니다. (반영 대기 {}건)", local.pending());
+        }
+    }
+
+    private void failed(String operation, boolean recovering, DataAccessException e) {
+        if (!recovering && circuitBreaker.state() != CircuitBreaker.State.CLOSED) {
+            log.warn("Redis 호출({})이 계속 실패하여 리프레시 토큰을 로컬 저장소에 보관합니다. 사유 : {}", operation, e.getMessage());
+        } else {
+            log.debug("Redis 호출({}) 실패 : {}", operation, e.getMessage());
+        }
+    }
+
+    private void redisSave(String username, String sessionId, String digest, long ttlMillis, long createdAtMillis) {
+        stringRedisTemplate.execute(SAVE_SCRIPT, List.of(sessionKey(username, sessionId), sessionsKey(username)),
+                digest, String.valueOf(ttlMillis), sessionId, String.valueOf(createdAtMillis));
+    }
+
+    // 로컬에 남은 세션 하나의 현재 상태를 Redis에 반영 (로컬에 없으면 아무것도 하지 않음)
+    private void flush(String username, String key) {
+        if (!local.isDirty(username, key)) {
+            return;
+        }
+        LocalRefreshTokenStore.LocalSession session = local.get(key);
+        if (session != null) {
+            long remaining = session.expiresAtMillis() - System.currentTimeMillis();
+            if (session.digest() == null) {
+                redisRevoke(session.username(), session.sessionId());
+            } else if (remaining > 0) {
+                redisSave(session.username(), session.sessionId(), session.digest(), remaining, session.createdAtMillis());
+            }
+        }
+        local.reconciled(username, key, session);
+    }
+
+    // 재발급, 세션 목록 조회 전에 해당 사용자의 로컬 변경만 먼저 반영 (다른 사용자의 반영 대기 건은 보지 않음)
+    private void reconcileUser(String username) {
+        Long requestedAt = local.revokeAllRequestedAt(username);
+        if (requestedAt != null) {
+            redisRevokeAll(username);
+            local.revokeAllReconciled(username, requestedAt);
+        }
+        for (String key : local.dirtyKeys(username)) {
+            flush(username, key);
+        }
+    }
+
+    public static String sessionKey(String username, String sessionId) {
+        return KEY_PREFIX + "{" + username + "}:rt:" + sessionId;
+    }
+
+    // 교체 직후 유예 시간 동안 직전 토큰 digest를 두는 키
+    public static String previousKey(String username, String sessionId) {
+        return sessionKey(username, sessionId) + ":prev";
+    }
+
+    // ROTATE_SCRIPT의 KEYS (모두 같은 hash tag)
+    public static List<String> rotateKeys(String username, String sessionId) {
+        return List.of(sessionKey(username, sessionId), sessionsKey(username), previousKey(username, sessionId));
+    }
+
+    public static String sessionsKey(String username) {
+        return KEY_PREFIX + "{" + username + "}:sessions";
+    }
+
+    public static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // 모든 JVM은 SHA-256을 지원해야 함
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.sinse.loginsecurity.service;
+
+import com.sinse.loginsecurity.service.RefreshTokenStore.RotateResult;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 같은 리프레시 토큰으로 동시에 들어온 /reissue 요청을 노드 안에서 하나로 묶음 (single-flight)
+ *
+ * 액세스 토큰이 만료되면 열린 탭마다 거의 동시에 /reissue를 호출하는데, 각 요청이 JWT 서명과 Redis 교체를 따로 하면
+ * 하나만 성공하고 나머지는 불일치(401)가 됨
+ * - 리프레시 토큰 digest를 키로 첫 요청만 재발급을 실행하고, 실행 중에 온 요청은 그 결과의 액세스 토큰만 받음
+ *   (새 리프레시 토큰은 실행한 요청의 응답 쿠키로만 전달 -> 같은 토큰을 두 응답이 나눠 갖지 않음)
+ * - 결과는 남겨 두지 않음 : 재발급이 끝난 뒤에 온 요청은 RefreshTokenStore.ROTATE_SCRIPT로 가서
+ *   세션이 살아 있고 유예 시간(loginsecurity.reissue.grace) 이내일 때만 직전 토큰 유예(GRACE, 액세스 토큰만 발급)를 받음
+ *   -> 그 사이 로그아웃(세션 폐기)했다면 거절됨. 다른 노드로 간 요청도 같은 방식으로 처리됨
+ *
+ * 대기는 CompletableFuture로 하므로 가상 스레드에서도 캐리어 스레드를 고정하지 않음
+ */
+@Component
+public class ReissueCoalescer implements MeterBinder {
+
+    /**
+     * 재발급 결과
+     *
+     * @param result       Redis 교체 결과
+     * @param accessToken  새 액세스 토큰 (발급하지 않았으면 null)
+     * @param refreshToken 새 리프레시 토큰 (교체하지 않았거나 다른 요청의 결과를 받았으면 null -> 쿠키를 바꾸지 않음)
+     * @param shared       다른 요청이 실행한 결과를 받았는지
+     */
+    public record Reissued(RotateResult result, String accessToken, String refreshToken, boolean shared) {
+
+        public static Reissued rejected(RotateResult result) {
+            return new Reissued(result, null, null, false);
+        }
+
+        public boolean issued() {
+            return accessToken != null;
+        }
+    }
+
+    // 유예 시간이 0이면 묶지 않고 요청마다 실행 (리프레시 토큰을 엄격하게 한 번만 사용)
+    private final boolean enabled;
+    // 실행 중인 재발급만 보관 (리프레시 토큰 digest -> 결과), 끝나면 바로 제거
+    private final ConcurrentHashMap<String, CompletableFuture<Reissued>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    public ReissueCoalescer(@Value("${loginsecurity.reissue.grace:PT10S}") Duration grace) {
+        this.enabled = !grace.isZero() && !grace.isNegative();
+    }
+
+    /**
+     * oldRefreshToken으로 실행 중인 재발급이 있으면 그 결과(액세스 토큰만)를, 없으면 rotation을 실행한 결과를 반환
+     * rotation은 호출한 스레드에서 실행되며, 예외는 함께 기다리던 요청에도 그대로 전달됨
+     */
+    public Reissued reissue(String oldRefreshToken, Supplier<Reissued> rotation) {
+        if (!enabled) {
+            return rotation.get();
+        }
+        String key = RefreshTokenStore.digest(oldRefreshToken);
+        CompletableFuture<Reissued> mine = new CompletableFuture<>();
+        CompletableFuture<Reissued> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            Reissued reissued = join(running);
+            return reissued.issued() ? new Reissued(reissued.result(), reissued.accessToken(), null, true) : reissued;
+        }
+
+        Reissued reissued;
+        try {
+            reissued = rotation.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+        // 끝난 뒤에 온 요청은 묶지 않음 (ROTATE_SCRIPT에서 세션과 유예 시간을 다시 확인)
+        inFlight.remove(key, mine);
+        mine.complete(reissued);
+        return reissued;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("auth.reissue.coalesced", coalesced, LongAdder::sum)
+                .description("reissue requests answered with the result of a concurrent request")
+                .register(registry);
+    }
+
+    private static Reissued join(CompletableFuture<Reissued> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
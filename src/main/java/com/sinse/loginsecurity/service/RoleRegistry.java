@@ -0,0 +1,156 @@
+package com.sinse.loginsecurity.service;
+
+import com.sinse.loginsecurity.config.ReplicaDataSource;
+import com.sinse.loginsecurity.domain.Role;
+import com.sinse.loginsecurity.repository.JpaRoleRepository;
+import com.sinse.loginsecurity.util.RoleCodes;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * role 테이블 전체를 시작 시 메모리에 올려두는 역할 저장소
+ * role은 행이 몇 개 안 되고 거의 바뀌지 않으므로, 회원가입/로그인/인증 요청마다 조회하지 않고 여기서 꺼내 씀
+ *
+ * - 역할별 GrantedAuthority("ROLE_" + roleName)와 그 목록을 한 번만 만들어 공유 (요청마다 새로 만들지 않음)
+ * - 조회용 Map은 불변이며, 갱신 시에는 새 Map을 만들어 통째로 교체하므로 읽을 때 락이 필요 없음
+ * - 역할이 바뀌면 refresh()를 호출 -> Redis pub/sub으로 다른 노드도 다시 읽어옴
+ * - JWT compact 프로필의 역할 코드(role_id) 변환도 담당 (RoleCodes)
+ * - 다시 읽을 때 Role 2차 캐시(노드별)도 비워, 다른 노드에서 바뀐 역할이 프록시 초기화 등에서 예전 값으로 보이지 않게 함
+ */
+@Service
+@Slf4j
+public class RoleRegistry implements MessageListener, RoleCodes {
+
+    static final String CHANNEL = "auth:role-changed";
+
+    private final JpaRoleRepository jpaRoleRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public RoleRegistry(JpaRoleRepository jpaRoleRepository,
+                        StringRedisTemplate stringRedisTemplate,
+                        RedisMessageListenerContainer redisMessageListenerContainer,
+                        EntityManagerFactory entityManagerFactory) {
+        this.jpaRoleRepository = jpaRoleRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    // 애플리케이션이 준비되면 한 번 읽어둠 (그 전에 요청이 오면 snapshot()에서 읽음)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (entityManagerFactory != null) {
+            entityManagerFactory.getCache().evict(Role.class);
+        }
+        replace(jpaRoleRepository.findAll());
+    }
+
+    // 역할을 추가/변경한 뒤 호출 : 현재 노드를 다시 읽고 다른 노드에도 알림
+    public void refresh() {
+        // 방금 바뀐 역할을 읽어야 하므로 복제본이 아닌 primary에서 읽음
+        ReplicaDataSource.runOnPrimary(this::load);
+        stringRedisTemplate.convertAndSend(CHANNEL, "refresh");
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        ReplicaDataSource.runOnPrimary(this::load);
+    }
+
+    // 조회용 Map을 새로 만들어 교체 (테스트, 벤치마크에서 DB 없이 채울 때도 사용)
+    public void replace(Collection<Role> roles) {
+        Map<String, Entry> byName = new HashMap<>();
+        Map<Integer, Entry> byId = new HashMap<>();
+        Map<String, Entry> byAuthority = new HashMap<>();
+        for (Role role : roles) {
+            Entry entry = new Entry(role, new SimpleGrantedAuthority("ROLE_" + role.getRoleName()));
+            byName.put(role.getRoleName(), entry);
+            byId.put(role.getRoleId(), entry);
+            byAuthority.put(entry.authority().getAuthority(), entry);
+        }
+        snapshot = new Snapshot(Map.copyOf(byName), Map.copyOf(byId), Map.copyOf(byAuthority));
+        log.debug("역할 {}개를 메모리에 올렸습니다. {}", byName.size(), byName.keySet());
+    }
+
+    // 역할 이름(USER, ADMIN ...)으로 조회 (회원가입, 대량 가입)
+    public Optional<Role> findByName(String roleName) {
+        Entry entry = roleName == null ? null : snapshot().byName().get(roleName);
+        return entry == null ? Optional.empty() : Optional.of(entry.role());
+    }
+
+    // role_id로 미리 만들어 둔 권한 목록 조회 (CustomUserDetails)
+    public List<GrantedAuthority> authoritiesOf(Integer roleId) {
+        Entry entry = roleId == null ? null : snapshot().byId().get(roleId);
+        return entry == null ? List.of() : entry.authorities();
+    }
+
+    // 토큰의 role 클레임("ROLE_USER")으로 미리 만들어 둔 권한 목록 조회 (JwtFilter stateless 모드)
+    public List<GrantedAuthority> authoritiesOfAuthority(String authority) {
+        if (authority == null) {
+            return List.of();
+        }
+        Entry entry = snapshot().byAuthority().get(authority);
+        // 토큰 발급 이후 삭제된 역할이라도 서명된 값이므로 그대로 인정
+        return entry == null ? List.of(new SimpleGrantedAuthority(authority)) : entry.authorities();
+    }
+
+    // JwtUtil이 토큰에 역할을 기록할 때 : "ROLE_USER" -> role_id
+    @Override
+    public Integer codeOf(String authority) {
+        Entry entry = authority == null ? null : snapshot().byAuthority().get(authority);
+        return entry == null ? null : entry.role().getRoleId();
+    }
+
+    // JwtUtil이 토큰을 검증할 때 : role_id -> "ROLE_USER"
+    @Override
+    public String authorityOf(int code) {
+        Entry entry = snapshot().byId().get(code);
+        return entry == null ? null : entry.authority().getAuthority();
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        // ApplicationReadyEvent 전에 들어온 요청 : 한 스레드만 DB에서 읽음 (가상 스레드 pinning을 피하려고 synchronized 대신 ReentrantLock)
+        loadLock.lock();
+        try {
+            if (snapshot == null) {
+                load();
+            }
+            return snapshot;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private record Entry(Role role, GrantedAuthority authority, List<GrantedAuthority> authorities) {
+        private Entry(Role role, GrantedAuthority authority) {
+            this(role, authority, List.of(authority));
+        }
+    }
+
+    private record Snapshot(Map<String, Entry> byName, Map<Integer, Entry> byId, Map<String, Entry> byAuthority) {
+    }
+}
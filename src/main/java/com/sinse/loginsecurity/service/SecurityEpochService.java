@@ -0,0 +1,193 @@
+package com.sinse.loginsecurity.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sinse.loginsecurity.util.CircuitBreaker;
+import com.sinse.loginsecurity.util.NonPinningCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 사용자별 "보안 epoch"를 관리하는 서비스
+ * 토큰 발급 시 현재 epoch를 토큰에 담고, 검증 시 토큰의 epoch가 현재 값보다 작으면 폐기된 토큰으로 판단함
+ * 역할 변경, 비밀번호 변경, 로그아웃 시 bump()를 호출하면 그 이전에 발급된 토큰이 모두 무효가 됨
+ *
+ * 원본 값은 Redis(INCR)에 두고, 각 노드는 로컬 캐시로 읽기 때문에 요청마다 DB, Redis를 다녀오지 않음
+ * 값이 바뀌면 pub/sub 채널로 다른 노드에 알려 로컬 캐시를 즉시 갱신함
+ *
+ * 로컬 캐시(local-ttl)와 별도로, 이 노드가 한 번이라도 본 epoch는 TTL 없이 lastKnown에 남겨 둠 (크기로만 제한)
+ *
+ * Redis 장애 시 (redisCircuitBreaker가 OPEN이거나 호출이 실패한 경우)
+ * - 조회(current, isRevoked)는 마지막으로 본 epoch(lastKnown)를 사용 -> 장애 전에 올린 epoch가 계속 적용됨
+ *   장애 중 발급된 토큰의 epoch가 실제 값보다 작으면 복구 후 폐기된 토큰으로 처리되어 다시 로그인하게 됨
+ * - 이 노드가 한 번도 보지 못한 사용자는
+ *   stateless 모드 : isRevoked가 true (fail-closed) -> 장애 전에 폐기된 토큰이 다시 통과하지 않음, 복구 후 그대로 사용 가능
+ *   그 외 : 0으로 처리 (요청마다 DB에서 사용자를 다시 읽으므로 비활성화/삭제는 그대로 반영됨)
+ *   로그인 시 발급하는 토큰에는 0을 담음 (current)
+ * - 대체 경로를 탄 횟수는 auth.epoch.fallback{outcome=last_known|unknown} 으로 확인
+ * - 올리기(bump)는 fail-closed : 다른 노드의 토큰을 무효화할 수 없으므로 RedisUnavailableException(503)
+ */
+@Service
+@Slf4j
+public class SecurityEpochService implements MessageListener, MeterBinder {
+
+    static final String KEY_PREFIX = "auth:epoch:";
+    static final String CHANNEL = "auth:epoch";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CircuitBreaker redisCircuitBreaker;
+    private final NonPinningCache<String, Long> localEpochs;
+    // Redis를 쓸 수 없을 때 사용할 마지막으로 본 epoch (TTL 없음, 크기로만 제한)
+    private final Cache<String, Long> lastKnown;
+    private final boolean failClosedWhenUnknown;
+    private final LongAdder lastKnownFallbacks = new LongAdder();
+    private final LongAdder unknownFallbacks = new LongAdder();
+
+    public SecurityEpochService(StringRedisTemplate stringRedisTemplate,
+                                RedisMessageListenerContainer redisMessageListenerContainer,
+                                CircuitBreaker redisCircuitBreaker,
+                                @Value("${loginsecurity.epoch.local-ttl-seconds:60}") long localTtlSeconds,
+                                @Value("${loginsecurity.epoch.local-max-size:100000}") long localMaxSize,
+                                @Value("${loginsecurity.epoch.last-known-max-size:1000000}") long lastKnownMaxSize,
+                                @Value("${loginsecurity.jwt.stateless:false}") boolean stateless) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.failClosedWhenUnknown = stateless;
+        this.lastKnown = Caffeine.newBuilder()
+                .maximumSize(lastKnownMaxSize)
+                .build();
+        // pub/sub 메시지를 놓치더라도 TTL이 지나면 Redis에서 다시 읽어오도록 함
+        // Redis 조회(loader)가 synchronized 블록 안에서 실행되지 않도록 NonPinningCache 사용 (가상 스레드 대응)
+        this.localEpochs = new NonPinningCache<>(Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+                .maximumSize(localMaxSize));
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * 사용자의 현재 epoch를 반환 (로컬 캐시에 없을 때만 Redis 조회, 값이 없으면 0)
+     * Redis를 쓸 수 없으면 마지막으로 본 epoch, 그것도 없으면 0을 반환하고 로컬 캐시에 담지 않음 (복구되면 다음 호출에서 바로 다시 조회)
+     */
+    public long current(String username) {
+        Long epoch = known(username);
+        return epoch == null ? 0L : epoch;
+    }
+
+    // 로컬 캐시에 있을 때만 반환 (없으면 null, Redis를 조회하지 않음)
+    public Long cachedCurrent(String username) {
+        return localEpochs.synchronous().getIfPresent(username);
+    }
+
+    /**
+     * 사용자의 epoch를 1 증가시켜 지금까지 발급된 토큰을 모두 무효화하는 메서드
+     * 역할 변경, 비밀번호 변경, 로그아웃 시 호출
+     * Redis에 올리지 못하면 RedisUnavailableException (알림 발행만 실패하면 다른 노드는 local-ttl 안에 Redis에서 다시 읽음)
+     */
+    public long bump(String username) {
+        if (!redisCircuitBreaker.tryAcquire()) {
+            throw new RedisUnavailableException("Redis circuit이 열려 있어 사용자 '" + username + "'의 보안 epoch를 올리지 못했습니다.", null);
+        }
+        Long epoch;
+        try {
+            epoch = redisCircuitBreaker.call(() -> stringRedisTemplate.opsForValue().increment(KEY_PREFIX + username));
+        } catch (DataAccessException e) {
+            throw new RedisUnavailableException("사용자 '" + username + "'의 보안 epoch를 올리지 못했습니다.", e);
+        }
+        long value = epoch == null ? 0L : epoch;
+        localEpochs.put(username, value);
+        remember(username, value);
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, username + ":" + value);
+        } catch (DataAccessException e) {
+            redisCircuitBreaker.onFailure();
+            log.warn("보안 epoch 변경 알림을 발행하지 못했습니다. username === {}, 사유 : {}", username, e.getMessage());
+        }
+        log.debug("사용자 '{}'의 보안 epoch를 {}(으)로 올렸습니다.", username, value);
+        return value;
+    }
+
+    // 토큰의 epoch가 현재 epoch보다 작으면 폐기된 토큰
+    // Redis 장애 중 epoch를 모르는 사용자는 stateless 모드에서 폐기된 것으로 처리 (클래스 설명 참고)
+    public boolean isRevoked(String username, long tokenEpoch) {
+        Long epoch = known(username);
+        if (epoch == null) {
+            return failClosedWhenUnknown;
+        }
+        return tokenEpoch < epoch;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("auth.epoch.fallback", lastKnownFallbacks, LongAdder::sum)
+                .description("epoch lookups answered with the last known value while Redis was unavailable")
+                .tag("outcome", "last_known")
+                .register(registry);
+        FunctionCounter.builder("auth.epoch.fallback", unknownFallbacks, LongAdder::sum)
+                .description("epoch lookups for users with no known epoch while Redis was unavailable")
+                .tag("outcome", "unknown")
+                .register(registry);
+    }
+
+    // 다른 노드에서 epoch를 올렸다는 메시지를 받으면 로컬 캐시를 갱신 (더 큰 값만 반영)
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(':');
+        if (separator < 0) {
+            return;
+        }
+        String username = body.substring(0, separator);
+        long epoch = Long.parseLong(body.substring(separator + 1));
+        localEpochs.synchronous().asMap().merge(username, epoch, Math::max);
+        remember(username, epoch);
+    }
+
+    // 로컬 캐시 -> Redis 순으로 조회, Redis를 쓸 수 없으면 마지막으로 본 epoch (그것도 없으면 null)
+    private Long known(String username) {
+        Long cached = cachedCurrent(username);
+        if (cached != null) {
+            return cached;
+        }
+        if (!redisCircuitBreaker.tryAcquire()) {
+            return fallback(username);
+        }
+        try {
+            return redisCircuitBreaker.call(() -> localEpochs.get(username, this::loadFromRedis));
+        } catch (DataAccessException e) {
+            log.warn("사용자 '{}'의 보안 epoch를 Redis에서 읽지 못해 마지막으로 본 값을 사용합니다. 사유 : {}", username, e.getMessage());
+            return fallback(username);
+        }
+    }
+
+    private Long fallback(String username) {
+        Long epoch = lastKnown.getIfPresent(username);
+        (epoch == null ? unknownFallbacks : lastKnownFallbacks).increment();
+        return epoch;
+    }
+
+    // 본 적 있는 가장 큰 값만 남김 (pub/sub 메시지와 Redis 조회가 엇갈려도 값이 내려가지 않음)
+    private void remember(String username, long epoch) {
+        lastKnown.asMap().merge(username, epoch, Math::max);
+    }
+
+    private Long loadFromRedis(String username) {
+        String value = stringRedisTemplate.opsForValue().get(KEY_PREFIX + username);
+        long epoch = value == null ? 0L : Long.parseLong(value);
+        remember(username, epoch);
+        return epoch;
+    }
+}
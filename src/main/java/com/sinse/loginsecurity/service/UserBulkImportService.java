@@ -0,0 +1,295 @@
+package com.sinse.loginsecurity.service;
+
+import com.sinse.loginsecurity.config.OffloadingPasswordEncoder;
+import com.sinse.loginsecurity.domain.Role;
+import com.sinse.loginsecurity.dto.BulkImportFailure;
+import com.sinse.loginsecurity.dto.BulkImportResult;
+import com.sinse.loginsecurity.dto.UserDTO;
+import com.sinse.loginsecurity.repository.JpaUserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 파트너사 사용자 등을 한 번에 가입시키는 대량 가입 서비스
+ *
+ * - 역할(Role)은 DB가 아닌 RoleRegistry(메모리)에서 조회
+ * - 비밀번호 해싱은 전용 ForkJoinPool에서 코어 수만큼 병렬로 실행 (로그인용 해싱 풀과 분리)
+ * - INSERT는 batch-size 단위의 JDBC batch로 실행
+ *   User 엔티티의 IDENTITY 전략은 Hibernate가 batch insert를 할 수 없게 만들지만,
+ *   JdbcTemplate.batchUpdate + rewriteBatchedStatements=true 이면 MySQL auto_increment 그대로 다중 행 INSERT가 가능함
+ * - 중복 username, 존재하지 않는 역할 등은 해당 행만 실패로 기록하고 나머지는 계속 저장함
+ */
+@Service
+@Slf4j
+public class UserBulkImportService implements DisposableBean {
+
+    private static final String INSERT_SQL = "insert into user (username, password, age, role_id) values (?, ?, ?, ?)";
+
+    private final JpaUserRepository jpaUserRepository;
+    private final RoleRegistry roleRegistry;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder hashingEncoder;
+    private final ForkJoinPool hashingPool;
+    private final int batchSize;
+
+    public UserBulkImportService(JpaUserRepository jpaUserRepository,
+                                 RoleRegistry roleRegistry,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 OffloadingPasswordEncoder passwordEncoder,
+                                 @Value("${loginsecurity.bulk-import.batch-size:1000}") int batchSize,
+                                 @Value("${loginsecurity.bulk-import.hashing-parallelism:0}") int hashingParallelism) {
+        this.jpaUserRepository = jpaUserRepository;
+        this.roleRegistry = roleRegistry;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // 로그인 해싱 풀(OffloadingPasswordEncoder)에 작업을 넣으면 로그인이 밀리므로 실제 인코더를 직접 사용
+        this.hashingEncoder = passwordEncoder.getDelegate();
+        this.hashingPool = new ForkJoinPool(hashingParallelism > 0
+                ? hashingParallelism : Runtime.getRuntime().availableProcessors());
+        this.batchSize = batchSize;
+    }
+
+    // JSON 배열로 받은 사용자 목록 가입
+    public BulkImportResult importUsers(List<UserDTO> users) {
+        Importer importer = new Importer();
+        for (UserDTO user : users) {
+            importer.add(user);
+        }
+        return importer.finish();
+    }
+
+    /**
+     * CSV(username,password,age,role) 가입. 첫 줄은 헤더
+     * 한 줄씩 읽으며 batch-size 만큼 모이면 저장하므로 전체 파일을 메모리에 올리지 않음
+     * 큰따옴표로 감싼 필드(쉼표, "" 포함)를 지원하며, 따옴표 안의 줄바꿈은 지원하지 않아 해당 행을 실패로 기록함
+     */
+    public BulkImportResult importCsv(Reader reader) throws IOException {
+        Importer importer = new Importer();
+        BufferedReader lines = new BufferedReader(reader);
+        String line = lines.readLine(); // 헤더
+        while ((line = lines.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> columns = parseCsvLine(line);
+            if (columns == null) {
+                importer.reject(line.split(",", 2)[0].trim(), "큰따옴표가 닫히지 않았습니다. (따옴표 안의 줄바꿈은 지원하지 않습니다.)");
+                continue;
+            }
+            if (columns.size() != 4) {
+                importer.reject(columns.get(0).trim(), "형식이 올바르지 않습니다. (username,password,age,role)");
+                continue;
+            }
+            UserDTO user = new UserDTO();
+            user.setUsername(columns.get(0).trim());
+            user.setPassword(columns.get(1));
+            user.setRole(columns.get(3).trim());
+            try {
+                user.setAge(Integer.parseInt(columns.get(2).trim()));
+            } catch (NumberFormatException e) {
+                importer.reject(user.getUsername(), "나이가 숫자가 아닙니다.");
+                continue;
+            }
+            importer.add(user);
+        }
+        return importer.finish();
+    }
+
+    /**
+     * CSV 한 줄을 필드로 나눔 (RFC 4180 : 큰따옴표로 감싼 필드 안의 쉼표는 구분자가 아니고, ""는 " 하나)
+     * 따옴표가 닫히지 않았거나 닫는 따옴표 뒤에 구분자가 아닌 문자가 오면 null
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        while (true) {
+            if (i < line.length() && line.charAt(i) == '"') {
+                // 따옴표로 감싼 필드
+                i++;
+                while (true) {
+                    if (i >= line.length()) {
+                        return null;
+                    }
+                    char c = line.charAt(i++);
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                if (i < line.length() && line.charAt(i) != ',') {
+                    return null;
+                }
+            } else {
+                int end = line.indexOf(',', i);
+                field.append(line, i, end < 0 ? line.length() : end);
+                i = end < 0 ? line.length() : end;
+            }
+            fields.add(field.toString());
+            field.setLength(0);
+            if (i >= line.length()) {
+                return fields;
+            }
+            i++; // 쉼표
+        }
+    }
+
+    @Override
+    public void destroy() {
+        hashingPool.shutdown();
+    }
+
+    private record Row(int number, UserDTO user, Role role) {
+    }
+
+    // encodedPassword가 null이면 해싱 실패 (error : 실패 사유)
+    private record HashedRow(Row row, String encodedPassword, String error) {
+    }
+
+    // 한 행의 해싱 예외(72바이트를 넘는 BCrypt 비밀번호 등)가 병렬 스트림 전체, 즉 요청 전체를 중단시키지 않도록 행 단위로 잡음
+    private HashedRow hash(Row row) {
+        try {
+            return new HashedRow(row, hashingEncoder.encode(row.user().getPassword()), null);
+        } catch (RuntimeException e) {
+            log.debug("비밀번호 해싱 실패 : row {}, 사유 : {}", row.number(), e.getMessage());
+            return new HashedRow(row, null, e.getMessage());
+        }
+    }
+
+    /**
+     * 요청 하나의 진행 상태 (행 번호, 이미 나온 username, 실패 목록, 아직 저장하지 않은 행)
+     */
+    private final class Importer {
+        private final Set<String> seenUsernames = new HashSet<>();
+        private final List<BulkImportFailure> failures = new ArrayList<>();
+        private List<Row> pending = new ArrayList<>();
+        private int requested;
+        private int imported;
+
+        private void add(UserDTO user) {
+            int rowNumber = ++requested;
+            String username = user.getUsername();
+            if (username == null || username.isBlank() || user.getPassword() == null || user.getPassword().isEmpty()) {
+                failures.add(new BulkImportFailure(rowNumber, username, "username과 password는 필수입니다."));
+                return;
+            }
+            Role role = roleRegistry.findByName(user.getRole()).orElse(null);
+            if (role == null) {
+                failures.add(new BulkImportFailure(rowNumber, username, "존재하지 않는 역할입니다. : " + user.getRole()));
+                return;
+            }
+            if (!seenUsernames.add(username)) {
+                failures.add(new BulkImportFailure(rowNumber, username, "요청 안에서 username이 중복되었습니다."));
+                return;
+            }
+            pending.add(new Row(rowNumber, user, role));
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void reject(String username, String reason) {
+            failures.add(new BulkImportFailure(++requested, username, reason));
+        }
+
+        private BulkImportResult finish() {
+            flush();
+            log.debug("대량 가입 완료 : 요청 {}건, 성공 {}건, 실패 {}건", requested, imported, failures.size());
+            return new BulkImportResult(requested, imported, failures);
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<Row> chunk = pending;
+            pending = new ArrayList<>(batchSize);
+
+            // 1. 이미 가입된 username은 한 번의 IN 쿼리로 걸러냄
+            Set<String> existing = new HashSet<>(jpaUserRepository.findExistingUsernames(
+                    chunk.stream().map(row -> row.user().getUsername()).toList()));
+            List<Row> fresh = new ArrayList<>(chunk.size());
+            for (Row row : chunk) {
+                if (existing.contains(row.user().getUsername())) {
+                    failures.add(new BulkImportFailure(row.number(), row.user().getUsername(), "이미 존재하는 username입니다."));
+                } else {
+                    fresh.add(row);
+                }
+            }
+            if (fresh.isEmpty()) {
+                return;
+            }
+
+            // 2. 비밀번호 해싱을 전용 풀에서 병렬 실행 (parallelStream은 submit한 ForkJoinPool 안에서 실행됨)
+            //    해싱에 실패한 행은 실패로 기록하고 나머지만 저장
+            List<HashedRow> results = hashingPool.submit(() -> fresh.parallelStream()
+                    .map(row -> hash(row))
+                    .toList()).join();
+            List<HashedRow> hashed = new ArrayList<>(results.size());
+            for (HashedRow hashedRow : results) {
+                if (hashedRow.encodedPassword() != null) {
+                    hashed.add(hashedRow);
+                } else {
+                    failures.add(new BulkImportFailure(hashedRow.row().number(), hashedRow.row().user().getUsername(),
+                            "비밀번호 해싱에 실패했습니다. : " + hashedRow.error()));
+                }
+            }
+            if (hashed.isEmpty()) {
+                return;
+            }
+
+            // 3. JDBC batch insert, 실패하면 해당 batch를 롤백하고 한 행씩 다시 저장하여 실패한 행만 골라냄
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, hashed, hashed.size(),
+                        (ps, hashedRow) -> {
+                            ps.setString(1, hashedRow.row().user().getUsername());
+                            ps.setString(2, hashedRow.encodedPassword());
+                            ps.setInt(3, hashedRow.row().user().getAge());
+                            ps.setInt(4, hashedRow.row().role().getRoleId());
+                        }));
+                imported += hashed.size();
+            } catch (DataAccessException e) {
+                log.debug("batch insert 실패, 한 행씩 다시 저장합니다. 사유 : {}", e.getMessage());
+                insertOneByOne(hashed);
+            }
+        }
+
+        private void insertOneByOne(List<HashedRow> hashed) {
+            for (HashedRow hashedRow : hashed) {
+                UserDTO user = hashedRow.row().user();
+                try {
+                    jdbcTemplate.update(INSERT_SQL, user.getUsername(), hashedRow.encodedPassword(),
+                            user.getAge(), hashedRow.row().role().getRoleId());
+                    imported++;
+                } catch (DuplicateKeyException e) {
+                    failures.add(new BulkImportFailure(hashedRow.row().number(), user.getUsername(), "이미 존재하는 username입니다."));
+                } catch (DataAccessException e) {
+                    failures.add(new BulkImportFailure(hashedRow.row().number(), user.getUsername(), "저장에 실패했습니다. : " + e.getMostSpecificCause().getMessage()));
+                }
+            }
+        }
+    }
+}
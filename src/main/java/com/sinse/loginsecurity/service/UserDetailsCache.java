@@ -0,0 +1,128 @@
+package com.sinse.loginsecurity.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import com.sinse.loginsecurity.util.CircuitBreaker;
+import com.sinse.loginsecurity.util.NonPinningCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * JpaUserDetailsService 앞에 두는 in-process 캐시 (near-cache)
+ * 같은 사용자가 몇 초 안에 여러 번 요청해도 findByUsername 쿼리는 한 번만 실행되도록 함
+ *
+ * TTL + 최대 크기로 메모리를 제한하고, 적중/실패/축출 횟수는 stats()로 확인할 수 있음
+ * 회원가입, 역할 변경, 로그아웃 시 invalidate()를 호출하면 Redis pub/sub 채널을 통해 모든 노드의 캐시가 함께 비워짐
+ * Redis 장애로 발행하지 못하면 fail-open : 이 노드의 캐시만 비우고 계속 진행 (다른 노드는 ttl-seconds 안에 만료됨)
+ *
+ * 무효화된 username은 read-your-writes 시간 동안 따로 기억함 (recentlyWritten)
+ * -> 그동안의 DB 조회는 복제본 대신 primary에서 하여, 복제 지연 때문에 예전 값(또는 "없는 사용자")을 다시 캐시하지 않음
+ */
+@Component
+@Slf4j
+public class UserDetailsCache implements MessageListener, MeterBinder {
+
+    static final String CHANNEL = "auth:user-invalidate";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CircuitBreaker redisCircuitBreaker;
+    private final boolean enabled;
+    private final NonPinningCache<String, UserDetails> cache;
+    private final Cache<String, Boolean> recentWrites;
+
+    public UserDetailsCache(StringRedisTemplate stringRedisTemplate,
+                            RedisMessageListenerContainer redisMessageListenerContainer,
+                            CircuitBreaker redisCircuitBreaker,
+                            @Value("${loginsecurity.user-cache.enabled:true}") boolean enabled,
+                            @Value("${loginsecurity.user-cache.ttl-seconds:10}") long ttlSeconds,
+                            @Value("${loginsecurity.user-cache.max-size:10000}") long maxSize,
+                            @Value("${loginsecurity.datasource.read-your-writes:PT5S}") Duration readYourWrites) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.enabled = enabled;
+        // DB 조회(loader)가 synchronized 블록 안에서 실행되지 않도록 NonPinningCache 사용 (가상 스레드 대응)
+        this.cache = new NonPinningCache<>(Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats());
+        this.recentWrites = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWrites)
+                .maximumSize(maxSize)
+                .build();
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * 캐시에 있으면 바로 반환하고, 없으면 loader(DB 조회)를 실행해 캐시에 담아 반환하는 메서드
+     * 같은 username에 대한 동시 요청은 loader를 한 번만 실행함
+     * loader에서 발생한 예외(UsernameNotFoundException 등)는 그대로 전달되며 캐시에 저장되지 않음
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        if (!enabled) {
+            return loader.apply(username);
+        }
+        return cache.get(username, loader);
+    }
+
+    // 캐시에 있을 때만 반환 (없으면 null) : WebFlux 필터가 DB 조회 없이 끝나는 경우를 이벤트 루프에서 바로 처리하기 위함
+    public UserDetails getIfPresent(String username) {
+        return enabled ? cache.synchronous().getIfPresent(username) : null;
+    }
+
+    // 현재 노드와 다른 모든 노드에서 해당 사용자의 캐시를 비움
+    public void invalidate(String username) {
+        cache.invalidate(username);
+        recentWrites.put(username, Boolean.TRUE);
+        if (!redisCircuitBreaker.tryAcquire()) {
+            log.debug("Redis circuit이 열려 있어 사용자 '{}'의 캐시 무효화 메시지를 발행하지 않았습니다.", username);
+            return;
+        }
+        try {
+            redisCircuitBreaker.run(() -> stringRedisTemplate.convertAndSend(CHANNEL, username));
+            log.debug("사용자 '{}'의 UserDetails 캐시 무효화 메시지를 발행했습니다.", username);
+        } catch (DataAccessException e) {
+            log.warn("사용자 '{}'의 캐시 무효화 메시지를 발행하지 못했습니다. 다른 노드의 캐시는 TTL이 지나면 비워집니다. 사유 : {}",
+                    username, e.getMessage());
+        }
+    }
+
+    // 다른 노드에서 무효화 메시지를 받으면 로컬 캐시만 비움 (다시 발행하지 않음)
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String username = new String(message.getBody(), StandardCharsets.UTF_8);
+        cache.invalidate(username);
+        recentWrites.put(username, Boolean.TRUE);
+    }
+
+    // read-your-writes 시간 안에 무효화(가입, 비밀번호/역할 변경 등)된 사용자인지 : true면 primary에서 조회해야 함
+    public boolean recentlyWritten(String username) {
+        return recentWrites.getIfPresent(username) != null;
+    }
+
+    // /actuator/metrics/cache.gets 등으로 적중률을 확인할 수 있도록 등록 (MeterBinder 빈은 Spring Boot가 자동으로 바인딩)
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache.synchronous(), "userDetails");
+    }
+
+    // 적중(hit), 실패(miss), 축출(eviction) 횟수
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+}
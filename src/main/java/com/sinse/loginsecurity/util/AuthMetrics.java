@@ -0,0 +1,122 @@
+package com.sinse.loginsecurity.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 로그인, 재발급, 로그아웃, JwtFilter의 단계별 소요시간을 기록하는 Micrometer 타이머 모음
+ * /actuator/metrics/auth.login 처럼 조회할 수 있음 (percentile histogram 설정은 application.properties)
+ *
+ * auth.{작업}        : 작업 전체 소요시간, outcome 태그 (success, bad_credentials, expired, redis_mismatch, error ...)
+ * auth.{작업}.stage  : 단계별 소요시간, stage 태그 (authenticate, jwt_sign, redis_set ...)
+ * auth.user_lookup   : UserDetails 캐시에 없을 때의 DB 조회 시간 (login의 authenticate 단계 = 캐시/DB 조회 + BCrypt 검증)
+ *
+ * 시간은 Timer.Sample 객체 대신 System.nanoTime() 차이로 기록함
+ * 필터는 모든 요청에서 호출되므로 outcome별 Timer를 생성 시점에 미리 만들어 두고 문자열 결합, 레지스트리 조회 없이 기록함
+ */
+@Component
+public class AuthMetrics {
+
+    public static final String LOGIN = "login";
+    public static final String REISSUE = "reissue";
+    public static final String LOGOUT = "logout";
+    public static final String FILTER = "filter";
+    public static final String USER_LOOKUP = "user_lookup";
+
+    // outcome 태그 값
+    public static final String SUCCESS = "success";
+    public static final String BAD_CREDENTIALS = "bad_credentials";
+    public static final String MISSING = "missing";
+    public static final String EXPIRED = "expired";
+    public static final String INVALID = "invalid";
+    public static final String MALFORMED = "malformed";
+    public static final String REVOKED = "revoked";
+    public static final String REDIS_MISMATCH = "redis_mismatch";
+    public static final String ANONYMOUS = "anonymous";
+    public static final String REJECTED = "rejected";
+    public static final String THROTTLED = "throttled";
+    public static final String COALESCED = "coalesced";
+    public static final String GRACE = "grace";
+    public static final String ERROR = "error";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> filterTimers;
+
+    public AuthMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.filterTimers = Map.of(
+                SUCCESS, timer("auth." + FILTER, "outcome", SUCCESS),
+                ANONYMOUS, timer("auth." + FILTER, "outcome", ANONYMOUS),
+                EXPIRED, timer("auth." + FILTER, "outcome", EXPIRED),
+                INVALID, timer("auth." + FILTER, "outcome", INVALID),
+                MALFORMED, timer("auth." + FILTER, "outcome", MALFORMED),
+                REVOKED, timer("auth." + FILTER, "outcome", REVOKED));
+    }
+
+    // JwtFilter 전용 : 미리 만들어 둔 Timer로 기록
+    public void recordFilter(String outcome, long startNanos) {
+        filterTimers.get(outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // 작업 전체 소요시간 기록
+    public void record(String operation, String outcome, long startNanos) {
+        timer("auth." + operation, "outcome", outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // 작업 전체 소요시간을 기록하고 result를 그대로 반환 (return 문에서 바로 쓰기 위함)
+    public <T> T record(String operation, String outcome, long startNanos, T result) {
+        record(operation, outcome, startNanos);
+        return result;
+    }
+
+    /**
+     * handler를 실행하고, 빠져나온 예외 중 outcome이 기록되지 않은 것(DB, Redis 장애 등)은 outcome=error로 기록한 뒤 그대로 던짐
+     * recorded : handler가 이미 outcome을 기록하고 다시 던지는 예외 타입 (잘못된 비밀번호, 해싱 풀 포화 등)
+     */
+    @SafeVarargs
+    public final <T> T recordErrors(String operation, long startNanos, Supplier<T> handler,
+                                    Class<? extends RuntimeException>... recorded) {
+        try {
+            return handler.get();
+        } catch (RuntimeException e) {
+            if (!isAnyOf(e, recorded)) {
+                record(operation, ERROR, startNanos);
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isAnyOf(Throwable e, Class<?>[] types) {
+        for (Class<?> type : types) {
+            if (type.isInstance(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 단계별 소요시간을 기록하고, 다음 단계의 시작 시각으로 쓸 현재 시각(nanoTime)을 반환
+     * long t = System.nanoTime(); ... t = recordStage(LOGIN, "authenticate", t); ... 처럼 이어서 사용
+     */
+    public long recordStage(String operation, String stage, long stageStartNanos) {
+        long now = System.nanoTime();
+        timer("auth." + operation + ".stage", "stage", stage).record(now - stageStartNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    private Timer timer(String name, String tagKey, String tagValue) {
+        // 같은 이름/태그의 Timer를 매번 레지스트리에서 찾지 않도록 캐시
+        return timers.computeIfAbsent(name + '|' + tagValue, key -> Timer.builder(name)
+                .tag(tagKey, tagValue)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,53 @@
+package com.sinse.loginsecurity.util;
+
+/**
+ * Authorization 헤더("Bearer <JWT>")에서 토큰 위치를 찾는 도우미
+ * 서블릿 JwtFilter와 WebFlux 필터(src/reactive)가 함께 사용하므로 서블릿 API에 의존하지 않음
+ */
+public final class BearerTokens {
+
+    public static final String PREFIX = "Bearer ";
+    // 발급하는 토큰은 수백 바이트이므로 이보다 긴 헤더는 서명 검증 없이 거부
+    public static final int MAX_AUTHORIZATION_LENGTH = 4096;
+
+    private BearerTokens() {
+    }
+
+    // "Bearer "로 시작하는지 (대소문자 무시)
+    public static boolean hasPrefix(String authorization) {
+        return authorization != null && authorization.regionMatches(true, 0, PREFIX, 0, PREFIX.length());
+    }
+
+    /**
+     * "Bearer <JWT>" 헤더에서 토큰이 시작하는 위치를 반환 (형식이 올바르지 않으면 -1)
+     * 접두사 뒤의 공백은 건너뛰고, 나머지가 header.payload.signature 형태의 base64url 문자열인지 확인함
+     * 너무 긴 헤더, 허용되지 않은 문자, 점(.) 개수가 맞지 않는 값은 서명 검증(HMAC/ECDSA) 전에 거름
+     */
+    public static int tokenStart(String authorization) {
+        int length = authorization.length();
+        if (length > MAX_AUTHORIZATION_LENGTH) {
+            return -1;
+        }
+        int start = PREFIX.length();
+        while (start < length && authorization.charAt(start) == ' ') {
+            start++;
+        }
+        if (start == length) {
+            return -1;
+        }
+        int dots = 0;
+        for (int i = start; i < length; i++) {
+            char c = authorization.charAt(i);
+            if (c == '.') {
+                dots++;
+            } else if (!isBase64Url(c)) {
+                return -1;
+            }
+        }
+        return dots == 2 ? start : -1;
+    }
+
+    private static boolean isBase64Url(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
+}
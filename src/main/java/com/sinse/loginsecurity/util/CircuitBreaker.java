@@ -0,0 +1,113 @@
+package com.sinse.loginsecurity.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 외부 저장소(Redis) 호출을 감싸는 간단한 circuit breaker (락 없음)
+ *
+ * - CLOSED : 호출 허용. 연속 실패가 failureThreshold에 도달하면 OPEN
+ * - OPEN : openDuration 동안 호출하지 않고 곧바로 대체 경로 사용 (타임아웃을 기다리며 스레드가 쌓이지 않음)
+ * - HALF_OPEN : openDuration이 지나면 호출 하나만 시험 삼아 허용 -> 성공하면 CLOSED, 실패하면 다시 OPEN
+ *
+ * 사용 : if (breaker.tryAcquire()) { try { breaker.call(호출); } catch (DataAccessException e) { 대체 경로 } }
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    // CLOSED이면 Long.MIN_VALUE, 아니면 OPEN된 시각(nanoTime)
+    private final AtomicLong openedAt = new AtomicLong(CLOSED);
+    private final AtomicBoolean probing = new AtomicBoolean();
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold는 1 이상이어야 합니다.");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    // 지금 호출해도 되는지 : CLOSED이면 항상 true, OPEN이면 시험 호출 하나에만 true
+    public boolean tryAcquire() {
+        long opened = openedAt.get();
+        if (opened == CLOSED) {
+            return true;
+        }
+        return nanoClock.getAsLong() - opened >= openNanos && probing.compareAndSet(false, true);
+    }
+
+    /**
+     * tryAcquire로 허용받은 호출을 실행하고 결과를 기록 (성공이면 onSuccess, 예외면 onFailure 후 그대로 던짐)
+     * 예외 종류와 관계없이 finally에서 기록하므로, 값 변환 실패 같은 DataAccessException이 아닌 예외로 끝난
+     * 시험 호출도 HALF_OPEN을 풀어줌 (그대로 두면 tryAcquire가 계속 false가 되어 재시작 전까지 대체 경로만 사용)
+     */
+    public <T> T call(Supplier<T> action) {
+        boolean succeeded = false;
+        try {
+            T result = action.get();
+            succeeded = true;
+            return result;
+        } finally {
+            if (succeeded) {
+                onSuccess();
+            } else {
+                onFailure();
+            }
+        }
+    }
+
+    // 반환값이 없는 호출용 call
+    public void run(Runnable action) {
+        call(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * 호출 성공
+     *
+     * @return OPEN/HALF_OPEN에서 CLOSED로 바뀌었으면 true (밀린 작업을 반영할 시점)
+     */
+    public boolean onSuccess() {
+        consecutiveFailures.set(0);
+        if (openedAt.get() == CLOSED) {
+            return false;
+        }
+        probing.set(false);
+        return openedAt.getAndSet(CLOSED) != CLOSED;
+    }
+
+    // 호출 실패 (타임아웃, 연결 실패) : 시험 호출이 실패했거나 연속 실패가 한도에 도달하면 OPEN
+    public void onFailure() {
+        if (probing.compareAndSet(true, false) || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt.set(nanoClock.getAsLong());
+        }
+    }
+
+    public State state() {
+        long opened = openedAt.get();
+        if (opened == CLOSED) {
+            return State.CLOSED;
+        }
+        return probing.get() || nanoClock.getAsLong() - opened >= openNanos ? State.HALF_OPEN : State.OPEN;
+    }
+}
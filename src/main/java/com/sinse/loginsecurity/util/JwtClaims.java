@@ -0,0 +1,24 @@
+package com.sinse.loginsecurity.util;
+
+import java.time.Instant;
+
+/**
+ * 서명 검증을 통과한 JWT의 클레임을 담는 불변 객체
+ * JwtUtil.verify()가 한 번의 파싱으로 만들어 주므로, 필터나 컨트롤러에서 토큰을 다시 파싱할 필요가 없음
+ *
+ * @param username   토큰 주인의 username
+ * @param role       "ROLE_" 접두사가 붙은 권한 문자열
+ * @param issuedAt   발급 시각
+ * @param expiration 만료 시각
+ * @param epoch      발급 당시 사용자의 보안 epoch (epoch 클레임이 없는 예전 토큰은 0)
+ * @param sessionId  리프레시 토큰이 속한 로그인 세션(기기) id (sid 클레임이 없는 토큰은 null)
+ * @param tokenId    토큰 고유 id (jti 클레임, 폐기 목록의 키. jti가 없는 예전 토큰은 null)
+ */
+public record JwtClaims(String username, String role, Instant issuedAt, Instant expiration, long epoch,
+                        String sessionId, String tokenId) {
+
+    // 검증 시점 이후에 만료되었는지 확인 (검증 자체는 이미 만료 여부를 확인한 상태)
+    public boolean isExpired(Instant now) {
+        return expiration != null && expiration.isBefore(now);
+    }
+}
@@ -0,0 +1,172 @@
+package com.sinse.loginsecurity.util;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * JWT 서명/검증 키 묶음 : 토큰 헤더의 kid로 검증 키를 찾음
+ *
+ * - 서명 키는 항상 하나(현재 키), 검증 키는 여러 개 (키 교체 중에도 이전 키로 발급된 토큰을 계속 검증)
+ * - 검증 키 Map은 불변이며 변경 시 통째로 교체하므로 조회(요청마다)에 락이 없고 O(1)
+ * - HMAC 키 : spring.jwt.secret(kid "default")과 loginsecurity.jwt.hmac-keys로 설정
+ *   kid가 없는 예전 토큰은 "default" 키로 검증
+ * - ES256 키 : JwtKeyRotationService가 노드마다 키 쌍을 만들어 공개키만 Redis로 공유 (검증 노드는 비밀 값이 필요 없음)
+ */
+@Component
+public class JwtKeyRing {
+
+    public static final String DEFAULT_KID = "default";
+
+    /**
+     * 서명에 사용할 키
+     *
+     * @param kid       토큰 헤더에 넣을 키 id
+     * @param algorithm 서명 알고리즘
+     * @param key       HMAC 비밀키 또는 개인키
+     */
+    public record SigningKey(String kid, SignatureAlgorithm algorithm, Key key) {
+    }
+
+    /**
+     * 검증에 사용할 키
+     *
+     * @param algorithm 이 키로 허용할 알고리즘 (헤더의 alg가 다르면 거부)
+     * @param key       HMAC 비밀키 또는 공개키
+     * @param notAfter  이 시각 이후에는 목록에서 제거 (null이면 계속 유지)
+     */
+    public record VerificationKey(SignatureAlgorithm algorithm, Key key, Instant notAfter) {
+    }
+
+    private final Map<String, VerificationKey> configured;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private Map<String, VerificationKey> published = Map.of();
+    private volatile SigningKey signingKey;
+    private volatile Map<String, VerificationKey> verificationKeys;
+
+    /**
+     * @param secret    기존 HMAC 비밀키 (kid "default")
+     * @param hmacKeys  교체용 HMAC 키 "kid=secret,kid2=secret2" (없으면 빈 값)
+     * @param activeKid 서명에 사용할 HMAC 키의 kid (ES256 모드에서는 JwtKeyRotationService가 바꿈)
+     * @param acceptHmac false면 HMAC 키로 서명된 토큰을 더 이상 검증하지 않음 (ES256으로 완전히 옮긴 뒤)
+     */
+    @Autowired
+    public JwtKeyRing(@Value("${spring.jwt.secret}") String secret,
+                      @Value("${loginsecurity.jwt.hmac-keys:}") String hmacKeys,
+                      @Value("${loginsecurity.jwt.active-kid:" + DEFAULT_KID + "}") String activeKid,
+                      @Value("${loginsecurity.jwt.accept-hmac:true}") boolean acceptHmac) {
+        Map<String, VerificationKey> keys = new LinkedHashMap<>();
+        keys.put(DEFAULT_KID, hmacKey(secret));
+        for (String entry : hmacKeys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("loginsecurity.jwt.hmac-keys는 kid=secret 형식이어야 합니다.");
+            }
+            keys.put(entry.substring(0, separator).trim(), hmacKey(entry.substring(separator + 1).trim()));
+        }
+        VerificationKey active = keys.get(activeKid);
+        if (active == null) {
+            throw new IllegalArgumentException("loginsecurity.jwt.active-kid에 해당하는 HMAC 키가 없습니다 : " + activeKid);
+        }
+        this.signingKey = new SigningKey(activeKid, active.algorithm(), active.key());
+        this.configured = acceptHmac ? Map.copyOf(keys) : Map.of();
+        this.verificationKeys = this.configured;
+    }
+
+    // spring.jwt.secret 하나만 쓰는 키 묶음 (벤치마크, 테스트용)
+    public static JwtKeyRing hmac(String secret) {
+        return new JwtKeyRing(secret, "", DEFAULT_KID, true);
+    }
+
+    public SigningKey signingKey() {
+        return signingKey;
+    }
+
+    /**
+     * 토큰 헤더의 kid, alg로 검증 키를 찾음 (JwtUtil의 SigningKeyResolver가 호출)
+     *
+     * @throws SignatureException 모르는 kid이거나, 키에 허용되지 않은 알고리즘인 경우
+     */
+    public Key verificationKey(String kid, String algorithm) {
+        VerificationKey key = verificationKeys.get(kid == null ? DEFAULT_KID : kid);
+        if (key == null) {
+            throw new SignatureException("알 수 없는 키(kid=" + kid + ")로 서명된 토큰입니다.");
+        }
+        // 헤더의 alg를 그대로 믿지 않고 키에 정해진 알고리즘과 같은지 확인 (알고리즘 혼동 공격 방지)
+        if (!key.algorithm().getValue().equals(algorithm)) {
+            throw new SignatureException("키(kid=" + kid + ")에 허용되지 않은 알고리즘입니다 : " + algorithm);
+        }
+        return key.key();
+    }
+
+    /**
+     * 이 노드가 만든 키로 서명을 시작 (ES256 키 교체)
+     * 다른 노드가 먼저 공개키를 알 수 있도록 Redis에 게시한 뒤 호출해야 함
+     */
+    public void activate(String kid, SignatureAlgorithm algorithm, Key signingKey, Key verificationKey, Instant notAfter) {
+        writeLock.lock();
+        try {
+            Map<String, VerificationKey> next = new HashMap<>(published);
+            next.put(kid, new VerificationKey(algorithm, verificationKey, notAfter));
+            published = next;
+            this.signingKey = new SigningKey(kid, algorithm, signingKey);
+            rebuild();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Redis에 게시된 공개키 목록으로 교체 (설정된 HMAC 키와 현재 서명 키는 유지)
+    public void replacePublished(Map<String, VerificationKey> keys) {
+        writeLock.lock();
+        try {
+            Map<String, VerificationKey> next = new HashMap<>(keys);
+            SigningKey current = signingKey;
+            VerificationKey own = published.get(current.kid());
+            if (own != null) {
+                next.putIfAbsent(current.kid(), own);
+            }
+            published = next;
+            rebuild();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // 현재 검증할 수 있는 kid 목록 (관리, 로그용)
+    public Map<String, VerificationKey> verificationKeys() {
+        return verificationKeys;
+    }
+
+    // 만료된 게시 키를 빼고 설정된 HMAC 키와 합쳐 새 불변 Map으로 교체
+    private void rebuild() {
+        Instant now = Instant.now();
+        Map<String, VerificationKey> next = new HashMap<>(configured);
+        published.forEach((kid, key) -> {
+            if (key.notAfter() == null || key.notAfter().isAfter(now)) {
+                next.put(kid, key);
+            }
+        });
+        verificationKeys = Map.copyOf(next);
+    }
+
+    private static VerificationKey hmacKey(String secret) {
+        Key key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        // 키 길이에 맞는 가장 강한 HMAC 알고리즘 (기존 signWith(secretKey)와 같은 선택 : 64바이트 비밀키 -> HS512)
+        return new VerificationKey(SignatureAlgorithm.forSigningKey(key), key, null);
+    }
+}
@@ -1,50 +1,218 @@
 package com.sinse.loginsecurity.util;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import io.jsonwebtoken.security.Keys;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * JWT 생성/검증
+ *
+ * 클레임 프로필 (loginsecurity.jwt.claim-profile)
+ * - legacy  : {"username", "role":"ROLE_USER", "epoch", "sid", "jti":UUID, "iat", "exp"}
+ * - compact : {"v":2, "sub", "r":role_id, "e"(0이면 생략), "s", "jti":22자, "iat", "exp"}
+ *   토큰은 요청마다 전송되고 쿠키/Redis에도 저장되므로 이름과 값을 줄여 크기와 파싱할 JSON을 줄임
+ *   (iat, exp는 원래 초 단위로 기록됨)
+ * 검증은 v 클레임으로 두 프로필을 모두 읽으므로, 전체 노드를 배포한 뒤 compact로 바꾸면 무중단으로 옮길 수 있음
+ */
 @Component
 @Slf4j
 public class JwtUtil {
 
-    private SecretKey secretKey;
+    public static final int COMPACT_PROFILE_VERSION = 2;
 
-    public JwtUtil(@Value("${spring.jwt.secret}") String secret) {
-        // 더 안전하고 표준적인 방법으로 SecretKey를 생성합니다.
-        this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    // 서명 키와 kid별 검증 키 (키 교체 중에는 여러 개의 검증 키를 가짐)
+    private final JwtKeyRing keyRing;
+    // compact 프로필에서 역할 문자열 <-> 코드 변환
+    private final RoleCodes roleCodes;
+    // true면 compact 프로필로 발급 (검증은 설정과 관계없이 두 프로필 모두 허용)
+    // 기본은 legacy : compact 토큰을 읽지 못하는 이전 버전 노드가 남아 있는 동안(롤링 배포 중) 발급하면 거기서 거절됨
+    private final boolean compact;
+
+    // JwtParser는 불변이고 thread-safe 하므로 시작 시 한 번만 만들어 재사용합니다.
+    // 검증 키는 파싱할 때마다 헤더의 kid로 JwtKeyRing에서 찾습니다. (HashMap 조회 한 번)
+    private final JwtParser jwtParser;
+
+    @Autowired
+    public JwtUtil(JwtKeyRing keyRing,
+                   RoleCodes roleCodes,
+                   @Value("${loginsecurity.jwt.claim-profile:legacy}") String claimProfile) {
+        if (!claimProfile.equalsIgnoreCase("compact") && !claimProfile.equalsIgnoreCase("legacy")) {
+            throw new IllegalArgumentException("loginsecurity.jwt.claim-profile은 compact 또는 legacy여야 합니다 : " + claimProfile);
+        }
+        this.keyRing = keyRing;
+        this.roleCodes = roleCodes;
+        this.compact = claimProfile.equalsIgnoreCase("compact");
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return keyRing.verificationKey(header.getKeyId(), header.getAlgorithm());
+                    }
+                })
+                .build();
+    }
+
+    // 역할 코드 없이 compact 프로필로 발급하는 JwtUtil (벤치마크, 테스트용 : 역할은 문자열로 기록)
+    public JwtUtil(JwtKeyRing keyRing) {
+        this(keyRing, RoleCodes.NONE, "compact");
+    }
+
+    // spring.jwt.secret 하나만 쓰는 JwtUtil (벤치마크, 테스트용)
+    public JwtUtil(String secret) {
+        this(JwtKeyRing.hmac(secret));
+    }
+
+    /**
+     * 토큰의 서명과 만료를 한 번에 검증하고, 필요한 클레임을 불변 객체로 반환하는 메서드
+     * 필터와 재발급 로직은 이 메서드 하나만 호출하면 됨 (서명 검증은 요청당 1회)
+     *
+     * @throws ExpiredJwtException 만료된 토큰인 경우
+     * @throws JwtException        서명 불일치, 형식 오류 등 유효하지 않은 토큰인 경우
+     */
+    public JwtClaims verify(String token) {
+        log.debug("19. 받은 토큰을 검증중 입니다. 서명 확인과 클레임 추출을 한 번에 진행합니다.");
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        Number version = claims.get("v", Number.class);
+        if (version != null && version.intValue() == COMPACT_PROFILE_VERSION) {
+            Number epoch = claims.get("e", Number.class);
+            return new JwtClaims(
+                    claims.getSubject(),
+                    roleOf(claims.get("r")),
+                    toInstant(claims.getIssuedAt()),
+                    toInstant(claims.getExpiration()),
+                    epoch == null ? 0L : epoch.longValue(),
+                    claims.get("s", String.class),
+                    claims.getId());
+        }
+        if (version != null) {
+            throw new MalformedJwtException("지원하지 않는 클레임 프로필입니다 : v=" + version);
+        }
+        // v 클레임이 없는 legacy 프로필 (compact 도입 전에 발급된 토큰)
+        Number epoch = claims.get("epoch", Number.class);
+        return new JwtClaims(
+                claims.get("username", String.class),
+                claims.get("role", String.class),
+                toInstant(claims.getIssuedAt()),
+                toInstant(claims.getExpiration()),
+                epoch == null ? 0L : epoch.longValue(),
+                claims.get("sid", String.class),
+                claims.getId());
     }
 
-    // 토큰에서 username을 추출하는 메서드 JwtFilter에서 검증로직을 통해 검증할 것임
+    // 토큰에서 username을 추출하는 메서드 (여러 클레임이 필요하면 verify()를 사용할 것)
     public String getUsername(String token) {
-        log.debug("19. 받은 accessToken을 검증중 입니다. 지금 줄에서는 userName을 꺼내어 검증 하는중입니다.");
-        return Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token).getBody().get("username", String.class);
+        return verify(token).username();
     }
 
-    // 토큰에서 role을 추출하는 메서드 JwtFilter에서 검증로직을 통해 검증할 것임
+    // 토큰에서 role을 추출하는 메서드 (여러 클레임이 필요하면 verify()를 사용할 것)
     public String getRole(String token) {
-        return Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token).getBody().get("role", String.class);
+        return verify(token).role();
+    }
+
+    /**
+     * 리프레시 토큰 쿠키에서 세션 id(sid)를 추출하는 메서드 (로그아웃, 세션 목록에서 "현재 기기"를 찾을 때 사용)
+     * 토큰이 없거나, 검증에 실패하거나, 다른 사용자(username)의 토큰이면 null
+     */
+    public String sessionIdOf(String refreshToken, String username) {
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            return null;
+        }
+        try {
+            JwtClaims claims = verify(refreshToken);
+            return username.equals(claims.username()) ? claims.sessionId() : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
     }
 
     // 토큰이 만료되었는지 확인하는 메서드
     public Boolean isExpired(String token) {
-        return Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token).getBody().getExpiration().before(new Date());
+        try {
+            return verify(token).isExpired(Instant.now());
+        } catch (ExpiredJwtException e) {
+            // 파서가 만료된 토큰을 예외로 알려주므로 여기서 true로 바꿔줌
+            return true;
+        }
     }
 
     // JWT를 생성하는 메서드
     public String createJwt(String username, String role, Long expiredMs) {
-        return Jwts.builder()
-                .claim("username", username)
-                .claim("role", role)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiredMs))
-                .signWith(secretKey)
+        return createJwt(username, role, 0L, expiredMs);
+    }
+
+    // 사용자의 보안 epoch를 담아 JWT를 생성하는 메서드 (SecurityEpochService 참고)
+    public String createJwt(String username, String role, long epoch, Long expiredMs) {
+        return createJwt(username, role, epoch, null, expiredMs);
+    }
+
+    // 로그인 세션(기기) id를 담아 JWT를 생성하는 메서드 (RefreshTokenStore 참고, sessionId가 null이면 sid 클레임 생략)
+    public String createJwt(String username, String role, long epoch, String sessionId, Long expiredMs) {
+        JwtBuilder builder = Jwts.builder();
+        if (compact) {
+            Integer roleCode = roleCodes.codeOf(role);
+            builder.claim("v", COMPACT_PROFILE_VERSION)
+                    .setSubject(username)
+                    // 역할 코드를 모르면 (아직 role 테이블에 없는 역할 등) 문자열 그대로 기록
+                    .claim("r", roleCode != null ? roleCode : role);
+            if (epoch != 0L) {
+                builder.claim("e", epoch);
+            }
+            if (sessionId != null) {
+                builder.claim("s", sessionId);
+            }
+        } else {
+            builder.claim("username", username)
+                    .claim("role", role)
+                    .claim("epoch", epoch);
+            if (sessionId != null) {
+                builder.claim("sid", sessionId);
+            }
+        }
+        // 현재 서명 키의 kid를 헤더에 넣어 검증하는 쪽에서 키를 바로 찾을 수 있게 함
+        JwtKeyRing.SigningKey signingKey = keyRing.signingKey();
+        long now = System.currentTimeMillis();
+        return builder
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.kid())
+                // 토큰마다 고유 id(jti)를 붙여 만료 전에 개별 폐기할 수 있게 함 (AccessTokenRevocationService)
+                .setId(newTokenId())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiredMs))
+                .signWith(signingKey.key(), signingKey.algorithm())
                 .compact();
     }
+
+    // 128비트 난수를 base64url로 (22자, UUID 문자열은 36자)
+    static String newTokenId() {
+        byte[] random = new byte[16];
+        ThreadLocalRandom.current().nextBytes(random);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+    }
+
+    // r 클레임 : 숫자면 역할 코드, 문자열이면 권한 문자열 그대로
+    private String roleOf(Object value) {
+        if (value instanceof Number code) {
+            return roleCodes.authorityOf(code.intValue());
+        }
+        return value == null ? null : value.toString();
+    }
+
+    private static Instant toInstant(Date date) {
+        return date == null ? null : date.toInstant();
+    }
 }
\ No newline at end of file
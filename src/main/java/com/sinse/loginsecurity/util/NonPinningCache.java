@@ -0,0 +1,82 @@
+package com.sinse.loginsecurity.util;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * DB, Redis 조회처럼 블로킹되는 loader를 쓰는 로컬 캐시
+ *
+ * Caffeine의 cache.get(key, loader)는 ConcurrentHashMap.compute() 안(= synchronized 블록)에서 loader를 실행하므로,
+ * 가상 스레드(virtual thread)에서 loader가 I/O로 대기하면 캐리어 스레드가 고정(pinning)됨
+ * 여기서는 빈 CompletableFuture만 맵에 넣고 loader는 synchronized 밖, 호출한 스레드에서 실행함
+ * -> 같은 키의 동시 요청은 여전히 loader를 한 번만 실행하고(single-flight), 나머지는 future를 기다림(park, pinning 없음)
+ */
+public final class NonPinningCache<K, V> {
+
+    private final AsyncCache<K, V> cache;
+
+    public NonPinningCache(Caffeine<Object, Object> builder) {
+        this.cache = builder.buildAsync();
+    }
+
+    /**
+     * 캐시에 있으면 반환하고, 없으면 loader를 실행해 저장 후 반환
+     * loader의 예외는 그대로 전달되며, 실패한 결과는 캐시에 남지 않음
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        // getIfPresent는 적중/실패 통계를 기록함
+        CompletableFuture<V> existing = cache.getIfPresent(key);
+        if (existing == null) {
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            existing = cache.asMap().putIfAbsent(key, mine);
+            if (existing == null) {
+                return load(key, loader, mine);
+            }
+        }
+        return join(existing);
+    }
+
+    public void put(K key, V value) {
+        cache.put(key, CompletableFuture.completedFuture(value));
+    }
+
+    public void invalidate(K key) {
+        cache.synchronous().invalidate(key);
+    }
+
+    // 통계, 지표 등록, merge 같은 동기 연산용 뷰
+    public Cache<K, V> synchronous() {
+        return cache.synchronous();
+    }
+
+    private V load(K key, Function<? super K, ? extends V> loader, CompletableFuture<V> future) {
+        try {
+            V value = loader.apply(key);
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            // 예외로 완료된 future는 Caffeine이 캐시에서 제거함
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.sinse.loginsecurity.util;
+
+/**
+ * 토큰의 역할 클레임을 "ROLE_USER" 같은 문자열 대신 짧은 숫자 코드(role 테이블의 role_id)로 바꾸기 위한 조회 인터페이스
+ * RoleRegistry가 구현하며, util 패키지가 service 패키지에 의존하지 않도록 분리함
+ */
+public interface RoleCodes {
+
+    // 코드 변환 없이 항상 문자열로 기록하는 구현 (벤치마크, 테스트용)
+    RoleCodes NONE = new RoleCodes() {
+        @Override
+        public Integer codeOf(String authority) {
+            return null;
+        }
+
+        @Override
+        public String authorityOf(int code) {
+            return null;
+        }
+    };
+
+    // "ROLE_USER" -> role_id (모르는 권한이면 null -> 문자열 그대로 기록)
+    Integer codeOf(String authority);
+
+    // role_id -> "ROLE_USER" (모르는 코드이면 null)
+    String authorityOf(int code);
+}
@@ -0,0 +1,112 @@
+package com.sinse.loginsecurity.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * 이미 검증한 액세스 토큰의 클레임을 토큰 만료 시각까지 보관하는 캐시
+ * 같은 토큰이 다시 들어오면 Base64 디코딩 + HMAC 검증 + JSON 파싱 대신 해시 조회 한 번으로 끝냄
+ *
+ * 키는 토큰 원문이 아니라 토큰 전체(서명 포함)의 SHA-256 다이제스트
+ * -> 서명이 한 글자라도 다르면 다른 키가 되므로 위조 토큰은 항상 캐시를 빗나가 정상 검증을 거침
+ * -> 메모리에 bearer 토큰 원문을 쌓아두지 않음
+ * 내부 저장소는 Caffeine(ConcurrentHashMap 기반)이라 읽기 위주의 동시 접근에서 락을 잡지 않음
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    private final JwtUtil jwtUtil;
+    private final boolean enabled;
+    private final Cache<ByteBuffer, JwtClaims> cache;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              @Value("${loginsecurity.token-cache.enabled:false}") boolean enabled,
+                              @Value("${loginsecurity.token-cache.max-size:100000}") long maxSize) {
+        this.jwtUtil = jwtUtil;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * JwtUtil.verify()와 같은 계약 : 유효하면 클레임을 반환하고, 아니면 JwtException을 던짐
+     * 검증에 실패한 토큰은 캐시에 저장하지 않음
+     */
+    public JwtClaims verify(String token) {
+        if (!enabled) {
+            return jwtUtil.verify(token);
+        }
+        ByteBuffer key = digest(token);
+        JwtClaims claims = cache.getIfPresent(key);
+        if (claims != null && !claims.isExpired(Instant.now())) {
+            return claims;
+        }
+        // 처음 보는 토큰이거나 만료 직전에 남아있던 항목이면 정상 검증 (만료라면 여기서 예외 발생)
+        claims = jwtUtil.verify(token);
+        cache.put(key, claims);
+        return claims;
+    }
+
+    // /actuator/metrics/cache.gets 등으로 적중률을 확인할 수 있도록 등록 (MeterBinder 빈은 Spring Boot가 자동으로 바인딩)
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "verifiedToken");
+    }
+
+    // 적중률(hitRate), 축출 횟수 등 캐시 크기 조정을 위한 통계
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            // 모든 JVM은 SHA-256을 제공해야 하므로 발생하지 않음
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 각 항목은 해당 토큰의 exp 시각까지만 살아있음
+    private static final class UntilTokenExpiry implements Expiry<ByteBuffer, JwtClaims> {
+        @Override
+        public long expireAfterCreate(ByteBuffer key, JwtClaims value, long currentTime) {
+            if (value.expiration() == null) {
+                return 0L;
+            }
+            return Math.max(0L, Duration.between(Instant.now(), value.expiration()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, JwtClaims value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, JwtClaims value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -35,3 +35,9 @@ CREATE TABLE ROLE(
 
 insert into ROLE(role_name)
 values('USER'), ('STORE'), ('ADMIN');
+
+
+-- 3. 비밀번호 해시를 {bcrypt}$2a$12$... 처럼 알고리즘 id를 붙여 저장하므로 길이를 늘림
+--    (기존 64자로는 접두사가 붙은 BCrypt, PBKDF2 해시를 담을 수 없음)
+ALTER TABLE user
+    MODIFY COLUMN password VARCHAR(255) NOT NULL;
@@ -0,0 +1,23 @@
+package com.sinse.loginsecurity.reactive;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 공유하는 서블릿 쪽 서비스(JPA, 동기 Redis 호출)를 이벤트 루프 밖(boundedElastic)에서 실행하기 위한 도우미
+ */
+final class Blocking {
+
+    private Blocking() {
+    }
+
+    static <T> Mono<T> call(Callable<T> callable) {
+        return Mono.fromCallable(callable).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    static Mono<Void> run(Runnable runnable) {
+        return Mono.fromRunnable(runnable).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+}
@@ -0,0 +1,131 @@
+package com.sinse.loginsecurity.reactive;
+
+import com.sinse.loginsecurity.config.PublicPaths;
+import com.sinse.loginsecurity.service.AccessTokenRevocationService;
+import com.sinse.loginsecurity.service.RoleRegistry;
+import com.sinse.loginsecurity.service.SecurityEpochService;
+import com.sinse.loginsecurity.util.AuthMetrics;
+import com.sinse.loginsecurity.util.BearerTokens;
+import com.sinse.loginsecurity.util.JwtClaims;
+import com.sinse.loginsecurity.util.VerifiedTokenCache;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * JwtFilter의 WebFlux 버전 : 같은 순서(경로 확인 -> 헤더 형식 -> 서명 검증 -> 폐기 목록 -> epoch/사용자 조회)로 인증
+ *
+ * 서명 검증과 메모리 캐시 조회는 이벤트 루프에서 바로 처리하고,
+ * Redis(Bloom filter에 걸린 jti, 캐시에 없는 epoch)나 DB(캐시에 없는 사용자)가 필요할 때만 boundedElastic으로 넘김
+ * 빈으로 등록하면 WebFlux 전체 필터에도 한 번 더 등록되므로 ReactiveSecurityConfig에서 직접 생성함
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private static final Mono<Boolean> NOT_REVOKED = Mono.just(false);
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final ReactiveJpaUserDetailsService reactiveUserDetailsService;
+    private final SecurityEpochService securityEpochService;
+    // true면 DB 조회 없이 검증된 클레임만으로 인증 정보를 만듦 (loginsecurity.jwt.stateless)
+    private final boolean stateless;
+    private final AuthMetrics authMetrics;
+    private final RoleRegistry roleRegistry;
+    private final AccessTokenRevocationService accessTokenRevocationService;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        // 정적 파일, 로그인/회원가입 등 토큰을 볼 필요가 없는 경로 (서블릿 버전과 같은 목록)
+        if (PublicPaths.isUnfiltered(exchange.getRequest().getPath().pathWithinApplication().value())) {
+            return chain.filter(exchange);
+        }
+        long start = System.nanoTime();
+        String authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (!BearerTokens.hasPrefix(authorization)) {
+            authMetrics.recordFilter(AuthMetrics.ANONYMOUS, start);
+            return chain.filter(exchange);
+        }
+        int tokenStart = BearerTokens.tokenStart(authorization);
+        if (tokenStart < 0) {
+            log.debug("형식이 올바르지 않은 Authorization 헤더(길이 {})이므로 인증 없이 다음 필터로 넘어갑니다.", authorization.length());
+            authMetrics.recordFilter(AuthMetrics.MALFORMED, start);
+            return chain.filter(exchange);
+        }
+
+        JwtClaims claims;
+        try {
+            claims = verifiedTokenCache.verify(authorization.substring(tokenStart));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("토큰 검증에 실패하여 인증 없이 다음 필터로 넘어갑니다. 사유 : {}", e.getMessage());
+            authMetrics.recordFilter(e instanceof ExpiredJwtException ? AuthMetrics.EXPIRED : AuthMetrics.INVALID, start);
+            return chain.filter(exchange);
+        }
+
+        // authenticate()가 비어 있으면 폐기된 토큰 (then 이후의 빈 완료와 구분하기 위해 Optional로 감쌈)
+        return authenticate(claims)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(authentication -> {
+                    if (authentication.isEmpty()) {
+                        log.debug("폐기된 토큰(jti={})이므로 인증 없이 다음 필터로 넘어갑니다.", claims.tokenId());
+                        authMetrics.recordFilter(AuthMetrics.REVOKED, start);
+                        return chain.filter(exchange);
+                    }
+                    authMetrics.recordFilter(AuthMetrics.SUCCESS, start);
+                    return chain.filter(exchange)
+                            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication.get()));
+                });
+    }
+
+    private Mono<UsernamePasswordAuthenticationToken> authenticate(JwtClaims claims) {
+        return isRevoked(claims.tokenId())
+                .flatMap(revoked -> revoked ? Mono.<UsernamePasswordAuthenticationToken>empty() : principal(claims))
+                .map(authentication -> {
+                    // 로그아웃 시 이 액세스 토큰을 폐기할 수 있도록 클레임(jti, 만료 시각)을 함께 담아 둠
+                    authentication.setDetails(claims);
+                    return authentication;
+                });
+    }
+
+    // 대부분의 토큰은 Bloom filter에서 바로 걸러지고, 걸린 경우에만 Redis 조회
+    private Mono<Boolean> isRevoked(String tokenId) {
+        if (!accessTokenRevocationService.mightBeRevoked(tokenId)) {
+            return NOT_REVOKED;
+        }
+        return Blocking.call(() -> accessTokenRevocationService.isRevoked(tokenId));
+    }
+
+    private Mono<UsernamePasswordAuthenticationToken> principal(JwtClaims claims) {
+        String username = claims.username();
+        if (stateless) {
+            // epoch가 지난 토큰(로그아웃 전체, 역할 변경 등)은 빈 Mono
+            return epochRevoked(claims)
+                    .filter(revoked -> !revoked)
+                    .map(revoked -> new UsernamePasswordAuthenticationToken(
+                            username, null, roleRegistry.authoritiesOfAuthority(claims.role())));
+        }
+        return reactiveUserDetailsService.findByUsername(username)
+                .map(userDetails -> new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities()));
+    }
+
+    // 로컬 캐시에 있으면 바로 비교, 없을 때만 Redis 조회를 블로킹 스케줄러로 (장애 중 판단은 SecurityEpochService.isRevoked)
+    private Mono<Boolean> epochRevoked(JwtClaims claims) {
+        Long cached = securityEpochService.cachedCurrent(claims.username());
+        if (cached != null) {
+            return Mono.just(claims.epoch() < cached);
+        }
+        return Blocking.call(() -> securityEpochService.isRevoked(claims.username(), claims.epoch()));
+    }
+}
@@ -0,0 +1,42 @@
+package com.sinse.loginsecurity.reactive;
+
+import com.sinse.loginsecurity.service.JpaUserDetailsService;
+import com.sinse.loginsecurity.service.UserDetailsCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * JpaUserDetailsService(UserDetailsCache + JPA)를 감싼 ReactiveUserDetailsService
+ * 캐시에 있으면 이벤트 루프에서 바로 반환하고, 없을 때만 JDBC 조회를 boundedElastic에서 실행
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveJpaUserDetailsService implements ReactiveUserDetailsService, ReactiveUserDetailsPasswordService {
+
+    private final JpaUserDetailsService jpaUserDetailsService;
+    private final UserDetailsCache userDetailsCache;
+
+    // 사용자가 없으면 빈 Mono (ReactiveUserDetailsService 규약)
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        UserDetails cached = userDetailsCache.getIfPresent(username);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return Blocking.call(() -> jpaUserDetailsService.loadUserByUsername(username))
+                .onErrorResume(UsernameNotFoundException.class, e -> Mono.empty());
+    }
+
+    // 로그인 성공 후 해시 업그레이드 (JpaUserDetailsService.updatePassword와 동일)
+    @Override
+    public Mono<UserDetails> updatePassword(UserDetails user, String newPassword) {
+        return Blocking.call(() -> jpaUserDetailsService.updatePassword(user, newPassword));
+    }
+}
@@ -0,0 +1,56 @@
+package com.sinse.loginsecurity.reactive;
+
+import com.sinse.loginsecurity.config.AppConfig;
+import com.sinse.loginsecurity.config.DataSourceConfig;
+import com.sinse.loginsecurity.config.RedisConfig;
+import com.sinse.loginsecurity.controller.AuthExceptionHandler;
+import com.sinse.loginsecurity.domain.User;
+import com.sinse.loginsecurity.repository.JpaUserRepository;
+import com.sinse.loginsecurity.service.AccessTokenRevocationService;
+import com.sinse.loginsecurity.service.JpaUserDetailsService;
+import com.sinse.loginsecurity.service.JwtKeyRotationService;
+import com.sinse.loginsecurity.service.LoginThrottle;
+import com.sinse.loginsecurity.service.RoleRegistry;
+import com.sinse.loginsecurity.service.SecurityEpochService;
+import com.sinse.loginsecurity.service.UserDetailsCache;
+import com.sinse.loginsecurity.util.AuthMetrics;
+import com.sinse.loginsecurity.util.JwtKeyRing;
+import com.sinse.loginsecurity.util.JwtUtil;
+import com.sinse.loginsecurity.util.VerifiedTokenCache;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 인증 스택의 WebFlux(Netty) 버전 : ./gradlew reactiveRun
+ *
+ * - 이 패키지만 스캔하고, 서블릿 버전과 공유할 빈(JwtUtil, RoleRegistry, epoch, 캐시, 폐기 목록 등)은 @Import로 가져옴
+ *   (서블릿 전용 클래스인 JwtFilter, SecurityConfig, 컨트롤러는 불러오지 않음)
+ * - 도메인 모델과 JPA 리포지토리, application.properties도 서블릿 버전과 같은 것을 사용
+ * - JDBC, 동기 Redis 호출은 boundedElastic 스케줄러로 넘기고, 메모리 캐시로 끝나는 경우만 이벤트 루프에서 바로 처리
+ * - 부하 테스트처럼 서블릿 앱(LoginsecurityApplication)과 같은 클래스패스에 있으면 그쪽 컴포넌트 스캔에도 잡히므로
+ *   이 패키지의 빈은 모두 @ConditionalOnWebApplication(REACTIVE)로 서블릿 앱에서는 등록되지 않게 함
+ */
+@SpringBootApplication
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EntityScan(basePackageClasses = User.class)
+@EnableJpaRepositories(basePackageClasses = JpaUserRepository.class)
+@EnableScheduling
+@Import({AppConfig.class, RedisConfig.class, DataSourceConfig.class, AuthExceptionHandler.class,
+        JwtKeyRing.class, JwtUtil.class, JwtKeyRotationService.class, VerifiedTokenCache.class, AuthMetrics.class,
+        RoleRegistry.class, SecurityEpochService.class, UserDetailsCache.class, JpaUserDetailsService.class,
+        AccessTokenRevocationService.class, LoginThrottle.class})
+public class ReactiveLoginsecurityApplication {
+
+    public static void main(String[] args) {
+        // 부하 테스트처럼 서블릿(spring-webmvc)이 함께 클래스패스에 있어도 Netty로 실행
+        new SpringApplicationBuilder(ReactiveLoginsecurityApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .run(args);
+    }
+}
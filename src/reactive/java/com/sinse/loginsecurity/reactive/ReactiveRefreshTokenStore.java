@@ -0,0 +1,65 @@
+package com.sinse.loginsecurity.reactive;
+
+import com.sinse.loginsecurity.service.RefreshTokenStore;
+import com.sinse.loginsecurity.service.RefreshTokenStore.RotateResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static com.sinse.loginsecurity.service.RefreshTokenStore.digest;
+import static com.sinse.loginsecurity.service.RefreshTokenStore.sessionKey;
+import static com.sinse.loginsecurity.service.RefreshTokenStore.sessionsKey;
+
+/**
+ * RefreshTokenStore의 WebFlux 버전 : 같은 키 규칙, 같은 Lua 스크립트를 ReactiveStringRedisTemplate으로 실행
+ * 서블릿 버전과 같은 Redis를 쓰면 어느 쪽에서 로그인한 세션이든 양쪽에서 재발급/로그아웃할 수 있음
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRefreshTokenStore {
+
+    private final ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+    private final Duration reuseGrace;
+
+    public ReactiveRefreshTokenStore(ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+                                     @Value("${loginsecurity.reissue.grace:PT10S}") Duration reuseGrace) {
+        this.reactiveStringRedisTemplate = reactiveStringRedisTemplate;
+        this.reuseGrace = reuseGrace;
+    }
+
+    public String newSessionId() {
+        return UUID.randomUUID().toString();
+    }
+
+    public Mono<Void> save(String username, String sessionId, String refreshToken, Duration ttl) {
+        return reactiveStringRedisTemplate.execute(RefreshTokenStore.SAVE_SCRIPT,
+                        List.of(sessionKey(username, sessionId), sessionsKey(username)),
+                        List.of(digest(refreshToken), String.valueOf(ttl.toMillis()), sessionId,
+                                String.valueOf(System.currentTimeMillis())))
+                .then();
+    }
+
+    // 저장된 토큰이 oldRefreshToken과 같을 때만 교체 (RefreshTokenStore.rotate와 같은 원자적 비교/교체, 같은 유예 시간)
+    public Mono<RotateResult> rotate(String username, String sessionId, String oldRefreshToken, String newRefreshToken, Duration ttl) {
+        return reactiveStringRedisTemplate.execute(RefreshTokenStore.ROTATE_SCRIPT,
+                        RefreshTokenStore.rotateKeys(username, sessionId),
+                        List.of(digest(oldRefreshToken), digest(newRefreshToken), String.valueOf(ttl.toMillis()), sessionId,
+                                String.valueOf(reuseGrace.toMillis())))
+                .next()
+                .map(RotateResult::of)
+                .defaultIfEmpty(RotateResult.MISSING);
+    }
+
+    // 두 명령을 응답을 기다리지 않고 연달아 보냄 (Lettuce가 같은 연결로 pipeline 처리)
+    public Mono<Void> revoke(String username, String sessionId) {
+        return Mono.when(
+                reactiveStringRedisTemplate.delete(sessionKey(username, sessionId)),
+                reactiveStringRedisTemplate.opsForHash().remove(sessionsKey(username), sessionId));
+    }
+}
@@ -0,0 +1,86 @@
+package com.sinse.loginsecurity.reactive;
+
+import com.sinse.loginsecurity.config.PublicPaths;
+import com.sinse.loginsecurity.service.AccessTokenRevocationService;
+import com.sinse.loginsecurity.service.RoleRegistry;
+import com.sinse.loginsecurity.service.SecurityEpochService;
+import com.sinse.loginsecurity.util.AuthMetrics;
+import com.sinse.loginsecurity.util.VerifiedTokenCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+/**
+ * SecurityConfig의 WebFlux 버전 (같은 공개 경로, 같은 권한 규칙)
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         VerifiedTokenCache verifiedTokenCache,
+                                                         ReactiveJpaUserDetailsService reactiveUserDetailsService,
+                                                         SecurityEpochService securityEpochService,
+                                                         AuthMetrics authMetrics,
+                                                         RoleRegistry roleRegistry,
+                                                         AccessTokenRevocationService accessTokenRevocationService,
+                                                         @Value("${loginsecurity.jwt.stateless:false}") boolean stateless) {
+        JwtAuthenticationWebFilter jwtFilter = new JwtAuthenticationWebFilter(verifiedTokenCache, reactiveUserDetailsService,
+                securityEpochService, stateless, authMetrics, roleRegistry, accessTokenRevocationService);
+        return http
+                // 서블릿 버전과 같이 CSRF, Form 로그인, HTTP Basic을 쓰지 않음
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                // 기본 LogoutWebFilter가 POST /logout을 가로채지 않도록 끄고 ReactiveUserController에서 처리
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                // 익명 인증 객체를 만들지 않음 -> 토큰이 없으면 컨트롤러에서 인증 정보가 비어 있음 (서블릿 버전과 같은 401 처리)
+                .anonymous(ServerHttpSecurity.AnonymousSpec::disable)
+                // 세션(WebSession)에 인증 정보를 저장하지 않음 (STATELESS)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchange -> exchange
+                        .pathMatchers(PublicPaths.PERMIT_ALL).permitAll()
+                        .pathMatchers("/actuator/**").hasRole("ADMIN")
+                        .anyExchange().authenticated())
+                .addFilterAt(jwtFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    /**
+     * /login에서 사용하는 인증 매니저 (서블릿 버전의 DaoAuthenticationProvider에 해당)
+     * 비밀번호 비교는 OffloadingPasswordEncoder의 해싱 풀에서 실행되고, 호출 자체는 boundedElastic에서 기다림
+     */
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(ReactiveJpaUserDetailsService reactiveUserDetailsService,
+                                                                       PasswordEncoder passwordEncoder) {
+        UserDetailsRepositoryReactiveAuthenticationManager authenticationManager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(reactiveUserDetailsService);
+        authenticationManager.setPasswordEncoder(passwordEncoder);
+        authenticationManager.setUserDetailsPasswordService(reactiveUserDetailsService);
+        return authenticationManager;
+    }
+
+    // RedisConfig의 LettuceConnectionFactory는 reactive 연결도 제공하므로 같은 연결 설정을 그대로 사용
+    @Bean
+    public ReactiveStringRedisTemplate reactiveStringRedisTemplate(RedisConnectionFactory redisConnectionFactory) {
+        if (!(redisConnectionFactory instanceof ReactiveRedisConnectionFactory reactiveConnectionFactory)) {
+            throw new IllegalStateException("Reactive Redis 연결을 지원하지 않는 RedisConnectionFactory입니다 : "
+                    + redisConnectionFactory.getClass().getName());
+        }
+        return new ReactiveStringRedisTemplate(reactiveConnectionFactory);
+    }
+}
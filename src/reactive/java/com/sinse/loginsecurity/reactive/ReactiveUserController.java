@@ -0,0 +1,237 @@
+package com.sinse.loginsecurity.reactive;
+
+import com.sinse.loginsecurity.config.PasswordHashingRejectedException;
+import com.sinse.loginsecurity.domain.Role;
+import com.sinse.loginsecurity.domain.User;
+import com.sinse.loginsecurity.dto.UserDTO;
+import com.sinse.loginsecurity.repository.JpaUserRepository;
+import com.sinse.loginsecurity.service.AccessTokenRevocationService;
+import com.sinse.loginsecurity.service.LoginThrottle;
+import com.sinse.loginsecurity.service.RoleRegistry;
+import com.sinse.loginsecurity.service.SecurityEpochService;
+import com.sinse.loginsecurity.service.UserDetailsCache;
+import com.sinse.loginsecurity.util.AuthMetrics;
+import com.sinse.loginsecurity.util.JwtClaims;
+import com.sinse.loginsecurity.util.JwtUtil;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.bind.annotation.CookieValue;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * UserController의 WebFlux 버전 : /register, /login, /reissue, /info, /logout
+ * 요청/응답 형식, 토큰 유효시간, 메트릭 이름이 서블릿 버전과 같으므로 같은 부하 테스트로 비교할 수 있음
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveUserController {
+    // 서블릿 버전과 같은 유효시간 (/login의 액세스 토큰도 같은 15초로 두어 같은 재발급 패턴이 나오게 함)
+    private static final Duration REFRESH_TOKEN_TTL = Duration.ofHours(24);
+    private static final long LOGIN_ACCESS_TOKEN_MS = 1 * 15 * 1000L;
+    private static final long REISSUE_ACCESS_TOKEN_MS = 15 * 60 * 1000L;
+
+    private final ReactiveAuthenticationManager reactiveAuthenticationManager;
+    private final JwtUtil jwtUtil;
+    private final PasswordEncoder passwordEncoder;
+    private final JpaUserRepository jpaUserRepository;
+    private final RoleRegistry roleRegistry;
+    private final ReactiveRefreshTokenStore refreshTokenStore;
+    private final AccessTokenRevocationService accessTokenRevocationService;
+    private final SecurityEpochService securityEpochService;
+    private final UserDetailsCache userDetailsCache;
+    private final AuthMetrics authMetrics;
+    private final LoginThrottle loginThrottle;
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<Map<String, String>>> login(@RequestBody UserDTO userDTO, ServerWebExchange exchange) {
+        long start = System.nanoTime();
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        String clientIp = remoteAddress == null ? null : remoteAddress.getHostString();
+        // 시도 제한 확인은 Redis 왕복이 있을 수 있으므로 boundedElastic에서 실행, 거절되면 인증(해싱)까지 가지 않음
+        return Blocking.call(() -> loginThrottle.check(userDTO.getUsername(), clientIp))
+                .flatMap(decision -> decision.allowed()
+                        ? authenticate(userDTO, start)
+                        : Mono.just(authMetrics.record(AuthMetrics.LOGIN, AuthMetrics.THROTTLED, start,
+                        ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, (decision.retryAfter().toMillis() + 999) / 1000)))
+                                .body(Map.of("error", "로그인 시도가 너무 많습니다. 잠시 후 다시 시도하세요.")))))
+                // 해싱 풀 포화는 authenticate에서 rejected로 기록하므로 그 밖의 오류(DB, Redis 장애 등)만 error로 기록
+                .doOnError(e -> !(e instanceof PasswordHashingRejectedException),
+                        e -> authMetrics.record(AuthMetrics.LOGIN, AuthMetrics.ERROR, start));
+    }
+
+    private Mono<ResponseEntity<Map<String, String>>> authenticate(UserDTO userDTO, long start) {
+        return reactiveAuthenticationManager
+                .authenticate(new UsernamePasswordAuthenticationToken(userDTO.getUsername(), userDTO.getPassword()))
+                .flatMap(authentication -> Blocking.run(() -> loginThrottle.onSuccess(authentication.getName()))
+                        .then(issueTokens(authentication, start)))
+                .onErrorResume(AuthenticationException.class, e -> {
+                    authMetrics.record(AuthMetrics.LOGIN, AuthMetrics.BAD_CREDENTIALS, start);
+                    return Blocking.run(() -> loginThrottle.onFailure(userDTO.getUsername()))
+                            .then(Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "아이디 또는 비밀번호가 올바르지 않습니다."))));
+                })
+                // 해싱 풀이 포화 상태 -> AuthExceptionHandler가 503으로 응답
+                .doOnError(PasswordHashingRejectedException.class,
+                        e -> authMetrics.record(AuthMetrics.LOGIN, AuthMetrics.REJECTED, start));
+    }
+
+    // 인증에 성공한 사용자에게 액세스/리프레시 토큰 발급 (새 세션), 리프레시 토큰은 digest만 Redis에 저장
+    private Mono<ResponseEntity<Map<String, String>>> issueTokens(Authentication authentication, long start) {
+        String username = authentication.getName();
+        String role = authentication.getAuthorities().stream().findFirst().map(GrantedAuthority::getAuthority).orElse(null);
+        String sessionId = refreshTokenStore.newSessionId();
+        return Blocking.call(() -> securityEpochService.current(username))
+                .flatMap(epoch -> {
+                    String accessToken = jwtUtil.createJwt(username, role, epoch, LOGIN_ACCESS_TOKEN_MS);
+                    String refreshToken = jwtUtil.createJwt(username, role, epoch, sessionId, REFRESH_TOKEN_TTL.toMillis());
+                    return refreshTokenStore.save(username, sessionId, refreshToken, REFRESH_TOKEN_TTL)
+                            .then(Mono.fromSupplier(() -> authMetrics.record(AuthMetrics.LOGIN, AuthMetrics.SUCCESS, start,
+                                    ResponseEntity.ok()
+                                            .header(HttpHeaders.SET_COOKIE, refreshCookie(refreshToken, REFRESH_TOKEN_TTL).toString())
+                                            .body(Map.of("token", accessToken)))));
+                });
+    }
+
+    @PostMapping("/reissue")
+    public Mono<ResponseEntity<Map<String, String>>> reissue(@CookieValue(value = "refreshToken", required = false) String oldRefreshToken) {
+        long start = System.nanoTime();
+        if (oldRefreshToken == null || oldRefreshToken.isEmpty()) {
+            return Mono.just(authMetrics.record(AuthMetrics.REISSUE, AuthMetrics.MISSING, start,
+                    ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "리프레시 토큰이 없습니다."))));
+        }
+
+        JwtClaims claims;
+        try {
+            claims = jwtUtil.verify(oldRefreshToken);
+        } catch (ExpiredJwtException e) {
+            return Mono.just(authMetrics.record(AuthMetrics.REISSUE, AuthMetrics.EXPIRED, start,
+                    ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "이미 만료된 리프레시 토큰입니다."))));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("리프레시 토큰 검증 중 오류발생 : {}", e.getMessage());
+            return Mono.just(authMetrics.record(AuthMetrics.REISSUE, AuthMetrics.INVALID, start,
+                    ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                            .header(HttpHeaders.SET_COOKIE, refreshCookie("", Duration.ZERO).toString())
+                            .body(Map.of("error", "유효하지 않은 토큰"))));
+        }
+
+        String username = claims.username();
+        String role = claims.role();
+        return Blocking.call(() -> securityEpochService.isRevoked(username, claims.epoch()))
+                .flatMap(revoked -> {
+                    if (revoked || claims.sessionId() == null) {
+                        return Mono.just(authMetrics.record(AuthMetrics.REISSUE,
+                                revoked ? AuthMetrics.REVOKED : AuthMetrics.REDIS_MISMATCH, start, invalidRefreshToken()));
+                    }
+                    String newAccessToken = jwtUtil.createJwt(username, role, claims.epoch(), REISSUE_ACCESS_TOKEN_MS);
+                    String newRefreshToken = jwtUtil.createJwt(username, role, claims.epoch(), claims.sessionId(), REFRESH_TOKEN_TTL.toMillis());
+                    return refreshTokenStore.rotate(username, claims.sessionId(), oldRefreshToken, newRefreshToken, REFRESH_TOKEN_TTL)
+                            .map(result -> switch (result) {
+                                case ROTATED -> authMetrics.record(AuthMetrics.REISSUE, AuthMetrics.SUCCESS, start,
+                                        ResponseEntity.ok()
+                                                .header(HttpHeaders.SET_COOKIE, refreshCookie(newRefreshToken, REFRESH_TOKEN_TTL).toString())
+                                                .body(Map.of("token", newAccessToken)));
+                                // 유예 시간 안의 직전 토큰 : 액세스 토큰만 발급하고 쿠키는 교체한 쪽 응답에 맡김
+                                case GRACE -> authMetrics.record(AuthMetrics.REISSUE, AuthMetrics.GRACE, start,
+                                        ResponseEntity.ok(Map.of("token", newAccessToken)));
+                                default -> authMetrics.record(AuthMetrics.REISSUE, AuthMetrics.REDIS_MISMATCH, start, invalidRefreshToken());
+                            });
+                })
+                .doOnError(e -> authMetrics.record(AuthMetrics.REISSUE, AuthMetrics.ERROR, start));
+    }
+
+    // 회원가입 : 해싱과 JPA 저장은 모두 블로킹이므로 boundedElastic에서 한 번에 실행
+    @PostMapping("/register")
+    public Mono<ResponseEntity<String>> register(@RequestBody UserDTO userDTO) {
+        return Blocking.call(() -> {
+            String encodedPassword = passwordEncoder.encode(userDTO.getPassword());
+            Role role = roleRegistry.findByName(userDTO.getRole())
+                    .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 역할입니다."));
+            User user = new User();
+            user.setUsername(userDTO.getUsername());
+            user.setPassword(encodedPassword);
+            user.setAge(userDTO.getAge());
+            user.setRole(role);
+            jpaUserRepository.save(user);
+            userDetailsCache.invalidate(user.getUsername());
+            return ResponseEntity.ok("회원가입이 성공적으로 완료되었습니다.");
+        });
+    }
+
+    @GetMapping("/info")
+    public Mono<ResponseEntity<Map<String, Object>>> info() {
+        return currentAuthentication()
+                .map(authentication -> ResponseEntity.ok(Map.<String, Object>of(
+                        "username", authentication.getName(),
+                        "role", authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList())))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+    }
+
+    // 현재 기기(세션)에서만 로그아웃 : 세션 리프레시 토큰 삭제 + 사용 중인 액세스 토큰 폐기 + UserDetails 캐시 무효화
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<String>> logout(@CookieValue(value = "refreshToken", required = false) String refreshToken) {
+        long start = System.nanoTime();
+        ResponseEntity<String> cleared = ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, refreshCookie("", Duration.ZERO).toString())
+                .body("success");
+        return currentAuthentication()
+                .flatMap(authentication -> {
+                    String username = authentication.getName();
+                    String sessionId = jwtUtil.sessionIdOf(refreshToken, username);
+                    Mono<Void> revokeSession = sessionId == null ? Mono.empty() : refreshTokenStore.revoke(username, sessionId);
+                    return revokeSession
+                            .then(Blocking.run(() -> {
+                                if (authentication.getDetails() instanceof JwtClaims accessClaims) {
+                                    accessTokenRevocationService.revoke(accessClaims);
+                                }
+                                userDetailsCache.invalidate(username);
+                            }))
+                            .then(Mono.fromSupplier(() -> authMetrics.record(AuthMetrics.LOGOUT, AuthMetrics.SUCCESS, start, cleared)));
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> authMetrics.record(AuthMetrics.LOGOUT, AuthMetrics.ANONYMOUS, start, cleared)))
+                .doOnError(e -> authMetrics.record(AuthMetrics.LOGOUT, AuthMetrics.ERROR, start));
+    }
+
+    private Mono<Authentication> currentAuthentication() {
+        return ReactiveSecurityContextHolder.getContext().mapNotNull(SecurityContext::getAuthentication);
+    }
+
+
+    private static ResponseEntity<Map<String, String>> invalidRefreshToken() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "리프레시 토큰 정보가 유효하지 않습니다."));
+    }
+
+    // 서블릿 버전의 refreshToken 쿠키와 같은 속성 (maxAge 0이면 삭제)
+    private static ResponseCookie refreshCookie(String value, Duration maxAge) {
+        return ResponseCookie.from("refreshToken", value)
+                .maxAge(maxAge)
+                .httpOnly(true)
+                .path("/")
+                .build();
+    }
+}
@@ -0,0 +1,144 @@
+package com.sinse.loginsecurity.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * OffloadingPasswordEncoder의 backpressure 동작 확인
+ * - 풀과 대기열이 가득 차면 기다리지 않고 거절하는지
+ * - 로그인 폭주(storm) 중에도 해싱 동시 실행 수가 풀 크기를 넘지 않고, 넘치는 요청은 거절되는지
+ * (소요시간은 실행 환경에 따라 달라지므로 검증하지 않음, 폭주 중 /info 지연은 부하 테스트의 loadtest.login-storm-rate로 측정)
+ */
+class OffloadingPasswordEncoderTest {
+
+    @Test
+    void rejectsWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new BlockingPasswordEncoder(running, release);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        try (OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(blocking, 1, 1, Duration.ofSeconds(10))) {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            encoder.bindTo(registry);
+            // 1건은 실행 중, 1건은 대기열에 들어간 상태를 만든다
+            callers.submit(() -> encoder.matches("password", "hash"));
+            assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+            callers.submit(() -> encoder.matches("password", "hash"));
+            // 대기열에 들어갈 때까지 기다림 (시간이 아니라 대기열 크기 기준)
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (registry.get("executor.queued").tag("name", "passwordHashing").gauge().value() < 1) {
+                assertThat(System.nanoTime()).as("해싱 대기열이 찰 때까지 대기").isLessThan(deadline);
+                Thread.sleep(10);
+            }
+
+            assertThatThrownBy(() -> encoder.matches("password", "hash"))
+                    .isInstanceOf(PasswordHashingRejectedException.class);
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void loginStormIsBoundedByPoolSize() throws Exception {
+        int hashingThreads = 2;
+        ConcurrencyTrackingEncoder tracking = new ConcurrencyTrackingEncoder(new BCryptPasswordEncoder(10));
+        String encoded = tracking.delegate.encode("password");
+
+        AtomicBoolean storming = new AtomicBoolean(true);
+        LongAdder rejected = new LongAdder();
+        LongAdder succeeded = new LongAdder();
+        ExecutorService storm = Executors.newFixedThreadPool(16);
+
+        try (OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(tracking, hashingThreads, 4, Duration.ofSeconds(5))) {
+            for (int i = 0; i < 16; i++) {
+                storm.submit(() -> {
+                    while (storming.get()) {
+                        try {
+                            encoder.matches("password", encoded);
+                            succeeded.increment();
+                        } catch (PasswordHashingRejectedException e) {
+                            rejected.increment();
+                        }
+                    }
+                });
+            }
+            // 해싱이 몇 건 끝날 때까지 폭주 유지 (시간이 아니라 처리 건수 기준)
+            for (int i = 0; i < 3_000 && succeeded.sum() < 10; i++) {
+                Thread.sleep(10);
+            }
+        } finally {
+            storming.set(false);
+            storm.shutdown();
+            storm.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        assertThat(tracking.maxConcurrent.get()).isLessThanOrEqualTo(hashingThreads);
+        assertThat(rejected.sum()).isPositive();
+    }
+
+    // release 될 때까지 해싱 스레드를 붙잡아 두는 인코더
+    private record BlockingPasswordEncoder(CountDownLatch running, CountDownLatch release) implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            block();
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            block();
+            return true;
+        }
+
+        private void block() {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // 동시에 해싱 중인 스레드 수의 최댓값을 기록하는 인코더
+    private static final class ConcurrencyTrackingEncoder implements PasswordEncoder {
+        private final PasswordEncoder delegate;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+        private ConcurrencyTrackingEncoder(PasswordEncoder delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return delegate.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            maxConcurrent.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                return delegate.matches(rawPassword, encodedPassword);
+            } finally {
+                active.decrementAndGet();
+            }
+        }
+    }
+}
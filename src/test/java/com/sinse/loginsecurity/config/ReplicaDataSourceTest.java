@@ -0,0 +1,109 @@
+package com.sinse.loginsecurity.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 내장 H2 인스턴스를 primary, 복제본으로 각각 띄워 DataSourceConfig와 같은 구성(LazyConnectionDataSourceProxy + ReplicaDataSource)의 라우팅 확인
+ * 각 DB의 node 테이블에 자기 이름을 넣어 두고, 조회 결과로 어느 DB에서 실행됐는지 판단함
+ */
+class ReplicaDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replicaA;
+    private DataSource replicaB;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replicaA = database("replica-a");
+        replicaB = database("replica-b");
+    }
+
+    // 쓰기 트랜잭션은 primary, readOnly 트랜잭션은 복제본
+    @Test
+    void routesReadOnlyTransactionsToReplica() {
+        Routing routing = routing(new ReplicaDataSource(primary, List.of(new ReplicaDataSource.Replica("a", replicaA)), 1));
+
+        assertThat(routing.node(false)).isEqualTo("primary");
+        assertThat(routing.node(true)).isEqualTo("replica-a");
+    }
+
+    // 복제본이 여러 개면 돌아가며 사용
+    @Test
+    void roundRobinsAcrossReplicas() {
+        Routing routing = routing(new ReplicaDataSource(primary, List.of(
+                new ReplicaDataSource.Replica("a", replicaA), new ReplicaDataSource.Replica("b", replicaB)), 1));
+
+        assertThat(List.of(routing.node(true), routing.node(true), routing.node(true), routing.node(true)))
+                .containsExactly("replica-a", "replica-b", "replica-a", "replica-b");
+    }
+
+    // 연결할 수 없는 복제본은 건너뛰고 목록에서 빠지며, 남은 복제본이 없으면 primary에서 읽음
+    @Test
+    void fallsBackToPrimaryWhenReplicaIsDown() {
+        DataSource unreachable = new DriverManagerDataSource("jdbc:h2:tcp://127.0.0.1:1/unreachable", "sa", "");
+        ReplicaDataSource replicas = new ReplicaDataSource(primary, List.of(new ReplicaDataSource.Replica("down", unreachable)), 1);
+        Routing routing = routing(replicas);
+
+        assertThat(routing.node(true)).isEqualTo("primary");
+        assertThat(replicas.healthyReplicas()).isEmpty();
+
+        replicas.checkHealth();
+        assertThat(replicas.healthyReplicas()).isEmpty();
+        assertThat(routing.node(true)).isEqualTo("primary");
+    }
+
+    // 다시 연결되면 checkHealth()가 목록에 돌려놓음
+    @Test
+    void healthCheckRestoresReplica() {
+        ReplicaDataSource replicas = new ReplicaDataSource(primary, List.of(new ReplicaDataSource.Replica("a", replicaA)), 1);
+        replicas.checkHealth();
+
+        assertThat(replicas.healthyReplicas()).containsExactly("a");
+    }
+
+    // read-your-writes : onPrimary 범위 안의 readOnly 조회는 primary
+    @Test
+    void onPrimaryPinsReadsToPrimary() {
+        Routing routing = routing(new ReplicaDataSource(primary, List.of(new ReplicaDataSource.Replica("a", replicaA)), 1));
+
+        assertThat(ReplicaDataSource.onPrimary(() -> routing.node(true))).isEqualTo("primary");
+        assertThat(routing.node(true)).isEqualTo("replica-a");
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table node (name varchar(20))");
+        jdbcTemplate.update("insert into node (name) values (?)", name);
+        return dataSource;
+    }
+
+    private Routing routing(ReplicaDataSource replicas) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(replicas);
+        return new Routing(new DataSourceTransactionManager(dataSource), new JdbcTemplate(dataSource));
+    }
+
+    private record Routing(DataSourceTransactionManager transactionManager, JdbcTemplate jdbcTemplate) {
+        // readOnly 여부를 지정한 트랜잭션 안에서 어느 DB인지 조회
+        String node(boolean readOnly) {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(readOnly);
+            return transaction.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.sinse.loginsecurity.config;
+
+import com.sinse.loginsecurity.domain.User;
+import com.sinse.loginsecurity.dto.UserCredentials;
+import com.sinse.loginsecurity.repository.JpaUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JPA(Hibernate) + DataSourceConfig(LazyConnectionDataSourceProxy + ReplicaDataSource) 구성에서
+ * 한 요청 안의 readOnly 조회 뒤에 오는 쓰기(로그인 중 비밀번호 해시 갱신)가 primary로 가는지 확인 (H2 두 개, MySQL 모드)
+ *
+ * 두 DB의 같은 사용자에 서로 다른 비밀번호를 넣어 두고, 조회 결과와 저장된 값으로 어느 DB를 사용했는지 판단함
+ * 테스트 트랜잭션으로 감싸면 모든 조회가 그 트랜잭션의 primary 커넥션을 쓰게 되므로 감싸지 않음
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingJpaTest.PRIMARY_URL,
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "loginsecurity.datasource.replica-urls=" + ReplicaRoutingJpaTest.REPLICA_URL,
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DataSourceConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReplicaRoutingJpaTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private JpaUserRepository jpaUserRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Value("${spring.jpa.open-in-view}")
+    private boolean openInView;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = database(PRIMARY_URL, "{noop}primary");
+        replica = database(REPLICA_URL, "{noop}replica");
+    }
+
+    // 요청 범위 EntityManager가 있으면 첫 readOnly 트랜잭션이 고른 복제본 커넥션을 요청 끝까지 재사용함
+    @Test
+    void openInViewIsDisabled() {
+        assertThat(openInView).isFalse();
+    }
+
+    @Test
+    void writeAfterReadOnlyLookupGoesToPrimary() {
+        // 1. 인증 조회 (readOnly -> 복제본)
+        UserCredentials credentials = jpaUserRepository.findCredentialsByUsername("alice");
+        assertThat(credentials.password()).isEqualTo("{noop}replica");
+
+        // 2. 같은 스레드에서 이어지는 쓰기 트랜잭션 (JpaUserDetailsService.updatePassword와 같은 순서)
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User user = jpaUserRepository.findByUsername("alice");
+            user.setPassword("{noop}rehashed");
+            jpaUserRepository.save(user);
+        });
+
+        assertThat(password(primary)).isEqualTo("{noop}rehashed");
+        assertThat(password(replica)).isEqualTo("{noop}replica");
+    }
+
+    private static JdbcTemplate database(String url, String password) {
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        jdbc.execute("drop table if exists user");
+        jdbc.execute("drop table if exists role");
+        jdbc.execute("create table role (role_id int auto_increment primary key, role_name varchar(255))");
+        jdbc.execute("create table user (user_id int auto_increment primary key, username varchar(255) not null unique, "
+                + "password varchar(255) not null, age int not null, role_id int)");
+        jdbc.update("insert into role (role_id, role_name) values (1, 'USER')");
+        jdbc.update("insert into user (username, password, age, role_id) values ('alice', ?, 20, 1)", password);
+        return jdbc;
+    }
+
+    private static String password(JdbcTemplate jdbc) {
+        return jdbc.queryForObject("select password from user where username = 'alice'", String.class);
+    }
+}
@@ -0,0 +1,177 @@
+package com.sinse.loginsecurity.controller;
+
+import com.sinse.loginsecurity.domain.Role;
+import com.sinse.loginsecurity.dto.UserCredentials;
+import com.sinse.loginsecurity.repository.JpaUserRepository;
+import com.sinse.loginsecurity.service.AccessTokenRevocationService;
+import com.sinse.loginsecurity.service.JpaUserDetailsService;
+import com.sinse.loginsecurity.service.LoginThrottle;
+import com.sinse.loginsecurity.service.RedisUnavailableException;
+import com.sinse.loginsecurity.service.RefreshTokenStore;
+import com.sinse.loginsecurity.service.ReissueCoalescer;
+import com.sinse.loginsecurity.service.RoleRegistry;
+import com.sinse.loginsecurity.service.SecurityEpochService;
+import com.sinse.loginsecurity.service.UserDetailsCache;
+import com.sinse.loginsecurity.support.EmbeddedRedisExtension;
+import com.sinse.loginsecurity.util.AuthMetrics;
+import com.sinse.loginsecurity.util.CircuitBreaker;
+import com.sinse.loginsecurity.util.JwtClaims;
+import com.sinse.loginsecurity.util.JwtUtil;
+import com.sinse.loginsecurity.util.LogCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 내장 Redis를 끈 상태에서 /login, /reissue, /logout이 500 없이 처리되는지 확인
+ * UserController와 실제 서비스(보안 epoch, 토큰 폐기 목록, 캐시 무효화, 로그인 시도 제한, 리프레시 토큰 저장소)를 그대로 연결하고,
+ * DB만 고정된 사용자를 돌려주는 저장소로 대신함
+ */
+class UserControllerRedisFaultTest {
+
+    private static final Duration TTL = Duration.ofHours(1);
+
+    @RegisterExtension
+    final EmbeddedRedisExtension embeddedRedis = new EmbeddedRedisExtension();
+
+    private StringRedisTemplate redis;
+    private CircuitBreaker redisCircuitBreaker;
+    private SecurityEpochService securityEpochService;
+    private AccessTokenRevocationService accessTokenRevocationService;
+    private JwtUtil jwtUtil;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        redis = embeddedRedis.template();
+
+        // 연속 2회 실패하면 OPEN, 200ms 뒤 시험 호출
+        redisCircuitBreaker = new CircuitBreaker(2, Duration.ofMillis(200));
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        AuthMetrics authMetrics = new AuthMetrics(new SimpleMeterRegistry());
+        RoleRegistry roleRegistry = new RoleRegistry(null, null, container, null);
+        roleRegistry.replace(List.of(role()));
+        UserDetailsCache userDetailsCache = new UserDetailsCache(redis, container, redisCircuitBreaker,
+                true, 10, 1_000, Duration.ofSeconds(5));
+        securityEpochService = new SecurityEpochService(redis, container, redisCircuitBreaker, 60, 1_000, 1_000, false);
+        accessTokenRevocationService = new AccessTokenRevocationService(redis, container, redisCircuitBreaker,
+                1_000, 0.01, 1_000, 60_000);
+        accessTokenRevocationService.rebuild();
+        LoginThrottle loginThrottle = new LoginThrottle(redis, redisCircuitBreaker, true, true,
+                10, 5, 60, 20, Duration.ofMinutes(1), 20, 200, 3, Duration.ofSeconds(1), Duration.ofMinutes(15), 1_000);
+        RefreshTokenStore refreshTokenStore = new RefreshTokenStore(redis, Duration.ofSeconds(10), 2, Duration.ofMillis(200),
+                1_000, TTL);
+
+        DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
+        authenticationProvider.setUserDetailsService(
+                new JpaUserDetailsService(fixedRepository(), userDetailsCache, roleRegistry, authMetrics));
+        jwtUtil = new JwtUtil("a-very-long-and-secure-secret-key-that-is-at-least-256-bits-long");
+
+        UserController userController = new UserController(new LogCounter(0), new ProviderManager(authenticationProvider),
+                jwtUtil, PasswordEncoderFactories.createDelegatingPasswordEncoder(), fixedRepository(), roleRegistry,
+                refreshTokenStore, accessTokenRevocationService, securityEpochService, userDetailsCache, authMetrics,
+                loginThrottle, new ReissueCoalescer(Duration.ofSeconds(10)));
+        mockMvc = MockMvcBuilders.standaloneSetup(userController)
+                .setControllerAdvice(new AuthExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void loginReissueAndLogoutWorkWhileRedisIsDown() throws Exception {
+        embeddedRedis.stop();
+
+        // 로컬 캐시에 epoch, UserDetails가 없는 사용자들의 로그인 : 처음 몇 번만 실패를 기다리고, circuit이 열린 뒤에는 Redis를 호출하지 않음
+        long started = System.nanoTime();
+        MvcResult login = null;
+        for (int i = 0; i < 10; i++) {
+            login = mockMvc.perform(post("/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"username\":\"user-" + i + "\",\"password\":\"password\"}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.token").exists())
+                    .andReturn();
+        }
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(3));
+        assertThat(redisCircuitBreaker.state()).isNotEqualTo(CircuitBreaker.State.CLOSED);
+
+        // 장애 중 로그인한 세션(로컬 저장소)으로 재발급
+        Cookie loginCookie = login.getResponse().getCookie("refreshToken");
+        MvcResult reissue = mockMvc.perform(post("/reissue").cookie(loginCookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").exists())
+                .andReturn();
+        Cookie rotatedCookie = reissue.getResponse().getCookie("refreshToken");
+        assertThat(rotatedCookie.getValue()).isNotEqualTo(loginCookie.getValue());
+
+        // 로그아웃 : 세션과 액세스 토큰 폐기는 이 노드에 바로 적용되고, 액세스 토큰 폐기는 복구 후 Redis에 기록됨
+        JwtClaims accessClaims = jwtUtil.verify(jwtUtil.createJwt("user-9", "ROLE_USER", 0L, Duration.ofMinutes(5).toMillis()));
+        UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated("user-9", null, List.of());
+        authentication.setDetails(accessClaims);
+        mockMvc.perform(post("/logout").principal(authentication).cookie(rotatedCookie))
+                .andExpect(status().isOk());
+        assertThat(accessTokenRevocationService.isRevoked(accessClaims.tokenId())).isTrue();
+        assertThat(accessTokenRevocationService.pendingRevocations()).isEqualTo(1);
+        mockMvc.perform(post("/reissue").cookie(rotatedCookie))
+                .andExpect(status().isUnauthorized());
+
+        // 다른 노드의 토큰까지 무효화해야 하는 epoch 올리기는 fail-closed
+        assertThatThrownBy(() -> securityEpochService.bump("user-9")).isInstanceOf(RedisUnavailableException.class);
+
+        embeddedRedis.restart();
+        awaitRevocationsFlushed();
+        assertThat(redis.hasKey("auth:revoked:" + accessClaims.tokenId())).isTrue();
+    }
+
+    // Redis가 돌아오면(재연결) 예약 작업이 밀린 폐기를 기록할 때까지 기다림
+    private void awaitRevocationsFlushed() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (accessTokenRevocationService.pendingRevocations() > 0) {
+            assertThat(System.nanoTime()).as("Redis 복구 후 폐기 기록 대기").isLessThan(deadline);
+            accessTokenRevocationService.flushPendingRevocations();
+            Thread.sleep(100);
+        }
+    }
+
+    // findCredentialsByUsername만 구현한 저장소 : 모든 username이 비밀번호 "password"로 가입되어 있음
+    private static JpaUserRepository fixedRepository() {
+        return (JpaUserRepository) Proxy.newProxyInstance(
+                JpaUserRepository.class.getClassLoader(),
+                new Class<?>[]{JpaUserRepository.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("findCredentialsByUsername")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    Role role = role();
+                    return new UserCredentials((String) args[0], "{noop}password", role.getRoleId(), role.getRoleName());
+                });
+    }
+
+    private static Role role() {
+        Role role = new Role();
+        role.setRoleId(1);
+        role.setRoleName("USER");
+        return role;
+    }
+}
@@ -0,0 +1,144 @@
+package com.sinse.loginsecurity.repository;
+
+import com.sinse.loginsecurity.domain.Role;
+import com.sinse.loginsecurity.domain.User;
+import com.sinse.loginsecurity.dto.UserCredentials;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 인증 조회 경로의 쿼리 수, 엔티티 로드 수를 Hibernate 통계로 확인 (H2, MySQL 모드)
+ * 엔티티 조회(findByUsername, 이전 경로)와 projection 조회(findCredentialsByUsername)의 요청당 할당량도 비교
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:credentials;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class UserCredentialsQueryTest {
+
+    private static final int ITERATIONS = 2_000;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JpaUserRepository jpaUserRepository;
+
+    private Statistics statistics;
+    private int roleId;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setRoleName("USER");
+        entityManager.persist(role);
+        User user = new User();
+        user.setUsername("alice");
+        user.setPassword("{noop}password");
+        user.setAge(20);
+        user.setRole(role);
+        entityManager.persistAndFlush(user);
+        entityManager.clear();
+        roleId = role.getRoleId();
+
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    // 쿼리 1번, 영속성 컨텍스트에 올라가는 엔티티 없음 (role 이름은 같은 쿼리의 join으로 읽음)
+    @Test
+    void credentialsAreReadWithOneQueryAndNoManagedEntity() {
+        UserCredentials credentials = jpaUserRepository.findCredentialsByUsername("alice");
+
+        assertThat(credentials).isEqualTo(new UserCredentials("alice", "{noop}password", roleId, "USER"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(jpaUserRepository.findCredentialsByUsername("nobody")).isNull();
+    }
+
+    // 이전 경로 : 쿼리는 1번이지만 User 엔티티가 영속성 컨텍스트에 올라가고 flush 때 dirty checking 대상이 됨
+    @Test
+    void entityLookupLoadsManagedUser() {
+        User user = jpaUserRepository.findByUsername("alice");
+
+        assertThat(user.getUsername()).isEqualTo("alice");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+        assertThat(entityManager.getEntityManager().contains(user)).isTrue();
+    }
+
+    // Role은 두 번째 조회부터 2차 캐시에서 읽음 (쿼리 없음)
+    @Test
+    void roleIsServedFromSecondLevelCache() {
+        entityManager.find(Role.class, roleId);
+        entityManager.clear();
+        Role cached = entityManager.find(Role.class, roleId);
+
+        assertThat(cached.getRoleName()).isEqualTo("USER");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+    }
+
+    // 조회 한 번당 쿼리 수, 엔티티 수, 할당량 비교 (영속성 컨텍스트는 요청마다 새로 만드는 것처럼 매번 비움)
+    // 할당량은 JVM, Hibernate 버전마다 다르므로 절대값이 아니라 두 경로의 대소만 확인
+    @Test
+    void projectionCostsLessPerLookup() {
+        assumeTrue(((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).isThreadAllocatedMemoryEnabled());
+        Cost entity = measure(() -> jpaUserRepository.findByUsername("alice"));
+        Cost projection = measure(() -> jpaUserRepository.findCredentialsByUsername("alice"));
+
+        assertThat(projection.statements()).isEqualTo(entity.statements()).isEqualTo(1.0);
+        assertThat(projection.entities()).isZero();
+        assertThat(entity.entities()).isEqualTo(1.0);
+        assertThat(projection.bytesAllocated())
+                .as("projection(%s) vs entity(%s)", projection, entity)
+                .isLessThan(entity.bytesAllocated());
+    }
+
+    private Cost measure(Supplier<Object> lookup) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        // 워밍업 (쿼리 계획 캐시, JIT)
+        for (int i = 0; i < ITERATIONS; i++) {
+            lookup.get();
+            entityManager.clear();
+        }
+        statistics.clear();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            lookup.get();
+            entityManager.clear();
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Cost((double) statistics.getPrepareStatementCount() / ITERATIONS,
+                (double) statistics.getEntityLoadCount() / ITERATIONS,
+                allocated / ITERATIONS);
+    }
+
+    private record Cost(double statements, double entities, long bytesAllocated) {
+        @Override
+        public String toString() {
+            return String.format("statements=%.2f, entities=%.2f, allocated=%,d B", statements, entities, bytesAllocated);
+        }
+    }
+}
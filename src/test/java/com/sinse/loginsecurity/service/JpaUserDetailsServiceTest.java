@@ -0,0 +1,123 @@
+package com.sinse.loginsecurity.service;
+
+import com.sinse.loginsecurity.config.PasswordEncoderCalibrator;
+import com.sinse.loginsecurity.domain.Role;
+import com.sinse.loginsecurity.domain.User;
+import com.sinse.loginsecurity.dto.UserCredentials;
+import com.sinse.loginsecurity.repository.JpaUserRepository;
+import com.sinse.loginsecurity.util.AuthMetrics;
+import com.sinse.loginsecurity.util.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 로그인 성공 시 예전 형식이거나 현재 strength보다 낮은 해시를 다시 해싱해 저장하는지 확인 (PasswordEncoderCalibrator 참고)
+ */
+class JpaUserDetailsServiceTest {
+
+    private static final String PASSWORD = "password";
+
+    private final AtomicInteger saves = new AtomicInteger();
+
+    // 접두사 없는 예전 BCrypt 해시 -> {bcrypt} 형식으로 한 번만 갱신, 이후 캐시에서도 새 해시가 보임
+    @Test
+    void rehashesLegacyHashOnLogin() {
+        User user = user(new BCryptPasswordEncoder(4).encode(PASSWORD));
+        JpaUserDetailsService service = service(user);
+        DaoAuthenticationProvider provider = provider(service, encoder(4));
+
+        login(provider);
+        assertThat(user.getPassword()).startsWith("{bcrypt}$2a$04$");
+        assertThat(service.loadUserByUsername("alice").getPassword()).isEqualTo(user.getPassword());
+        assertThat(saves).hasValue(1);
+
+        login(provider);
+        assertThat(saves).hasValue(1);
+    }
+
+    // 현재 strength보다 낮은 해시만 올리고, 더 높은 해시를 낮추지는 않음
+    @Test
+    void upgradesWeakerHashesButNeverDowngrades() {
+        User user = user("{bcrypt}" + new BCryptPasswordEncoder(4).encode(PASSWORD));
+        login(provider(service(user), encoder(5)));
+        assertThat(user.getPassword()).startsWith("{bcrypt}$2a$05$");
+        assertThat(saves).hasValue(1);
+
+        login(provider(service(user), encoder(4)));
+        assertThat(user.getPassword()).startsWith("{bcrypt}$2a$05$");
+        assertThat(saves).hasValue(1);
+    }
+
+    // 측정과 상관없이 strength를 고정 (목표 시간 0 -> 최소 strength)
+    private static PasswordEncoder encoder(int strength) {
+        return PasswordEncoderCalibrator.create(PasswordEncoderCalibrator.BCRYPT, Duration.ZERO, strength, strength);
+    }
+
+    private static DaoAuthenticationProvider provider(JpaUserDetailsService service, PasswordEncoder encoder) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(service);
+        provider.setPasswordEncoder(encoder);
+        // 운영에서는 Spring Security가 UserDetailsPasswordService 빈을 찾아 연결함
+        provider.setUserDetailsPasswordService(service);
+        return provider;
+    }
+
+    private static void login(DaoAuthenticationProvider provider) {
+        assertThat(provider.authenticate(new UsernamePasswordAuthenticationToken("alice", PASSWORD)).isAuthenticated()).isTrue();
+    }
+
+    private JpaUserDetailsService service(User user) {
+        RoleRegistry roleRegistry = new RoleRegistry(null, null, new RedisMessageListenerContainer(), null);
+        roleRegistry.replace(List.of(user.getRole()));
+        // circuit이 열린 상태로 시작 : 캐시 무효화 메시지를 Redis에 발행하지 않음
+        CircuitBreaker redisCircuitBreaker = new CircuitBreaker(1, Duration.ofMinutes(1));
+        redisCircuitBreaker.onFailure();
+        UserDetailsCache userDetailsCache = new UserDetailsCache(null, new RedisMessageListenerContainer(), redisCircuitBreaker,
+                true, 60, 1_000, Duration.ofSeconds(5));
+        return new JpaUserDetailsService(repository(user), userDetailsCache, roleRegistry,
+                new AuthMetrics(new SimpleMeterRegistry()));
+    }
+
+    // 사용자 한 명만 담은 저장소 (조회, 저장만 지원)
+    private JpaUserRepository repository(User user) {
+        return (JpaUserRepository) Proxy.newProxyInstance(
+                JpaUserRepository.class.getClassLoader(),
+                new Class<?>[]{JpaUserRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findCredentialsByUsername" -> new UserCredentials(user.getUsername(), user.getPassword(),
+                            user.getRoleId(), user.getRole().getRoleName());
+                    case "findByUsername" -> user;
+                    case "save" -> {
+                        saves.incrementAndGet();
+                        yield args[0];
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static User user(String password) {
+        Role role = new Role();
+        role.setRoleId(1);
+        role.setRoleName("USER");
+        User user = new User();
+        user.setUserId(1);
+        user.setUsername("alice");
+        user.setPassword(password);
+        user.setAge(20);
+        user.setRole(role);
+        user.setRoleId(role.getRoleId());
+        return user;
+    }
+}
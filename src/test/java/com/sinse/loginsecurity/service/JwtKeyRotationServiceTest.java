@@ -0,0 +1,112 @@
+package com.sinse.loginsecurity.service;
+
+import com.sinse.loginsecurity.support.EmbeddedRedisExtension;
+import com.sinse.loginsecurity.util.CircuitBreaker;
+import com.sinse.loginsecurity.util.JwtKeyRing;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 내장 Redis로 ES256 키 게시/활성화 확인
+ * - 시작 시 새 키는 게시만 하고 activation-delay가 지나야 서명에 사용하는지
+ * - 루트 키(key-publish-secret)의 HMAC이 맞지 않는 게시 키는 검증 키로 받아들이지 않는지
+ * - Redis가 꺼진 채 시작해도 기동이 실패하지 않고, Redis가 돌아오면 tick()이 키를 게시/활성화하는지
+ */
+class JwtKeyRotationServiceTest {
+
+    private static final String SECRET = "a-very-long-and-secure-secret-key-that-is-at-least-256-bits-long";
+    private static final String PUBLISH_SECRET = "key-publish-secret-shared-by-every-node-0001";
+
+    @RegisterExtension
+    final EmbeddedRedisExtension embeddedRedis = new EmbeddedRedisExtension();
+
+    private StringRedisTemplate redis;
+
+    @BeforeEach
+    void setUp() {
+        redis = embeddedRedis.template();
+    }
+
+    @Test
+    void startPublishesFirstAndActivatesAfterDelay() {
+        JwtKeyRing delayedRing = JwtKeyRing.hmac(SECRET);
+        JwtKeyRotationService delayed = service(delayedRing, Duration.ofHours(1), PUBLISH_SECRET);
+        delayed.start();
+        delayed.tick();
+
+        // 게시는 되었지만 아직 HMAC 키로 서명
+        assertThat(redis.opsForHash().keys(JwtKeyRotationService.KEYS_KEY)).hasSize(1);
+        assertThat(delayedRing.signingKey().kid()).isEqualTo(JwtKeyRing.DEFAULT_KID);
+        String publishedKid = String.valueOf(redis.opsForHash().keys(JwtKeyRotationService.KEYS_KEY).iterator().next());
+        assertThat(delayedRing.verificationKeys()).containsKey(publishedKid);
+
+        JwtKeyRing immediateRing = JwtKeyRing.hmac(SECRET);
+        JwtKeyRotationService immediate = service(immediateRing, Duration.ZERO, PUBLISH_SECRET);
+        immediate.start();
+        assertThat(immediateRing.signingKey().kid()).isEqualTo(JwtKeyRing.DEFAULT_KID);
+        immediate.tick();
+        assertThat(immediateRing.signingKey().kid()).startsWith("es256-");
+        assertThat(immediateRing.signingKey().algorithm()).isEqualTo(SignatureAlgorithm.ES256);
+    }
+
+    @Test
+    void ignoresPublishedKeysWithoutValidHmac() {
+        // 다른 루트 키로 게시된 키
+        JwtKeyRotationService foreign = service(JwtKeyRing.hmac(SECRET), Duration.ZERO, "another-root-key-that-is-long-enough-0002");
+        foreign.start();
+        // HMAC이 없는 키 (Redis에 직접 쓴 값)
+        redis.opsForHash().put(JwtKeyRotationService.KEYS_KEY, "forged",
+                "ES256|" + Instant.now().plusSeconds(3600).toEpochMilli() + "|"
+                        + Base64.getEncoder().encodeToString(Keys.keyPairFor(SignatureAlgorithm.ES256).getPublic().getEncoded()));
+        // 같은 루트 키로 게시된 키
+        JwtKeyRotationService trusted = service(JwtKeyRing.hmac(SECRET), Duration.ZERO, PUBLISH_SECRET);
+        trusted.start();
+
+        JwtKeyRing verifierRing = new JwtKeyRing(SECRET, "", JwtKeyRing.DEFAULT_KID, false);
+        JwtKeyRotationService verifier = new JwtKeyRotationService(verifierRing, redis, new RedisMessageListenerContainer(),
+                new CircuitBreaker(3, Duration.ofSeconds(5)), "es256", false, Duration.ofHours(24), Duration.ZERO, Duration.ofHours(25), PUBLISH_SECRET);
+        verifier.start();
+
+        assertThat(redis.opsForHash().keys(JwtKeyRotationService.KEYS_KEY)).hasSize(3);
+        assertThat(verifierRing.verificationKeys()).hasSize(1);
+        assertThat(verifierRing.verificationKeys().keySet().iterator().next()).startsWith("es256-");
+        assertThat(verifierRing.verificationKeys()).doesNotContainKey("forged");
+    }
+
+    @Test
+    void keepsCurrentKeyWhileRedisIsDownAndPublishesAfterRecovery() throws Exception {
+        JwtKeyRing ring = JwtKeyRing.hmac(SECRET);
+        JwtKeyRotationService service = service(ring, Duration.ZERO, PUBLISH_SECRET);
+
+        embeddedRedis.stop();
+        // ApplicationReadyEvent에서 호출되는 start()가 예외 없이 끝나야 기동이 실패하지 않음
+        service.start();
+        service.tick();
+        assertThat(ring.signingKey().kid()).isEqualTo(JwtKeyRing.DEFAULT_KID);
+
+        embeddedRedis.restart();
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (!ring.signingKey().kid().startsWith("es256-")) {
+            assertThat(System.nanoTime()).as("Redis 복구 후 키 게시/활성화 대기").isLessThan(deadline);
+            service.tick();
+            Thread.sleep(100);
+        }
+        assertThat(redis.opsForHash().keys(JwtKeyRotationService.KEYS_KEY)).hasSize(1);
+    }
+
+    private JwtKeyRotationService service(JwtKeyRing keyRing, Duration activationDelay, String publishSecret) {
+        return new JwtKeyRotationService(keyRing, redis, new RedisMessageListenerContainer(),
+                new CircuitBreaker(1, Duration.ofMillis(100)), "es256", true, Duration.ofHours(24), activationDelay, Duration.ofHours(25), publishSecret);
+    }
+}
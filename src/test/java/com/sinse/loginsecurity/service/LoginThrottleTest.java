@@ -0,0 +1,66 @@
+package com.sinse.loginsecurity.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginThrottleTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    // 분당 6회(10초마다 1회), burst 3 / IP는 제한하지 않음, Redis 없음
+    private LoginThrottle throttle() {
+        return new LoginThrottle(null, null, true, false,
+                new LoginThrottle.Rate(6, 3), new LoginThrottle.Rate(1e9, 1_000),
+                Duration.ofMinutes(1), Long.MAX_VALUE, Long.MAX_VALUE,
+                2, Duration.ofSeconds(1), Duration.ofSeconds(8), 1_000, clock::get);
+    }
+
+    // burst만큼은 연속 허용, 그 다음은 다음 토큰이 찰 때까지 거절
+    @Test
+    void allowsBurstThenRejectsUntilRefill() {
+        LoginThrottle throttle = throttle();
+        for (int i = 0; i < 3; i++) {
+            assertThat(throttle.check("alice", "10.0.0.1").allowed()).isTrue();
+        }
+
+        LoginThrottle.Decision rejected = throttle.check("alice", "10.0.0.1");
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.reason()).isEqualTo("user_rate");
+        assertThat(rejected.retryAfter()).isEqualTo(Duration.ofSeconds(10));
+        // 다른 username은 영향 없음
+        assertThat(throttle.check("bob", "10.0.0.1").allowed()).isTrue();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertThat(throttle.check("alice", "10.0.0.1").allowed()).isTrue();
+        assertThat(throttle.check("alice", "10.0.0.1").allowed()).isFalse();
+    }
+
+    // free-failures(2)를 넘는 실패부터 1초, 2초, 4초 ... 최대 8초 잠금, 성공하면 초기화
+    @Test
+    void backsOffExponentiallyAfterFreeFailures() {
+        LoginThrottle throttle = throttle();
+        assertThat(throttle.backoffNanos(2)).isZero();
+        assertThat(throttle.backoffNanos(3)).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+        assertThat(throttle.backoffNanos(5)).isEqualTo(TimeUnit.SECONDS.toNanos(4));
+        assertThat(throttle.backoffNanos(100)).isEqualTo(TimeUnit.SECONDS.toNanos(8));
+
+        throttle.onFailure("alice");
+        throttle.onFailure("alice");
+        throttle.onFailure("alice");
+        LoginThrottle.Decision locked = throttle.check("alice", "10.0.0.1");
+        assertThat(locked.allowed()).isFalse();
+        assertThat(locked.reason()).isEqualTo("backoff");
+        assertThat(locked.retryAfter()).isEqualTo(Duration.ofSeconds(1));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(throttle.check("alice", "10.0.0.1").allowed()).isTrue();
+        throttle.onSuccess("alice");
+        throttle.onFailure("alice");
+        assertThat(throttle.check("alice", "10.0.0.1").allowed()).isTrue();
+    }
+}
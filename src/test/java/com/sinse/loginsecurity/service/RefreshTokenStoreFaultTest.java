@@ -0,0 +1,121 @@
+package com.sinse.loginsecurity.service;
+
+import com.sinse.loginsecurity.dto.SessionInfo;
+import com.sinse.loginsecurity.service.RefreshTokenStore.RotateResult;
+import com.sinse.loginsecurity.support.EmbeddedRedisExtension;
+import com.sinse.loginsecurity.util.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 내장 Redis를 실제로 껐다 켜며 RefreshTokenStore의 장애 대응(degraded mode) 확인
+ * - Redis가 꺼진 동안 로그인/재발급이 타임아웃에 묶이지 않고 로컬 저장소로 처리되는지
+ * - 다시 켜지면 로컬 변경이 Redis에 반영되고 circuit이 닫히는지
+ */
+class RefreshTokenStoreFaultTest {
+
+    private static final Duration TTL = Duration.ofHours(1);
+
+    @RegisterExtension
+    final EmbeddedRedisExtension embeddedRedis = new EmbeddedRedisExtension();
+
+    private StringRedisTemplate redis;
+    private RefreshTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        redis = embeddedRedis.template();
+
+        // 연속 2회 실패하면 OPEN, 200ms 뒤 시험 호출
+        store = new RefreshTokenStore(redis, Duration.ofSeconds(10), 2, Duration.ofMillis(200), 1_000, TTL);
+    }
+
+    @Test
+    void fallsBackToLocalStoreAndReconcilesAfterRecovery() throws Exception {
+        store.save("alice", "before", "rt-0", TTL);
+        store.save("bob", "b1", "rt-b", TTL);
+        assertThat(redis.opsForValue().get(RefreshTokenStore.sessionKey("alice", "before")))
+                .isEqualTo(RefreshTokenStore.digest("rt-0"));
+
+        embeddedRedis.stop();
+
+        // 장애 중 로그인 : 처음 몇 번만 타임아웃 이내로 실패하고, circuit이 열린 뒤에는 Redis를 기다리지 않음
+        long started = System.nanoTime();
+        for (int i = 0; i < 20; i++) {
+            store.save("load", "s" + i, "rt-" + i, TTL);
+        }
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(2));
+        assertThat(store.circuitState()).isNotEqualTo(CircuitBreaker.State.CLOSED);
+
+        store.save("alice", "during", "rt-1", TTL);
+        assertThat(store.rotate("alice", "during", "rt-1", "rt-2", TTL)).isEqualTo(RotateResult.ROTATED);
+        // 이미 교체된 토큰 재사용은 로컬에서도 거절
+        assertThat(store.rotate("alice", "during", "rt-1", "rt-3", TTL)).isEqualTo(RotateResult.MISMATCH);
+        // 장애 전에 Redis에만 저장된 세션은 확인할 수 없으므로 재로그인
+        assertThat(store.rotate("alice", "before", "rt-0", "rt-9", TTL)).isEqualTo(RotateResult.MISSING);
+        assertThat(store.list("alice", "during")).extracting(SessionInfo::sessionId).containsExactly("during");
+        // 장애 중 모든 기기 로그아웃 : 복구 후 Redis에 있던 세션도 지워져야 함
+        store.revokeAll("bob");
+        store.revoke("load", "s0");
+
+        embeddedRedis.restart();
+        awaitReconciled(store);
+
+        assertThat(redis.opsForValue().get(RefreshTokenStore.sessionKey("alice", "during")))
+                .isEqualTo(RefreshTokenStore.digest("rt-2"));
+        assertThat(redis.hasKey(RefreshTokenStore.sessionKey("bob", "b1"))).isFalse();
+        assertThat(redis.hasKey(RefreshTokenStore.sessionKey("load", "s0"))).isFalse();
+        assertThat(redis.hasKey(RefreshTokenStore.sessionKey("load", "s1"))).isTrue();
+        // 반영된 뒤에는 Redis에서 재발급
+        assertThat(store.rotate("alice", "during", "rt-2", "rt-3", TTL)).isEqualTo(RotateResult.ROTATED);
+        assertThat(store.list("alice", "during")).extracting(SessionInfo::sessionId).containsExactly("before", "during");
+    }
+
+    // 장애 중 로그아웃이 local-max-sessions를 넘어도 받아 둔 폐기는 버려지지 않고, 넘친 폐기는 503으로 거절
+    @Test
+    void keepsRevocationsBeyondLocalCapacityUntilReconciled() throws Exception {
+        RefreshTokenStore small = new RefreshTokenStore(redis, Duration.ofSeconds(10), 2, Duration.ofMillis(200), 3, TTL);
+        for (int i = 0; i < 4; i++) {
+            small.save("alice", "s" + i, "rt-" + i, TTL);
+        }
+
+        embeddedRedis.stop();
+
+        for (int i = 0; i < 3; i++) {
+            small.revoke("alice", "s" + i);
+        }
+        assertThatThrownBy(() -> small.revoke("alice", "s3")).isInstanceOf(RedisUnavailableException.class);
+        // 로컬 세션 캐시를 크기 제한 이상으로 채워도 폐기 기록은 남아 있음
+        for (int i = 0; i < 10; i++) {
+            small.save("load", "l" + i, "rt-l" + i, TTL);
+        }
+        assertThat(small.circuitState()).isNotEqualTo(CircuitBreaker.State.CLOSED);
+
+        embeddedRedis.restart();
+        awaitReconciled(small);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(redis.hasKey(RefreshTokenStore.sessionKey("alice", "s" + i))).isFalse();
+            assertThat(small.rotate("alice", "s" + i, "rt-" + i, "rt-new", TTL)).isEqualTo(RotateResult.MISSING);
+        }
+        // 거절된 로그아웃의 세션은 그대로 (클라이언트가 다시 요청)
+        assertThat(redis.hasKey(RefreshTokenStore.sessionKey("alice", "s3"))).isTrue();
+    }
+
+    // Redis가 돌아오면(재연결) 예약 작업이 밀린 변경을 반영하고 circuit을 닫을 때까지 기다림
+    private void awaitReconciled(RefreshTokenStore store) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (store.pendingReconciliation() > 0 || store.circuitState() != CircuitBreaker.State.CLOSED) {
+            assertThat(System.nanoTime()).as("Redis 복구 후 반영 대기").isLessThan(deadline);
+            store.reconcile();
+            Thread.sleep(100);
+        }
+    }
+}
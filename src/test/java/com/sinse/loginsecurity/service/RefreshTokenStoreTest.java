@@ -0,0 +1,126 @@
+package com.sinse.loginsecurity.service;
+
+import com.sinse.loginsecurity.service.RefreshTokenStore.RotateResult;
+import com.sinse.loginsecurity.support.EmbeddedRedisExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 내장 Redis로 RefreshTokenStore의 Redis 스크립트, 명령 수 확인
+ */
+class RefreshTokenStoreTest {
+
+    private static final Duration TTL = Duration.ofHours(1);
+    private static final int THREADS = 16;
+
+    @RegisterExtension
+    final EmbeddedRedisExtension embeddedRedis = new EmbeddedRedisExtension();
+
+    // 같은 토큰으로 동시에 교체 : ROTATE_SCRIPT가 원자적이므로 하나만 ROTATED, 나머지는 이미 바뀐 토큰과 비교됨
+    @Test
+    void concurrentRotationsOfSameTokenRotateExactlyOnce() throws Exception {
+        // 유예 없음 : 나머지는 MISMATCH
+        assertThat(rotateConcurrently(Duration.ZERO))
+                .containsEntry(RotateResult.ROTATED, 1)
+                .containsEntry(RotateResult.MISMATCH, THREADS - 1)
+                .hasSize(2);
+        // 유예 있음 : 나머지는 GRACE (세션은 그대로, 액세스 토큰만 재발급)
+        assertThat(rotateConcurrently(Duration.ofSeconds(10)))
+                .containsEntry(RotateResult.ROTATED, 1)
+                .containsEntry(RotateResult.GRACE, THREADS - 1)
+                .hasSize(2);
+    }
+
+    // 모든 세션 폐기 : 세션 목록 조회(HKEYS) 1회 + 모든 세션 키와 목록을 지우는 DEL 1회
+    @Test
+    void revokeAllDeletesEverySessionWithOneDel() {
+        StringRedisTemplate redis = embeddedRedis.template();
+        RefreshTokenStore store = new RefreshTokenStore(redis, Duration.ofSeconds(10), 3, Duration.ofSeconds(5), 1_000, TTL);
+        for (int i = 0; i < 5; i++) {
+            store.save("alice", "s" + i, "rt-" + i, TTL);
+        }
+        store.save("bob", "b1", "rt-b", TTL);
+
+        redis.execute((RedisCallback<Void>) connection -> {
+            connection.serverCommands().resetConfigStats();
+            return null;
+        });
+        assertThat(store.revokeAll("alice")).isEqualTo(5);
+        Properties stats = redis.execute((RedisCallback<Properties>) connection ->
+                connection.serverCommands().info("commandstats"));
+
+        assertThat(calls(stats, "hkeys")).isEqualTo(1);
+        assertThat(calls(stats, "del")).isEqualTo(1);
+        // 그 밖의 명령은 통계 초기화(CONFIG)와 통계 조회(INFO)뿐
+        assertThat(stats.stringPropertyNames()).filteredOn(name -> name.startsWith("cmdstat_"))
+                .isSubsetOf("cmdstat_hkeys", "cmdstat_del", "cmdstat_config", "cmdstat_info");
+        assertThat(redis.keys("*alice*")).isEmpty();
+        // 다른 사용자의 세션은 그대로
+        assertThat(store.rotate("bob", "b1", "rt-b", "rt-b2", TTL)).isEqualTo(RotateResult.ROTATED);
+    }
+
+    // cmdstat_del:calls=1,usec=...,usec_per_call=... 에서 calls 값
+    private static long calls(Properties stats, String command) {
+        String value = stats.getProperty("cmdstat_" + command, "calls=0");
+        return Long.parseLong(value.substring("calls=".length(), value.indexOf(',') < 0 ? value.length() : value.indexOf(',')));
+    }
+
+    private Map<RotateResult, Integer> rotateConcurrently(Duration grace) throws Exception {
+        StringRedisTemplate redis = embeddedRedis.template();
+        RefreshTokenStore store = new RefreshTokenStore(redis, grace, 3, Duration.ofSeconds(5), 1_000, TTL);
+        String sessionId = store.newSessionId();
+        store.save("alice", sessionId, "rt-0", TTL);
+
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<String>> winners = new ArrayList<>();
+        Map<RotateResult, Integer> results = new EnumMap<>(RotateResult.class);
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                String newToken = "rt-1-" + i;
+                winners.add(executor.submit(() -> {
+                    ready.countDown();
+                    go.await(5, TimeUnit.SECONDS);
+                    RotateResult result = store.rotate("alice", sessionId, "rt-0", newToken, TTL);
+                    synchronized (results) {
+                        results.merge(result, 1, Integer::sum);
+                    }
+                    return result == RotateResult.ROTATED ? newToken : null;
+                }));
+            }
+            assertThat(ready.await(5, TimeUnit.SECONDS)).isTrue();
+            go.countDown();
+
+            String winner = null;
+            for (Future<String> future : winners) {
+                String token = future.get(5, TimeUnit.SECONDS);
+                if (token != null) {
+                    winner = token;
+                }
+            }
+            // Redis에는 ROTATED를 받은 요청의 새 토큰만 남음
+            assertThat(redis.opsForValue().get(RefreshTokenStore.sessionKey("alice", sessionId)))
+                    .isEqualTo(RefreshTokenStore.digest(winner));
+        }
+
+        // 발급한 적 없는 토큰은 유예와 관계없이 MISMATCH
+        assertThat(store.rotate("alice", sessionId, "forged", "rt-2", TTL)).isEqualTo(RotateResult.MISMATCH);
+        return results;
+    }
+}
@@ -0,0 +1,141 @@
+package com.sinse.loginsecurity.service;
+
+import com.sinse.loginsecurity.service.RefreshTokenStore.RotateResult;
+import com.sinse.loginsecurity.service.ReissueCoalescer.Reissued;
+import com.sinse.loginsecurity.support.EmbeddedRedisExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReissueCoalescerTest {
+
+    private static final Duration TTL = Duration.ofHours(1);
+
+    // replayAfterRevokeWithinGraceIsRejected에서만 Redis를 띄움
+    @RegisterExtension
+    final EmbeddedRedisExtension embeddedRedis = new EmbeddedRedisExtension();
+
+    // 같은 토큰으로 동시에 온 요청 : 재발급은 한 번, 새 리프레시 토큰은 실행한 요청만 받음
+    @Test
+    void concurrentRequestsShareOneRotation() throws Exception {
+        ReissueCoalescer coalescer = new ReissueCoalescer(Duration.ofSeconds(10));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        coalescer.bindTo(registry);
+        AtomicInteger rotations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Reissued>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> coalescer.reissue("old-token", () -> {
+                    rotations.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return new Reissued(RotateResult.ROTATED, "access", "refresh", false);
+                })));
+            }
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            // 나머지 요청이 모두 실행 중인 재발급에 붙은 뒤 끝냄
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (registry.get("auth.reissue.coalesced").functionCounter().count() < 7) {
+                assertThat(System.nanoTime()).as("동시 요청 대기").isLessThan(deadline);
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            int shared = 0;
+            for (Future<Reissued> result : results) {
+                Reissued reissued = result.get(5, TimeUnit.SECONDS);
+                assertThat(reissued.accessToken()).isEqualTo("access");
+                if (reissued.shared()) {
+                    shared++;
+                    assertThat(reissued.refreshToken()).isNull();
+                } else {
+                    assertThat(reissued.refreshToken()).isEqualTo("refresh");
+                }
+            }
+            assertThat(rotations).hasValue(1);
+            assertThat(shared).isEqualTo(7);
+        }
+
+        // 끝난 뒤에 온 요청은 결과를 받지 않고 다시 교체를 시도함 (Redis에서 유예 확인)
+        Reissued late = coalescer.reissue("old-token", () -> {
+            rotations.incrementAndGet();
+            return new Reissued(RotateResult.GRACE, "access-2", null, false);
+        });
+        assertThat(rotations).hasValue(2);
+        assertThat(late.shared()).isFalse();
+        assertThat(late.refreshToken()).isNull();
+    }
+
+    // 발급하지 못한 결과는 남기지 않음 : 다음 요청이 다시 확인
+    @Test
+    void rejectedResultIsNotRetained() {
+        ReissueCoalescer coalescer = new ReissueCoalescer(Duration.ofSeconds(10));
+        AtomicInteger rotations = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            Reissued reissued = coalescer.reissue("old-token", () -> {
+                rotations.incrementAndGet();
+                return Reissued.rejected(RotateResult.MISMATCH);
+            });
+            assertThat(reissued.issued()).isFalse();
+        }
+        assertThat(rotations).hasValue(2);
+    }
+
+    // 내장 Redis : 교체 후 로그아웃(세션 폐기)하면 유예 시간 안이라도 직전 토큰으로 재발급할 수 없음
+    @Test
+    void replayAfterRevokeWithinGraceIsRejected() {
+        RefreshTokenStore store = new RefreshTokenStore(embeddedRedis.template(), Duration.ofSeconds(10),
+                3, Duration.ofSeconds(5), 1_000, TTL);
+        ReissueCoalescer coalescer = new ReissueCoalescer(Duration.ofSeconds(10));
+        store.save("alice", "s1", "rt-0", TTL);
+
+        Reissued rotated = coalescer.reissue("rt-0", () -> rotate(store, "rt-0", "rt-1"));
+        assertThat(rotated.result()).isEqualTo(RotateResult.ROTATED);
+        assertThat(rotated.refreshToken()).isEqualTo("rt-1");
+
+        // 유예 시간 안의 직전 토큰 : 액세스 토큰만
+        Reissued grace = coalescer.reissue("rt-0", () -> rotate(store, "rt-0", "rt-2"));
+        assertThat(grace.result()).isEqualTo(RotateResult.GRACE);
+        assertThat(grace.refreshToken()).isNull();
+
+        store.revoke("alice", "s1");
+
+        Reissued replay = coalescer.reissue("rt-0", () -> rotate(store, "rt-0", "rt-3"));
+        assertThat(replay.issued()).isFalse();
+        assertThat(replay.result()).isEqualTo(RotateResult.MISSING);
+    }
+
+    // UserController.rotateTokens와 같은 규칙 : ROTATED만 새 리프레시 토큰을 돌려주고, GRACE는 액세스 토큰만
+    private static Reissued rotate(RefreshTokenStore store, String oldRefreshToken, String newRefreshToken) {
+        RotateResult result = store.rotate("alice", "s1", oldRefreshToken, newRefreshToken, TTL);
+        return switch (result) {
+            case ROTATED -> new Reissued(result, "access-" + newRefreshToken, newRefreshToken, false);
+            case GRACE -> new Reissued(result, "access-" + newRefreshToken, null, false);
+            default -> Reissued.rejected(result);
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
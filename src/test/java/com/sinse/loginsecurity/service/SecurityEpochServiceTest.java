@@ -0,0 +1,131 @@
+package com.sinse.loginsecurity.service;
+
+import com.sinse.loginsecurity.config.JwtFilter;
+import com.sinse.loginsecurity.support.EmbeddedRedisExtension;
+import com.sinse.loginsecurity.util.AuthMetrics;
+import com.sinse.loginsecurity.util.CircuitBreaker;
+import com.sinse.loginsecurity.util.JwtUtil;
+import com.sinse.loginsecurity.util.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 내장 Redis로 보안 epoch 확인
+ * - 한 노드에서 epoch를 올리면 다른 노드의 stateless JwtFilter가 그 이전 토큰을 거절하는지
+ * - Redis를 끈 뒤 로컬 캐시(local-ttl)가 만료되어도 마지막으로 본 epoch가 적용되는지,
+ *   한 번도 보지 못한 사용자는 stateless 모드에서 fail-closed 되는지
+ */
+class SecurityEpochServiceTest {
+
+    @RegisterExtension
+    final EmbeddedRedisExtension embeddedRedis = new EmbeddedRedisExtension();
+
+    private StringRedisTemplate redis;
+
+    @BeforeEach
+    void setUp() {
+        redis = embeddedRedis.template();
+    }
+
+    @Test
+    void bumpOnOneNodeRejectsOlderTokensOnAnother() throws Exception {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redis.getConnectionFactory());
+        CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofSeconds(5));
+        SecurityEpochService nodeA = new SecurityEpochService(redis, container, breaker, 60, 1_000, 1_000, true);
+        SecurityEpochService nodeB = new SecurityEpochService(redis, container, breaker, 60, 1_000, 1_000, true);
+        AccessTokenRevocationService revocations = new AccessTokenRevocationService(redis, container, breaker,
+                1_000, 0.01, 1_000, 60_000);
+        RoleRegistry roleRegistry = new RoleRegistry(null, null, container, null);
+        roleRegistry.replace(List.of());
+        container.afterPropertiesSet();
+        container.start();
+        try {
+            revocations.rebuild();
+            JwtUtil jwtUtil = new JwtUtil("a-very-long-and-secure-secret-key-that-is-at-least-256-bits-long");
+            JwtFilter filterOnA = new JwtFilter(new VerifiedTokenCache(jwtUtil, false, 1_000), null, nodeA, true,
+                    new AuthMetrics(new SimpleMeterRegistry()), roleRegistry, revocations);
+
+            // 노드 A가 epoch 0을 로컬 캐시에 담은 뒤 노드 B에서 로그아웃(모든 기기) 등으로 epoch를 올림
+            String before = jwtUtil.createJwt("alice", "ROLE_USER", nodeA.current("alice"), 60_000L);
+            assertThat(authenticates(filterOnA, before)).isTrue();
+            assertThat(nodeB.bump("alice")).isEqualTo(1L);
+
+            // pub/sub으로 노드 A의 로컬 캐시가 갱신됨 (local-ttl을 기다리지 않음)
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (!Long.valueOf(1L).equals(nodeA.cachedCurrent("alice"))) {
+                assertThat(System.nanoTime()).as("epoch 변경 알림 대기").isLessThan(deadline);
+                Thread.sleep(10);
+            }
+            assertThat(authenticates(filterOnA, before)).isFalse();
+            assertThat(nodeA.isRevoked("alice", 0)).isTrue();
+            // 올린 뒤 발급된 토큰은 그대로 통과
+            assertThat(authenticates(filterOnA, jwtUtil.createJwt("alice", "ROLE_USER", 1L, 60_000L))).isTrue();
+        } finally {
+            container.destroy();
+        }
+    }
+
+    @Test
+    void usesLastKnownEpochAndFailsClosedForUnknownUsersWhileRedisIsDown() throws Exception {
+        // 한 번 실패하면 OPEN, 테스트 동안 계속 열려 있음
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMinutes(1));
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        SecurityEpochService stateless = new SecurityEpochService(redis, container, breaker, 1, 1_000, 1_000, true);
+        SecurityEpochService stateful = new SecurityEpochService(redis, container, breaker, 1, 1_000, 1_000, false);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        stateless.bindTo(registry);
+
+        // 장애 전에 올린 epoch를 한 번 읽어 둠
+        redis.opsForValue().set(SecurityEpochService.KEY_PREFIX + "alice", "3");
+        assertThat(stateless.current("alice")).isEqualTo(3L);
+
+        embeddedRedis.stop();
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (stateless.cachedCurrent("alice") != null) {
+            assertThat(System.nanoTime()).as("로컬 캐시 만료 대기").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+
+        // 로컬 캐시가 만료되어도 장애 전 epoch 이전에 발급된 토큰은 계속 거절
+        assertThat(stateless.isRevoked("alice", 2)).isTrue();
+        assertThat(stateless.isRevoked("alice", 3)).isFalse();
+        assertThat(stateless.current("alice")).isEqualTo(3L);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // 한 번도 보지 못한 사용자 : stateless 모드는 거절, 그 외에는 0으로 처리 (요청마다 DB 조회)
+        assertThat(stateless.isRevoked("bob", 0)).isTrue();
+        assertThat(stateless.current("bob")).isZero();
+        assertThat(stateful.isRevoked("bob", 0)).isFalse();
+
+        assertThat(registry.get("auth.epoch.fallback").tag("outcome", "last_known").functionCounter().count())
+                .isEqualTo(3.0);
+        assertThat(registry.get("auth.epoch.fallback").tag("outcome", "unknown").functionCounter().count())
+                .isEqualTo(2.0);
+    }
+
+    private static boolean authenticates(JwtFilter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/info");
+        request.setServletPath("/info");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication() != null;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.sinse.loginsecurity.service;
+
+import com.sinse.loginsecurity.config.OffloadingPasswordEncoder;
+import com.sinse.loginsecurity.controller.UserBulkImportController;
+import com.sinse.loginsecurity.domain.Role;
+import com.sinse.loginsecurity.domain.User;
+import com.sinse.loginsecurity.dto.BulkImportFailure;
+import com.sinse.loginsecurity.dto.BulkImportResult;
+import com.sinse.loginsecurity.dto.UserDTO;
+import com.sinse.loginsecurity.repository.JpaRoleRepository;
+import com.sinse.loginsecurity.repository.JpaUserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * UserBulkImportService의 행 단위 실패 처리 확인 (H2, MySQL 모드)
+ * - 요청 안의 중복, 이미 가입된 username, 형식이 잘못된 CSV 행, 해싱 예외는 해당 행만 실패로 기록하고 나머지는 저장
+ *
+ * 서비스가 batch 단위로 직접 트랜잭션을 열고 롤백하므로 테스트 트랜잭션으로 감싸지 않음
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulk-import;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserBulkImportServiceTest {
+
+    // 이 비밀번호는 해싱하다 예외가 남 (72바이트를 넘는 BCrypt 비밀번호 대역)
+    private static final String UNHASHABLE = "unhashable";
+
+    @Autowired
+    private JpaUserRepository jpaUserRepository;
+    @Autowired
+    private JpaRoleRepository jpaRoleRepository;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private OffloadingPasswordEncoder passwordEncoder;
+    private UserBulkImportService userBulkImportService;
+    private Role role;
+
+    @BeforeEach
+    void setUp() {
+        jpaUserRepository.deleteAllInBatch();
+        jpaRoleRepository.deleteAllInBatch();
+        role = new Role();
+        role.setRoleName("USER");
+        role = jpaRoleRepository.save(role);
+        RoleRegistry roleRegistry = new RoleRegistry(null, null, new RedisMessageListenerContainer(), null);
+        roleRegistry.replace(List.of(role));
+
+        passwordEncoder = new OffloadingPasswordEncoder(new FailingPasswordEncoder(), 1, 10, Duration.ofSeconds(5));
+        // batch-size 2 : 한 요청이 여러 batch로 나뉘어 저장되도록 함
+        userBulkImportService = new UserBulkImportService(jpaUserRepository, roleRegistry, new JdbcTemplate(dataSource),
+                transactionManager, passwordEncoder, 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userBulkImportService.destroy();
+        passwordEncoder.close();
+    }
+
+    @Test
+    void duplicateUsernamesFailOnlyTheirRows() {
+        User existing = new User();
+        existing.setUsername("alice");
+        existing.setPassword("{noop}password");
+        existing.setAge(20);
+        existing.setRole(role);
+        jpaUserRepository.save(existing);
+
+        BulkImportResult result = userBulkImportService.importUsers(
+                List.of(user("bob", "secret"), user("bob", "other"), user("alice", "secret"), user("carol", "secret")));
+
+        assertThat(result.requested()).isEqualTo(4);
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.failures()).extracting(BulkImportFailure::row, BulkImportFailure::username)
+                .containsExactlyInAnyOrder(tuple(2, "bob"), tuple(3, "alice"));
+        assertThat(jpaUserRepository.findByUsername("bob").getPassword()).isEqualTo("{noop}secret");
+        assertThat(jpaUserRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void malformedCsvRowsFailOnlyTheirRows() throws Exception {
+        String csv = """
+                username,password,age,role
+                alice,"pa,ss""word",20,USER
+                bob,secret,twenty,USER
+                carol,secret,20
+                "dave,secret,20,USER
+                erin,secret,20,ADMIN
+                frank,secret,30,USER
+                """;
+
+        BulkImportResult result = userBulkImportService.importCsv(new StringReader(csv));
+
+        assertThat(result.requested()).isEqualTo(6);
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.failures()).extracting(BulkImportFailure::row).containsExactlyInAnyOrder(2, 3, 4, 5);
+        // 따옴표로 감싼 필드 안의 쉼표와 "" 는 비밀번호의 일부
+        assertThat(jpaUserRepository.findByUsername("alice").getPassword()).isEqualTo("{noop}pa,ss\"word");
+        assertThat(jpaUserRepository.findByUsername("frank")).isNotNull();
+    }
+
+    @Test
+    void hashingFailureFailsOnlyThatRow() {
+        BulkImportResult result = userBulkImportService.importUsers(
+                List.of(user("alice", "secret"), user("bob", UNHASHABLE), user("carol", "secret")));
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.failures()).singleElement().satisfies(failure -> {
+            assertThat(failure.row()).isEqualTo(2);
+            assertThat(failure.username()).isEqualTo("bob");
+            assertThat(failure.reason()).startsWith("비밀번호 해싱에 실패했습니다.");
+        });
+        assertThat(jpaUserRepository.findByUsername("bob")).isNull();
+    }
+
+    @Test
+    void csvUploadReportsFailuresWithOk() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new UserBulkImportController(userBulkImportService)).build();
+
+        mockMvc.perform(post("/users/bulk")
+                        .contentType("text/csv")
+                        .content("username,password,age,role\nalice,secret,20,USER\nbob," + UNHASHABLE + ",20,USER\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(2))
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failures[0].row").value(2))
+                .andExpect(jsonPath("$.failures[0].username").value("bob"));
+    }
+
+    // charset이 없는 CSV는 UTF-8, 선언된 charset이 있으면 그대로 따름
+    @Test
+    void csvUploadDecodesUtf8UnlessCharsetIsDeclared() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new UserBulkImportController(userBulkImportService)).build();
+
+        mockMvc.perform(post("/users/bulk")
+                        .contentType("text/csv")
+                        .content("username,password,age,role\n홍길동,secret,20,USER\n".getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+        mockMvc.perform(post("/users/bulk")
+                        .contentType("text/csv;charset=EUC-KR")
+                        .content("username,password,age,role\n김철수,secret,20,USER\n".getBytes(Charset.forName("EUC-KR"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+
+        assertThat(jpaUserRepository.findByUsername("홍길동")).isNotNull();
+        assertThat(jpaUserRepository.findByUsername("김철수")).isNotNull();
+    }
+
+    @Test
+    void parsesQuotedCsvFields() {
+        assertThat(UserBulkImportService.parseCsvLine("a,\"b,c\",\"d\"\"e\",")).containsExactly("a", "b,c", "d\"e", "");
+        assertThat(UserBulkImportService.parseCsvLine("\"unterminated,x")).isNull();
+        assertThat(UserBulkImportService.parseCsvLine("\"a\"b,c")).isNull();
+    }
+
+    private static UserDTO user(String username, String password) {
+        UserDTO user = new UserDTO();
+        user.setUsername(username);
+        user.setPassword(password);
+        user.setAge(20);
+        user.setRole("USER");
+        return user;
+    }
+
+    // {noop} 접두사만 붙이는 인코더, UNHASHABLE은 BCrypt의 길이 제한처럼 예외를 던짐
+    private static final class FailingPasswordEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if (UNHASHABLE.contentEquals(rawPassword)) {
+                throw new IllegalArgumentException("password cannot be more than 72 bytes");
+            }
+            return "{noop}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals(encode(rawPassword));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.sinse.loginsecurity.support;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * 테스트마다 새 내장 Redis를 쓰기 위한 JUnit 확장 (EmbeddedRedis 참고)
+ *
+ * <pre>
+ * &#64;RegisterExtension
+ * final EmbeddedRedisExtension embeddedRedis = new EmbeddedRedisExtension();
+ * </pre>
+ *
+ * Redis는 template()을 처음 호출할 때 띄우고 테스트가 끝나면 내림 -> Redis를 쓰지 않는 테스트는 띄우지 않음
+ */
+public final class EmbeddedRedisExtension implements AfterEachCallback {
+
+    private EmbeddedRedis redis;
+
+    public StringRedisTemplate template() {
+        return redis().template();
+    }
+
+    // Redis 장애 재현
+    public void stop() throws IOException {
+        redis().stop();
+    }
+
+    public void restart() throws IOException {
+        redis().restart();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) throws IOException {
+        if (redis != null) {
+            try {
+                redis.close();
+            } finally {
+                redis = null;
+            }
+        }
+    }
+
+    private EmbeddedRedis redis() {
+        if (redis == null) {
+            try {
+                redis = EmbeddedRedis.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return redis;
+    }
+}
@@ -0,0 +1,44 @@
+package com.sinse.loginsecurity.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    // 넣은 값은 항상 "있을 수도 있음" (false negative가 있으면 폐기된 토큰이 통과함)
+    @Test
+    void neverReportsInsertedValueAsAbsent() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        String[] tokenIds = new String[10_000];
+        for (int i = 0; i < tokenIds.length; i++) {
+            tokenIds[i] = UUID.randomUUID().toString();
+            filter.put(tokenIds[i]);
+        }
+
+        for (String tokenId : tokenIds) {
+            assertThat(filter.mightContain(tokenId)).isTrue();
+        }
+    }
+
+    // 예상 개수만큼 넣었을 때 오탐률이 목표(1%)에서 크게 벗어나지 않아야 Redis 조회가 드물게 일어남
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(UUID.randomUUID().toString());
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / probes).isLessThan(0.02);
+    }
+}
@@ -0,0 +1,68 @@
+package com.sinse.loginsecurity.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofSeconds(5), clock::get);
+
+    // 연속 실패가 한도에 도달하면 OPEN, 중간에 성공하면 다시 셈
+    @Test
+    void opensAfterConsecutiveFailures() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    // open-duration이 지나면 시험 호출 하나만 허용 : 실패하면 다시 OPEN, 성공하면 CLOSED
+    @Test
+    void allowsSingleProbeAfterOpenDuration() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure();
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.onSuccess()).isTrue();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.onSuccess()).isFalse();
+    }
+
+    // 시험 호출이 DataAccessException이 아닌 예외로 끝나도 실패로 기록되어 다음 시험 호출을 막지 않음
+    @Test
+    void probeEndingWithUnexpectedExceptionIsReleased() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure();
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThatThrownBy(() -> breaker.call(() -> Long.parseLong("not-a-number")))
+                .isInstanceOf(NumberFormatException.class);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.call(() -> 1L)).isEqualTo(1L);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+}
@@ -0,0 +1,74 @@
+package com.sinse.loginsecurity.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtClaimProfileTest {
+
+    private static final String SECRET = "a-very-long-and-secure-secret-key-that-is-at-least-256-bits-long";
+
+    // role 테이블 대신 USER=1, ADMIN=2
+    private static final RoleCodes ROLE_CODES = new RoleCodes() {
+        @Override
+        public Integer codeOf(String authority) {
+            return switch (authority) {
+                case "ROLE_USER" -> 1;
+                case "ROLE_ADMIN" -> 2;
+                default -> null;
+            };
+        }
+
+        @Override
+        public String authorityOf(int code) {
+            return switch (code) {
+                case 1 -> "ROLE_USER";
+                case 2 -> "ROLE_ADMIN";
+                default -> null;
+            };
+        }
+    };
+
+    @Test
+    void compactTokensAreSmallerAndCarryTheSameClaims() {
+        JwtKeyRing keyRing = JwtKeyRing.hmac(SECRET);
+        JwtUtil legacy = new JwtUtil(keyRing, ROLE_CODES, "legacy");
+        JwtUtil compact = new JwtUtil(keyRing, ROLE_CODES, "compact");
+
+        String legacyToken = legacy.createJwt("user", "ROLE_ADMIN", 3L, "session-1", 60_000L);
+        String compactToken = compact.createJwt("user", "ROLE_ADMIN", 3L, "session-1", 60_000L);
+        assertThat(compactToken.length()).isLessThan(legacyToken.length());
+
+        JwtClaims claims = compact.verify(compactToken);
+        assertThat(claims.username()).isEqualTo("user");
+        assertThat(claims.role()).isEqualTo("ROLE_ADMIN");
+        assertThat(claims.epoch()).isEqualTo(3L);
+        assertThat(claims.sessionId()).isEqualTo("session-1");
+        assertThat(claims.tokenId()).hasSize(22);
+    }
+
+    // 이관 중에는 어느 쪽 설정으로 발급된 토큰이든 모든 노드에서 검증되어야 함
+    @Test
+    void bothProfilesAreAcceptedRegardlessOfIssuingProfile() {
+        JwtKeyRing keyRing = JwtKeyRing.hmac(SECRET);
+        JwtUtil legacy = new JwtUtil(keyRing, ROLE_CODES, "legacy");
+        JwtUtil compact = new JwtUtil(keyRing, ROLE_CODES, "compact");
+
+        JwtClaims fromLegacy = compact.verify(legacy.createJwt("user", "ROLE_USER", 60_000L));
+        assertThat(fromLegacy.username()).isEqualTo("user");
+        assertThat(fromLegacy.role()).isEqualTo("ROLE_USER");
+
+        JwtClaims fromCompact = legacy.verify(compact.createJwt("user", "ROLE_USER", 60_000L));
+        assertThat(fromCompact.username()).isEqualTo("user");
+        assertThat(fromCompact.role()).isEqualTo("ROLE_USER");
+        assertThat(fromCompact.epoch()).isZero();
+    }
+
+    // 코드가 없는 역할은 문자열 그대로 기록
+    @Test
+    void unknownRolesFallBackToTheAuthorityString() {
+        JwtUtil compact = new JwtUtil(JwtKeyRing.hmac(SECRET), ROLE_CODES, "compact");
+        String token = compact.createJwt("user", "ROLE_AUDITOR", 60_000L);
+        assertThat(compact.verify(token).role()).isEqualTo("ROLE_AUDITOR");
+    }
+}
@@ -0,0 +1,65 @@
+package com.sinse.loginsecurity.util;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtKeyRingTest {
+
+    private static final String SECRET = "a-very-long-and-secure-secret-key-that-is-at-least-256-bits-long";
+
+    // 키를 교체해도 이전 키로 발급된 토큰은 계속 검증되어야 함 (overlap)
+    @Test
+    void tokensSignedBeforeRotationStayValid() {
+        JwtKeyRing keyRing = JwtKeyRing.hmac(SECRET);
+        JwtUtil jwtUtil = new JwtUtil(keyRing);
+        String hmacToken = jwtUtil.createJwt("user", "ROLE_USER", 60_000L);
+
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        keyRing.activate("es256-1", SignatureAlgorithm.ES256, keyPair.getPrivate(), keyPair.getPublic(), null);
+        String ecToken = jwtUtil.createJwt("user", "ROLE_USER", 60_000L);
+
+        assertThat(jwtUtil.verify(hmacToken).username()).isEqualTo("user");
+        assertThat(jwtUtil.verify(ecToken).username()).isEqualTo("user");
+    }
+
+    // 검증 노드는 공개키만으로 검증할 수 있어야 함
+    @Test
+    void verifiesWithPublishedPublicKeyOnly() {
+        JwtKeyRing signerRing = JwtKeyRing.hmac(SECRET);
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        signerRing.activate("es256-1", SignatureAlgorithm.ES256, keyPair.getPrivate(), keyPair.getPublic(), null);
+        String token = new JwtUtil(signerRing).createJwt("user", "ROLE_USER", 60_000L);
+
+        JwtKeyRing verifierRing = new JwtKeyRing(SECRET, "", JwtKeyRing.DEFAULT_KID, false);
+        verifierRing.replacePublished(Map.of("es256-1",
+                new JwtKeyRing.VerificationKey(SignatureAlgorithm.ES256, keyPair.getPublic(), Instant.now().plusSeconds(60))));
+
+        assertThat(new JwtUtil(verifierRing).verify(token).username()).isEqualTo("user");
+    }
+
+    // 만료된 공개키와 알 수 없는 kid는 거부
+    @Test
+    void rejectsRetiredAndUnknownKeys() {
+        JwtKeyRing signerRing = JwtKeyRing.hmac(SECRET);
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        signerRing.activate("es256-1", SignatureAlgorithm.ES256, keyPair.getPrivate(), keyPair.getPublic(), null);
+        String token = new JwtUtil(signerRing).createJwt("user", "ROLE_USER", 60_000L);
+
+        JwtKeyRing verifierRing = JwtKeyRing.hmac(SECRET);
+        JwtUtil verifier = new JwtUtil(verifierRing);
+        assertThatThrownBy(() -> verifier.verify(token)).isInstanceOf(JwtException.class);
+
+        verifierRing.replacePublished(Map.of("es256-1",
+                new JwtKeyRing.VerificationKey(SignatureAlgorithm.ES256, keyPair.getPublic(), Instant.now().minusSeconds(1))));
+        assertThatThrownBy(() -> verifier.verify(token)).isInstanceOf(JwtException.class);
+    }
+}
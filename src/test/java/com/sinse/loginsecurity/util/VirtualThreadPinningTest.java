@@ -0,0 +1,180 @@
+package com.sinse.loginsecurity.util;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sinse.loginsecurity.config.JwtFilter;
+import com.sinse.loginsecurity.domain.Role;
+import com.sinse.loginsecurity.dto.UserCredentials;
+import com.sinse.loginsecurity.repository.JpaUserRepository;
+import com.sinse.loginsecurity.service.AccessTokenRevocationService;
+import com.sinse.loginsecurity.service.JpaUserDetailsService;
+import com.sinse.loginsecurity.service.RoleRegistry;
+import com.sinse.loginsecurity.service.UserDetailsCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 가상 스레드 모드에서 인증 핫패스가 캐리어 스레드를 고정(pinning)하지 않는지 JFR 이벤트로 확인
+ * DB 조회는 sleep으로 흉내 내어, loader가 synchronized 안에서 실행되면 jdk.VirtualThreadPinned 이벤트가 남도록 함
+ */
+class VirtualThreadPinningTest {
+
+    private static final String SECRET = "a-very-long-and-secure-secret-key-that-is-at-least-256-bits-long";
+    private static final long SIMULATED_IO_MS = 20;
+
+    // 검증 방법 자체가 동작하는지 확인 : synchronized 안에서 대기하면 이벤트가 기록되어야 함 (JDK 24부터는 pinning 없음)
+    @Test
+    void detectsPinningInsideSynchronizedBlock() throws Exception {
+        assumeTrue(Runtime.version().feature() < 24);
+        Object lock = new Object();
+
+        List<RecordedEvent> events = recordPinnedEvents(() -> {
+            Thread thread = Thread.ofVirtual().start(() -> {
+                synchronized (lock) {
+                    sleep(SIMULATED_IO_MS);
+                }
+            });
+            thread.join();
+        });
+
+        assertThat(events).isNotEmpty();
+    }
+
+    @Test
+    void blockingLoaderInNonPinningCacheDoesNotPin() throws Exception {
+        NonPinningCache<String, String> cache = new NonPinningCache<>(Caffeine.newBuilder().maximumSize(100));
+
+        List<RecordedEvent> events = recordPinnedEvents(() -> {
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < 200; i++) {
+                    String key = "user-" + (i % 10);
+                    executor.submit(() -> cache.get(key, k -> {
+                        sleep(SIMULATED_IO_MS);
+                        return k;
+                    }));
+                }
+            }
+        });
+
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void jwtFilterWithUserLookupDoesNotPin() throws Exception {
+        JwtUtil jwtUtil = new JwtUtil(SECRET);
+        UserDetailsCache userDetailsCache = new UserDetailsCache(
+                new StringRedisTemplate(), new RedisMessageListenerContainer(), new CircuitBreaker(3, Duration.ofSeconds(5)),
+                true, 10, 1_000, Duration.ofSeconds(5));
+        RoleRegistry roleRegistry = new RoleRegistry(null, null, new RedisMessageListenerContainer(), null);
+        roleRegistry.replace(List.of(role()));
+        JpaUserDetailsService userDetailsService = new JpaUserDetailsService(
+                slowRepository(), userDetailsCache, roleRegistry, new AuthMetrics(new SimpleMeterRegistry()));
+        JwtFilter jwtFilter = new JwtFilter(
+                new VerifiedTokenCache(jwtUtil, true, 1_000),
+                userDetailsService,
+                null,
+                false,
+                new AuthMetrics(new SimpleMeterRegistry()),
+                roleRegistry,
+                noRevocations());
+
+        List<RecordedEvent> events = recordPinnedEvents(() -> {
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < 200; i++) {
+                    String token = jwtUtil.createJwt("user-" + (i % 10), "ROLE_USER", 60_000L);
+                    executor.submit(() -> {
+                        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/info");
+                        request.addHeader("Authorization", "Bearer " + token);
+                        try {
+                            jwtFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> { });
+                            UserDetails principal = (UserDetails) SecurityContextHolder.getContext()
+                                    .getAuthentication().getPrincipal();
+                            assertThat(principal.getUsername()).startsWith("user-");
+                        } finally {
+                            SecurityContextHolder.clearContext();
+                        }
+                        return null;
+                    });
+                }
+            }
+        });
+
+        assertThat(events).isEmpty();
+    }
+
+    // findCredentialsByUsername만 구현한, DB 대신 sleep하는 저장소
+    private static JpaUserRepository slowRepository() {
+        return (JpaUserRepository) Proxy.newProxyInstance(
+                JpaUserRepository.class.getClassLoader(),
+                new Class<?>[]{JpaUserRepository.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("findCredentialsByUsername")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    sleep(SIMULATED_IO_MS);
+                    Role role = role();
+                    return new UserCredentials((String) args[0], "{noop}password", role.getRoleId(), role.getRoleName());
+                });
+    }
+
+    // 폐기된 토큰이 없는 상태 (Redis를 조회하지 않음)
+    private static AccessTokenRevocationService noRevocations() {
+        return new AccessTokenRevocationService(null, new RedisMessageListenerContainer(),
+                new CircuitBreaker(3, Duration.ofSeconds(5)), 1_000, 0.01, 1_000, 60_000) {
+            @Override
+            public boolean isRevoked(String tokenId) {
+                return false;
+            }
+        };
+    }
+
+    private static Role role() {
+        Role role = new Role();
+        role.setRoleId(1);
+        role.setRoleName("USER");
+        return role;
+    }
+
+    private static List<RecordedEvent> recordPinnedEvents(Work work) throws Exception {
+        List<RecordedEvent> events = new CopyOnWriteArrayList<>();
+        try (RecordingStream stream = new RecordingStream()) {
+            stream.enable("jdk.VirtualThreadPinned").withoutThreshold();
+            stream.onEvent("jdk.VirtualThreadPinned", events::add);
+            stream.startAsync();
+            work.run();
+            // stop()은 그때까지 기록된 이벤트를 모두 처리한 뒤 반환됨
+            stream.stop();
+        }
+        return events;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Work {
+        void run() throws Exception;
+    }
+}
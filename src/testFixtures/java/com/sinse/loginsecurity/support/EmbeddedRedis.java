@@ -0,0 +1,83 @@
+package com.sinse.loginsecurity.support;
+
+import com.sinse.loginsecurity.config.RedisConfig;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+
+/**
+ * 테스트, 부하 테스트가 함께 쓰는 내장 Redis (빈 포트에 띄움)
+ * stop()/restart()로 같은 포트의 Redis를 껐다 켜서 장애를 재현할 수 있음
+ *
+ * template()은 운영과 같은 클라이언트 설정(RedisConfig.clientConfiguration)에 짧은 타임아웃(300ms)을 써서
+ * Redis가 꺼진 동안의 명령이 오래 기다리지 않고 바로 실패함
+ */
+public final class EmbeddedRedis implements AutoCloseable {
+
+    private static final Duration TIMEOUT = Duration.ofMillis(300);
+
+    private final int port;
+    private final RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate template;
+
+    private EmbeddedRedis(int port, RedisServer redisServer) {
+        this.port = port;
+        this.redisServer = redisServer;
+    }
+
+    public static EmbeddedRedis start() throws IOException {
+        int port = freePort();
+        RedisServer redisServer = new RedisServer(port);
+        redisServer.start();
+        return new EmbeddedRedis(port, redisServer);
+    }
+
+    public int port() {
+        return port;
+    }
+
+    // 처음 호출할 때 연결을 만듦 (포트만 넘기는 부하 테스트는 연결하지 않음)
+    public synchronized StringRedisTemplate template() {
+        if (template == null) {
+            connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", port),
+                    RedisConfig.clientConfiguration(TIMEOUT, TIMEOUT));
+            connectionFactory.afterPropertiesSet();
+            connectionFactory.start();
+            template = new StringRedisTemplate(connectionFactory);
+        }
+        return template;
+    }
+
+    // Redis 장애 재현 : 프로세스만 내리고 연결 설정은 그대로 둠
+    public void stop() throws IOException {
+        redisServer.stop();
+    }
+
+    // 같은 포트로 다시 띄움 (Lettuce가 자동으로 재연결)
+    public void restart() throws IOException {
+        redisServer.start();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (connectionFactory != null) {
+                connectionFactory.destroy();
+            }
+        } finally {
+            redisServer.stop();
+        }
+    }
+
+    public static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}